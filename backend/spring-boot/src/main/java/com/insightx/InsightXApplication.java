@@ -5,6 +5,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main Spring Boot Application Entry Point
@@ -31,6 +32,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 })
 @EnableCaching
 @EnableAsync
+@EnableScheduling
 public class InsightXApplication {
 
     /**
@@ -0,0 +1,155 @@
+package com.insightx.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.entities.MediaType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache Codec Benchmark - Compares stored bytes and encode/decode cost per DTO type
+ *
+ * Runs once at startup when cache.codec.benchmark.enabled=true and logs one row per
+ * (DTO type, codec, compression) combination. Uses synthetic payloads shaped like the
+ * real cached values, so no Redis or FastAPI connection is needed.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.codec.benchmark.enabled", havingValue = "true")
+public class CacheCodecBenchmark implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheCodecBenchmark.class);
+
+    @Autowired
+    private CacheCodecRegistry codecRegistry;
+
+    @Autowired
+    private CacheCodecProperties properties;
+
+    // Written to defeat dead-code elimination of decode results
+    private volatile Object sink;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Map<String, Sample> samples = new LinkedHashMap<>();
+        samples.put("MediaMetadataDTO", new Sample(sampleMetadata(1),
+                codecRegistry.getTypeFactory().constructType(MediaMetadataDTO.class)));
+        samples.put("List<MediaMetadataDTO>[20]", new Sample(sampleMetadataList(20),
+                codecRegistry.getTypeFactory().constructType(new TypeReference<List<MediaMetadataDTO>>() { })));
+        samples.put("TasteProfile(profileData)", new Sample(sampleTasteProfile(),
+                codecRegistry.getTypeFactory().constructType(new TypeReference<Map<String, Object>>() { })));
+
+        log.info(String.format("%-28s %-6s %-5s %10s %14s %14s", "type", "codec", "lz4", "bytes", "encode ns/op", "decode ns/op"));
+        for (Map.Entry<String, Sample> entry : samples.entrySet()) {
+            for (CacheValueCodec codec : codecRegistry.getCodecs()) {
+                for (boolean compress : new boolean[]{false, true}) {
+                    Result result = measure(codec, compress, entry.getValue());
+                    log.info(String.format("%-28s %-6s %-5s %10d %14d %14d", entry.getKey(), codec.name(),
+                            compress, result.bytes, result.encodeNanos, result.decodeNanos));
+                }
+            }
+        }
+    }
+
+    private Result measure(CacheValueCodec codec, boolean compress, Sample sample) {
+        byte[] payload = codecRegistry.encode(codec, compress, sample.value);
+
+        for (int i = 0; i < properties.getBenchmark().getWarmupIterations(); i++) {
+            codecRegistry.encode(codec, compress, sample.value);
+            sink = codecRegistry.decode(payload, sample.type);
+        }
+
+        int iterations = properties.getBenchmark().getIterations();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            payload = codecRegistry.encode(codec, compress, sample.value);
+        }
+        long encodeNanos = (System.nanoTime() - start) / iterations;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = codecRegistry.decode(payload, sample.type);
+        }
+        long decodeNanos = (System.nanoTime() - start) / iterations;
+
+        return new Result(payload.length, encodeNanos, decodeNanos);
+    }
+
+    private static MediaMetadataDTO sampleMetadata(int seed) {
+        List<MediaMetadataDTO.CastMemberDTO> cast = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            cast.add(MediaMetadataDTO.CastMemberDTO.builder()
+                    .name("Cast Member " + seed + "-" + i)
+                    .character("Character " + i)
+                    .profileUrl("https://image.tmdb.org/t/p/w185/profile" + seed + "_" + i + ".jpg")
+                    .build());
+        }
+        List<String> images = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            images.add("https://image.tmdb.org/t/p/original/still" + seed + "_" + i + ".jpg");
+        }
+
+        return MediaMetadataDTO.builder()
+                .mediaId(String.valueOf(27205 + seed))
+                .mediaType(MediaType.MOVIE)
+                .title("Sample Title " + seed)
+                .originalTitle("Sample Original Title " + seed)
+                .overview("A thief who steals corporate secrets through the use of dream-sharing technology "
+                        + "is given the inverse task of planting an idea into the mind of a C.E.O., but his "
+                        + "tragic past may doom the project and his team to disaster.")
+                .releaseDate("2010-07-15")
+                .language("en")
+                .runtime(148)
+                .genres(List.of("Action", "Science Fiction", "Adventure"))
+                .themes(List.of("dreams", "heist", "subconscious", "grief"))
+                .creators(List.of("Christopher Nolan"))
+                .cast(cast)
+                .posterUrl("https://image.tmdb.org/t/p/w500/poster" + seed + ".jpg")
+                .backdropUrl("https://image.tmdb.org/t/p/original/backdrop" + seed + ".jpg")
+                .images(images)
+                .averageRating(8.4)
+                .voteCount(35000L)
+                .popularity(98.7)
+                .build();
+    }
+
+    private static List<MediaMetadataDTO> sampleMetadataList(int size) {
+        List<MediaMetadataDTO> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(sampleMetadata(i));
+        }
+        return list;
+    }
+
+    private static Map<String, Object> sampleTasteProfile() {
+        Map<String, Object> genres = new LinkedHashMap<>();
+        String[] names = {"Action", "Drama", "Science Fiction", "Comedy", "Thriller", "Fantasy", "Horror", "Romance"};
+        for (int i = 0; i < names.length; i++) {
+            genres.put(names[i], 0.3 + i * 0.08);
+        }
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("genrePreferences", genres);
+        profile.put("themeAffinities", Map.of("time-travel", 0.75, "redemption", 0.60, "heist", 0.55));
+        profile.put("averageRating", 7.5);
+        profile.put("totalRatings", 45);
+        profile.put("favoriteCreators", List.of("Christopher Nolan", "Denis Villeneuve"));
+        profile.put("mediaTypeDistribution", Map.of("movie", 60, "book", 25, "game", 15));
+        return profile;
+    }
+
+    private record Sample(Object value, JavaType type) {
+    }
+
+    private record Result(int bytes, long encodeNanos, long decodeNanos) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.insightx.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cache codec settings (cache.codec.*)
+ * Selects the value format per Redis key prefix and when to compress
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache.codec")
+public class CacheCodecProperties {
+
+    /**
+     * Format used for keys that match no prefix mapping (json|smile|cbor)
+     */
+    private String defaultFormat = "smile";
+
+    /**
+     * Compression algorithm for large payloads (lz4|none)
+     */
+    private String compression = "lz4";
+
+    /**
+     * Payloads at or above this many encoded bytes are compressed
+     */
+    private int compressionThreshold = 1024;
+
+    private List<PrefixMapping> prefixes = new ArrayList<>();
+
+    private Benchmark benchmark = new Benchmark();
+
+    @Data
+    public static class PrefixMapping {
+        private String prefix;
+        private String format;
+        private Boolean compress;
+    }
+
+    @Data
+    public static class Benchmark {
+        private boolean enabled = false;
+        private int warmupIterations = 2000;
+        private int iterations = 20000;
+    }
+}
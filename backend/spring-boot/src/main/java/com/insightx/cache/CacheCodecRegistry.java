@@ -0,0 +1,223 @@
+package com.insightx.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import jakarta.annotation.PostConstruct;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cache Codec Registry - Encodes Redis cache values with a per-key-prefix codec
+ *
+ * Payload layout:
+ *   [magic][format version][codec id][flags] ([original length: int32] when compressed) [body]
+ *
+ * The header makes every value self-describing, so the configured format can change
+ * at any time: existing values are still decoded with the codec that wrote them, and
+ * values with an unknown version or codec are treated as cache misses.
+ * Values without the magic byte are legacy plain-JSON entries.
+ */
+@Component
+public class CacheCodecRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheCodecRegistry.class);
+
+    static final byte MAGIC = (byte) 0xC5;
+    static final byte FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 4;
+    static final int LENGTH_BYTES = 4;
+    static final byte FLAG_LZ4 = 0x01;
+    private static final int MAX_DECOMPRESSED_BYTES = 64 * 1024 * 1024;
+
+    @Autowired
+    private CacheCodecProperties properties;
+
+    private final Map<Byte, CacheValueCodec> codecsById = new HashMap<>();
+    private final Map<String, CacheValueCodec> codecsByName = new HashMap<>();
+    private final List<ResolvedMapping> mappings = new ArrayList<>();
+    private final LZ4Factory lz4 = LZ4Factory.fastestInstance();
+    private final TypeFactory typeFactory = TypeFactory.defaultInstance();
+
+    private CacheValueCodec legacyCodec;
+    private ResolvedMapping defaultMapping;
+
+    @PostConstruct
+    public void init() {
+        register(JacksonCacheValueCodec.json());
+        register(JacksonCacheValueCodec.smile());
+        register(JacksonCacheValueCodec.cbor());
+        legacyCodec = codecsById.get(JacksonCacheValueCodec.JSON_ID);
+
+        boolean compressionEnabled = "lz4".equalsIgnoreCase(properties.getCompression());
+        defaultMapping = new ResolvedMapping("", codecFor(properties.getDefaultFormat()), compressionEnabled);
+
+        for (CacheCodecProperties.PrefixMapping mapping : properties.getPrefixes()) {
+            boolean compress = compressionEnabled && (mapping.getCompress() == null || mapping.getCompress());
+            mappings.add(new ResolvedMapping(mapping.getPrefix(), codecFor(mapping.getFormat()), compress));
+        }
+        // Longest prefix wins
+        mappings.sort(Comparator.comparingInt((ResolvedMapping m) -> m.prefix.length()).reversed());
+
+        log.info("Cache codecs initialized (default: {}, compression: {} >= {} bytes, {} prefix mappings)",
+                defaultMapping.codec.name(), properties.getCompression(),
+                properties.getCompressionThreshold(), mappings.size());
+    }
+
+    /**
+     * Encode a value with the codec configured for the key's prefix
+     */
+    public byte[] encode(String key, Object value) {
+        ResolvedMapping mapping = resolve(key);
+        return encode(mapping.codec, mapping.compress, value);
+    }
+
+    public <T> T decode(byte[] payload, Class<T> type) {
+        return decode(payload, typeFactory.constructType(type));
+    }
+
+    public <T> T decode(byte[] payload, TypeReference<T> type) {
+        return decode(payload, typeFactory.constructType(type));
+    }
+
+    /**
+     * Decode a payload using the codec recorded in its header.
+     * Returns null for empty, unknown-version or corrupt payloads so callers treat them as misses.
+     */
+    public <T> T decode(byte[] payload, JavaType type) {
+        if (payload == null || payload.length == 0) {
+            return null;
+        }
+
+        try {
+            if (payload[0] != MAGIC) {
+                return legacyCodec.decode(payload, 0, payload.length, type);
+            }
+            if (payload.length < HEADER_BYTES || payload[1] != FORMAT_VERSION) {
+                log.debug("Skipping cache value with unsupported format version {}", payload.length > 1 ? payload[1] : -1);
+                return null;
+            }
+
+            CacheValueCodec codec = codecsById.get(payload[2]);
+            if (codec == null) {
+                log.debug("Skipping cache value with unknown codec id {}", payload[2]);
+                return null;
+            }
+
+            if ((payload[3] & FLAG_LZ4) == 0) {
+                return codec.decode(payload, HEADER_BYTES, payload.length - HEADER_BYTES, type);
+            }
+
+            int originalLength = readInt(payload, HEADER_BYTES);
+            if (originalLength < 0 || originalLength > MAX_DECOMPRESSED_BYTES) {
+                return null;
+            }
+            byte[] restored = new byte[originalLength];
+            LZ4FastDecompressor decompressor = lz4.fastDecompressor();
+            decompressor.decompress(payload, HEADER_BYTES + LENGTH_BYTES, restored, 0, originalLength);
+            return codec.decode(restored, 0, originalLength, type);
+        } catch (Exception e) {
+            log.warn("Error decoding cache value as {}: {}", type, e.getMessage());
+            return null;
+        }
+    }
+
+    public TypeFactory getTypeFactory() {
+        return typeFactory;
+    }
+
+    /**
+     * Encode with an explicit codec and compression setting (used by the benchmark)
+     */
+    byte[] encode(CacheValueCodec codec, boolean compress, Object value) {
+        byte[] body;
+        try {
+            body = codec.encode(value);
+        } catch (Exception e) {
+            throw new SerializationException("Could not encode cache value with " + codec.name(), e);
+        }
+
+        if (compress && body.length >= properties.getCompressionThreshold()) {
+            LZ4Compressor compressor = lz4.fastCompressor();
+            int maxLength = compressor.maxCompressedLength(body.length);
+            byte[] out = new byte[HEADER_BYTES + LENGTH_BYTES + maxLength];
+            int compressedLength = compressor.compress(body, 0, body.length, out, HEADER_BYTES + LENGTH_BYTES, maxLength);
+
+            // Only keep the compressed form if it actually saves space
+            if (compressedLength + LENGTH_BYTES < body.length) {
+                writeHeader(out, codec.id(), FLAG_LZ4);
+                writeInt(out, HEADER_BYTES, body.length);
+                return Arrays.copyOf(out, HEADER_BYTES + LENGTH_BYTES + compressedLength);
+            }
+        }
+
+        byte[] out = new byte[HEADER_BYTES + body.length];
+        writeHeader(out, codec.id(), (byte) 0);
+        System.arraycopy(body, 0, out, HEADER_BYTES, body.length);
+        return out;
+    }
+
+    List<CacheValueCodec> getCodecs() {
+        List<CacheValueCodec> codecs = new ArrayList<>(codecsById.values());
+        codecs.sort(Comparator.comparingInt(CacheValueCodec::id));
+        return codecs;
+    }
+
+    private void register(CacheValueCodec codec) {
+        codecsById.put(codec.id(), codec);
+        codecsByName.put(codec.name(), codec);
+    }
+
+    private CacheValueCodec codecFor(String name) {
+        CacheValueCodec codec = codecsByName.get(name == null ? "" : name.toLowerCase(Locale.ROOT));
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown cache codec: " + name);
+        }
+        return codec;
+    }
+
+    private ResolvedMapping resolve(String key) {
+        for (ResolvedMapping mapping : mappings) {
+            if (key.startsWith(mapping.prefix)) {
+                return mapping;
+            }
+        }
+        return defaultMapping;
+    }
+
+    private static void writeHeader(byte[] out, byte codecId, byte flags) {
+        out[0] = MAGIC;
+        out[1] = FORMAT_VERSION;
+        out[2] = codecId;
+        out[3] = flags;
+    }
+
+    private static void writeInt(byte[] out, int offset, int value) {
+        out[offset] = (byte) (value >>> 24);
+        out[offset + 1] = (byte) (value >>> 16);
+        out[offset + 2] = (byte) (value >>> 8);
+        out[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] in, int offset) {
+        return ((in[offset] & 0xFF) << 24) | ((in[offset + 1] & 0xFF) << 16)
+                | ((in[offset + 2] & 0xFF) << 8) | (in[offset + 3] & 0xFF);
+    }
+
+    private record ResolvedMapping(String prefix, CacheValueCodec codec, boolean compress) {
+    }
+}
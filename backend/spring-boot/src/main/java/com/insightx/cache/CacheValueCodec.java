@@ -0,0 +1,26 @@
+package com.insightx.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+/**
+ * Cache Value Codec - Encodes cache values to bytes and back
+ *
+ * Each codec has a stable one-byte id that is written into the payload header,
+ * so values can always be decoded with the codec that produced them.
+ */
+public interface CacheValueCodec {
+
+    /**
+     * Stable identifier stored in the payload header (never reuse an id)
+     */
+    byte id();
+
+    /**
+     * Name used in configuration (e.g. "json", "smile", "cbor")
+     */
+    String name();
+
+    byte[] encode(Object value) throws Exception;
+
+    <T> T decode(byte[] data, int offset, int length, JavaType type) throws Exception;
+}
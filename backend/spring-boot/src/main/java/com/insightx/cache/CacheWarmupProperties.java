@@ -0,0 +1,46 @@
+package com.insightx.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache warm-up settings (cache.warmup.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache.warmup")
+public class CacheWarmupProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Number of hot media items whose metadata is warmed
+     */
+    private int hotKeys = 500;
+
+    /**
+     * Size cap of the shared access-frequency set in Redis
+     */
+    private int maxTrackedKeys = 10000;
+
+    /**
+     * Parallel FastAPI calls during warm-up
+     */
+    private int concurrency = 4;
+
+    /**
+     * Upper bound on FastAPI calls per second during warm-up
+     */
+    private int ratePerSecond = 20;
+
+    /**
+     * The node reports healthy after this even if the startup warm-up has not finished
+     */
+    private long maxDurationMs = 60000;
+
+    /**
+     * Trending and new releases are warmed for this many regions (by active users)
+     */
+    private int regions = 3;
+}
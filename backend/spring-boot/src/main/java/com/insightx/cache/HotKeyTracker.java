@@ -0,0 +1,132 @@
+package com.insightx.cache;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.entities.MediaType;
+import com.insightx.jobs.JobCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hot Key Tracker - Access-frequency counters for media metadata
+ *
+ * Accesses are counted in memory and flushed periodically into a Redis sorted set shared
+ * by all nodes, so recording stays off the request path. Scores are halved on a schedule
+ * (by one node at a time) so the set follows current popularity rather than all-time totals.
+ */
+@Component
+public class HotKeyTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(HotKeyTracker.class);
+    private static final String HOT_KEYS = "cache:hot:media";
+    private static final double DECAY_WEIGHT = 0.5;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private CacheWarmupProperties properties;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Value("${cache.warmup.decay-interval-ms:3600000}")
+    private long decayIntervalMs;
+
+    private volatile Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Count one access to a media item
+     */
+    public void record(MediaType mediaType, String mediaId) {
+        Map<String, LongAdder> counters = pending;
+        String member = new MediaKey(mediaType, mediaId).toString();
+        LongAdder counter = counters.get(member);
+        if (counter == null) {
+            // Bound memory between flushes; keys first seen after the cap are skipped until the next flush
+            if (counters.size() >= properties.getMaxTrackedKeys()) {
+                return;
+            }
+            counter = counters.computeIfAbsent(member, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Most accessed media items across all nodes, hottest first
+     */
+    public List<MediaKey> topKeys(int limit) {
+        Set<String> members;
+        try {
+            members = stringRedisTemplate.opsForZSet().reverseRange(HOT_KEYS, 0, limit - 1L);
+        } catch (Exception e) {
+            log.error("Error reading hot keys: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+        if (members == null) {
+            return Collections.emptyList();
+        }
+
+        List<MediaKey> keys = new ArrayList<>(members.size());
+        for (String member : members) {
+            try {
+                keys.add(MediaKey.parse(member));
+            } catch (IllegalArgumentException e) {
+                log.debug("Skipping malformed hot key {}", member);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Push local counters to Redis and trim the shared set to its size cap
+     */
+    @Scheduled(fixedDelayString = "${cache.warmup.flush-interval-ms:30000}")
+    public void flush() {
+        // Increments racing with the swap may land in the old map and are dropped; counts are approximate
+        Map<String, LongAdder> batch = pending;
+        if (batch.isEmpty()) {
+            return;
+        }
+        pending = new ConcurrentHashMap<>();
+
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                batch.forEach((member, count) -> redis.zIncrBy(HOT_KEYS, count.sum(), member));
+                return null;
+            });
+            stringRedisTemplate.opsForZSet().removeRange(HOT_KEYS, 0, -(properties.getMaxTrackedKeys() + 1L));
+        } catch (Exception e) {
+            log.error("Error flushing {} hot key counters: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Halve all scores; runs on one node per interval (JobCoordinator)
+     */
+    @Scheduled(fixedDelayString = "${cache.warmup.decay-interval-ms:3600000}",
+               initialDelayString = "${cache.warmup.decay-interval-ms:3600000}")
+    public void decay() {
+        jobCoordinator.runPeriodic("hot-key-decay", Duration.ofMillis(decayIntervalMs), () ->
+                stringRedisTemplate.opsForZSet().unionAndStore(HOT_KEYS, Collections.emptyList(), HOT_KEYS,
+                        Aggregate.SUM, Weights.of(DECAY_WEIGHT)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.insightx.cache;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Jackson-backed cache codec for JSON and its binary siblings (Smile, CBOR)
+ */
+public class JacksonCacheValueCodec implements CacheValueCodec {
+
+    public static final byte JSON_ID = 1;
+    public static final byte SMILE_ID = 2;
+    public static final byte CBOR_ID = 3;
+
+    private final byte id;
+    private final String name;
+    private final ObjectMapper mapper;
+
+    private JacksonCacheValueCodec(byte id, String name, JsonFactory factory) {
+        this.id = id;
+        this.name = name;
+        this.mapper = new ObjectMapper(factory);
+        this.mapper.registerModule(new JavaTimeModule());
+        this.mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    public static JacksonCacheValueCodec json() {
+        return new JacksonCacheValueCodec(JSON_ID, "json", new JsonFactory());
+    }
+
+    public static JacksonCacheValueCodec smile() {
+        return new JacksonCacheValueCodec(SMILE_ID, "smile", new SmileFactory());
+    }
+
+    public static JacksonCacheValueCodec cbor() {
+        return new JacksonCacheValueCodec(CBOR_ID, "cbor", new CBORFactory());
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws Exception {
+        return mapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] data, int offset, int length, JavaType type) throws Exception {
+        return mapper.readValue(data, offset, length, type);
+    }
+
+    public ObjectMapper getMapper() {
+        return mapper;
+    }
+}
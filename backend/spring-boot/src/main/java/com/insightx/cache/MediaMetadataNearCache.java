@@ -0,0 +1,225 @@
+package com.insightx.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.entities.MediaType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Media Metadata Near Cache - Two-tier cache for MediaMetadataDTO
+ *
+ * Tier 1: in-process Caffeine cache (W-TinyLFU admission), bounded by estimated bytes
+ * Tier 2: Redis, shared by all nodes
+ *
+ * Local hits skip both the Redis round-trip and deserialization; Redis values are
+ * encoded by CacheCodecRegistry.
+ * FastAPI owns the metadata and nothing in this service changes it, so entries are never
+ * invalidated; they expire after their TTL (the local TTL never exceeds the Redis one).
+ */
+@Component
+public class MediaMetadataNearCache {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaMetadataNearCache.class);
+    private static final String CACHE_NAME = "media-metadata";
+    private static final String KEY_PREFIX = "fastapi:media:";
+    private static final String METRIC_PREFIX = "cache.near";
+
+    // Rough JVM footprint estimates used by the weigher
+    private static final int OBJECT_OVERHEAD_BYTES = 16;
+    private static final int REFERENCE_BYTES = 8;
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    @Autowired
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Autowired
+    private CacheCodecRegistry codecRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.near.media-metadata.max-bytes:67108864}") // 64 MB default
+    private long maxBytes;
+
+    @Value("${cache.near.media-metadata.ttl:1800}") // 30 minutes default
+    private long localTtlSeconds;
+
+    @Value("${cache.ttl.media-metadata:7200}")
+    private long redisTtlSeconds;
+
+    private Cache<String, MediaMetadataDTO> localCache;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, MediaMetadataDTO value) -> estimateSize(key, value))
+                .expireAfterWrite(Duration.ofSeconds(Math.min(localTtlSeconds, redisTtlSeconds)))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, CACHE_NAME);
+        Gauge.builder(METRIC_PREFIX + ".hit.ratio", localCache, c -> c.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".weighted.size", localCache,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .tag("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        log.info("Media metadata near cache initialized (max {} bytes)", maxBytes);
+    }
+
+    /**
+     * Get metadata from the local tier, then Redis, then the loader.
+     * Returns null if none of the tiers can provide a value.
+     */
+    public MediaMetadataDTO get(MediaType mediaType, String mediaId, Supplier<MediaMetadataDTO> loader) {
+        String key = buildKey(mediaType, mediaId);
+
+        MediaMetadataDTO cached = localCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        MediaMetadataDTO remote = readRemote(key);
+        if (remote != null) {
+            localCache.put(key, remote);
+            return remote;
+        }
+
+        MediaMetadataDTO loaded = loader.get();
+        if (loaded != null) {
+            put(mediaType, mediaId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Metadata of many items from the local tier, then one Redis round-trip for the rest;
+     * never calls a loader. Items in neither tier are absent from the result.
+     */
+    public Map<MediaKey, MediaMetadataDTO> getAllCached(Collection<MediaKey> items) {
+        Map<MediaKey, MediaMetadataDTO> found = new HashMap<>();
+        List<MediaKey> remote = new ArrayList<>();
+        List<String> remoteKeys = new ArrayList<>();
+        for (MediaKey item : items) {
+            String key = buildKey(item.mediaType(), item.mediaId());
+            MediaMetadataDTO cached = localCache.getIfPresent(key);
+            if (cached != null) {
+                found.put(item, cached);
+            } else {
+                remote.add(item);
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+
+        List<byte[]> values;
+        try {
+            values = binaryRedisTemplate.opsForValue().multiGet(remoteKeys);
+        } catch (Exception e) {
+            log.error("Error reading cached metadata of {} items: {}", remoteKeys.size(), e.getMessage());
+            return found;
+        }
+        if (values == null) {
+            return found;
+        }
+        for (int i = 0; i < remote.size() && i < values.size(); i++) {
+            MediaMetadataDTO metadata = codecRegistry.decode(values.get(i), MediaMetadataDTO.class);
+            if (metadata != null) {
+                localCache.put(remoteKeys.get(i), metadata);
+                found.put(remote.get(i), metadata);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Store metadata in both tiers
+     */
+    public void put(MediaType mediaType, String mediaId, MediaMetadataDTO metadata) {
+        String key = buildKey(mediaType, mediaId);
+        localCache.put(key, metadata);
+        writeRemote(key, metadata);
+    }
+
+    private MediaMetadataDTO readRemote(String key) {
+        try {
+            return codecRegistry.decode(binaryRedisTemplate.opsForValue().get(key), MediaMetadataDTO.class);
+        } catch (Exception e) {
+            log.error("Error reading cached metadata {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(String key, MediaMetadataDTO metadata) {
+        try {
+            binaryRedisTemplate.opsForValue().set(key, codecRegistry.encode(key, metadata),
+                    Duration.ofSeconds(redisTtlSeconds));
+        } catch (Exception e) {
+            log.error("Error caching metadata {}: {}", key, e.getMessage());
+        }
+    }
+
+    private String buildKey(MediaType mediaType, String mediaId) {
+        return KEY_PREFIX + mediaType.getValue() + ":" + mediaId;
+    }
+
+    /**
+     * Estimate the retained heap size of a cache entry in bytes
+     */
+    static int estimateSize(String key, MediaMetadataDTO metadata) {
+        long size = sizeOf(key) + OBJECT_OVERHEAD_BYTES + 18L * REFERENCE_BYTES;
+        size += sizeOf(metadata.getMediaId()) + sizeOf(metadata.getTitle())
+                + sizeOf(metadata.getOriginalTitle()) + sizeOf(metadata.getOverview())
+                + sizeOf(metadata.getReleaseDate()) + sizeOf(metadata.getLanguage())
+                + sizeOf(metadata.getPosterUrl()) + sizeOf(metadata.getBackdropUrl());
+        size += sizeOf(metadata.getGenres()) + sizeOf(metadata.getThemes())
+                + sizeOf(metadata.getCreators()) + sizeOf(metadata.getImages());
+        if (metadata.getCast() != null) {
+            for (MediaMetadataDTO.CastMemberDTO member : metadata.getCast()) {
+                size += OBJECT_OVERHEAD_BYTES + 3L * REFERENCE_BYTES + sizeOf(member.getName())
+                        + sizeOf(member.getCharacter()) + sizeOf(member.getProfileUrl());
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    private static long sizeOf(String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + value.length();
+    }
+
+    private static long sizeOf(List<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        long size = OBJECT_OVERHEAD_BYTES + (long) values.size() * REFERENCE_BYTES;
+        for (String value : values) {
+            size += sizeOf(value);
+        }
+        return size;
+    }
+}
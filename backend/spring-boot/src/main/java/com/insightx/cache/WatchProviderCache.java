@@ -0,0 +1,111 @@
+package com.insightx.cache;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.WatchProviderDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watch Provider Cache - Region-partitioned Redis cache of watch providers
+ *
+ * Key format: fastapi:providers:{REGION}:{type}:{id}
+ * The region is a Redis Cluster hash tag, so all providers of a region live in one slot and
+ * a whole result list is resolved with a single MGET (and written back with one pipeline).
+ * Items without providers are cached as empty entries so they are not re-requested.
+ */
+@Component
+public class WatchProviderCache {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchProviderCache.class);
+    private static final String KEY_PREFIX = "fastapi:providers:";
+
+    @Autowired
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Autowired
+    private CacheCodecRegistry codecRegistry;
+
+    @Value("${cache.ttl.watch-providers:3600}")
+    private long ttlSeconds;
+
+    /**
+     * Cached providers for the given items; missing items are absent from the result
+     */
+    public Map<MediaKey, WatchProviderDTO> getAll(String region, Collection<MediaKey> items) {
+        Map<MediaKey, WatchProviderDTO> found = new HashMap<>();
+        if (items.isEmpty()) {
+            return found;
+        }
+
+        List<MediaKey> ordered = new ArrayList<>(items);
+        List<String> keys = new ArrayList<>(ordered.size());
+        for (MediaKey item : ordered) {
+            keys.add(buildKey(region, item));
+        }
+
+        List<byte[]> values;
+        try {
+            values = binaryRedisTemplate.opsForValue().multiGet(keys);
+        } catch (Exception e) {
+            log.error("Error reading cached watch providers for region {}: {}", region, e.getMessage());
+            return found;
+        }
+        if (values == null) {
+            return found;
+        }
+
+        for (int i = 0; i < ordered.size() && i < values.size(); i++) {
+            WatchProviderDTO providers = codecRegistry.decode(values.get(i), WatchProviderDTO.class);
+            if (providers != null) {
+                found.put(ordered.get(i), providers);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Store providers for many items of one region in a single pipeline
+     */
+    public void putAll(String region, Map<MediaKey, WatchProviderDTO> providers) {
+        if (providers.isEmpty()) {
+            return;
+        }
+
+        Map<byte[], byte[]> encoded = new HashMap<>();
+        for (Map.Entry<MediaKey, WatchProviderDTO> entry : providers.entrySet()) {
+            String key = buildKey(region, entry.getKey());
+            encoded.put(key.getBytes(StandardCharsets.UTF_8), codecRegistry.encode(key, entry.getValue()));
+        }
+
+        try {
+            Expiration expiration = Expiration.from(ttlSeconds, TimeUnit.SECONDS);
+            binaryRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                encoded.forEach((key, value) -> connection.stringCommands()
+                        .set(key, value, expiration, RedisStringCommands.SetOption.upsert()));
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Error caching {} watch providers for region {}: {}", providers.size(), region, e.getMessage());
+        }
+    }
+
+    private String buildKey(String region, MediaKey item) {
+        return KEY_PREFIX + "{" + region.toUpperCase(Locale.ROOT) + "}:" + item.mediaType().getValue() + ":" + item.mediaId();
+    }
+}
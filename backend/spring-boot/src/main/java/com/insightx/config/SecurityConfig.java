@@ -1,6 +1,7 @@
 package com.insightx.config;
 
 import com.insightx.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -49,6 +50,9 @@ public class SecurityConfig {
                 
                 // Configure authorization
                 .authorizeHttpRequests(auth -> auth
+                        // Async (streamed responses) and error dispatches of an already authorized request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+
                         // Public endpoints (context path /api is stripped, so use paths without it)
                         .requestMatchers(
                                 "/auth/**",
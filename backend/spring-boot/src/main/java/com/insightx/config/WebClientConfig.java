@@ -1,5 +1,66 @@
 package com.insightx.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * WebClient Configuration
+ * Configures the non-blocking HTTP client used to call the FastAPI intelligence layer
+ */
+@Configuration
+public class WebClientConfig {
+
+    private static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+    private static final int MAX_IN_MEMORY_SIZE = 2 * 1024 * 1024; // Metadata payloads can be large
+
+    @Value("${fastapi.base-url}")
+    private String baseUrl;
+
+    @Value("${fastapi.service-token}")
+    private String serviceToken;
+
+    @Value("${fastapi.timeout.connect:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${fastapi.timeout.read:30000}")
+    private long readTimeoutMs;
+
+    @Value("${fastapi.max-connections:100}")
+    private int maxConnections;
+
+    @Bean
+    public WebClient fastApiWebClient() {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("fastapi")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+
+        ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(MAX_IN_MEMORY_SIZE))
+                .build();
+
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .defaultHeader(SERVICE_TOKEN_HEADER, serviceToken)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .exchangeStrategies(strategies)
+                .build();
+    }
+}
+
 // WebClient Configuration for FastAPI Communication
 // Configures non-blocking HTTP client for intelligence service integration
 //
@@ -1,5 +1,524 @@
 package com.insightx.controllers;
 
+import com.insightx.dto.ApiResponse;
+import com.insightx.dto.AutocompleteSuggestionDTO;
+import com.insightx.dto.BookmarkDTO;
+import com.insightx.dto.BookmarkRequest;
+import com.insightx.dto.MarkWatchedRequest;
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.dto.MediaStateBatchRequest;
+import com.insightx.dto.MediaStateDTO;
+import com.insightx.dto.RatingDTO;
+import com.insightx.dto.RatingRequest;
+import com.insightx.dto.WatchProviderDTO;
+import com.insightx.dto.WatchProvidersBatchRequest;
+import com.insightx.dto.WatchedEntryDTO;
+import com.insightx.entities.User;
+import com.insightx.entities.MediaType;
+import com.insightx.exceptions.ResourceNotFoundException;
+import com.insightx.exceptions.UnauthorizedException;
+import com.insightx.exceptions.ValidationException;
+import com.insightx.media.MediaState;
+import com.insightx.media.UserMediaStateIndex;
+import com.insightx.services.BookmarkService;
+import com.insightx.services.FastAPIService;
+import com.insightx.services.RatingService;
+import com.insightx.services.UserMediaStateService;
+import com.insightx.services.WatchedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Media Controller
+ * REST API endpoints for media metadata and user media state
+ */
+@RestController
+@RequestMapping("/media")
+@Tag(name = "Media", description = "Media metadata and user media state endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class MediaController {
+
+    private static final int MAX_SEARCH_LIMIT = 50;
+    private static final int MAX_QUERY_LENGTH = 100;
+    private static final int MAX_AUTOCOMPLETE_LIMIT = 10;
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private WatchedService watchedService;
+
+    @Autowired
+    private BookmarkService bookmarkService;
+
+    @Autowired
+    private UserMediaStateIndex userMediaStateIndex;
+
+    @Autowired
+    private UserMediaStateService userMediaStateService;
+
+    @Value("${insightx.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    /**
+     * GET /api/media/autocomplete
+     * Title suggestions for type-ahead search (served locally, without calling FastAPI)
+     */
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete titles",
+               description = "Suggest media titles for a typed prefix; use /media/search for full results")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Suggestions"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid query, media type or limit")
+    })
+    public ResponseEntity<List<AutocompleteSuggestionDTO>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        if (q.length() > MAX_QUERY_LENGTH) {
+            throw new ValidationException("q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_AUTOCOMPLETE_LIMIT) {
+            throw new ValidationException("limit must be between 1 and " + MAX_AUTOCOMPLETE_LIMIT);
+        }
+        MediaType type = mediaType == null || mediaType.equalsIgnoreCase("all") ? null : parseMediaType(mediaType);
+        return ResponseEntity.ok(fastAPIService.autocomplete(q, type, limit));
+    }
+
+    /**
+     * GET /api/media/search
+     * Search for media across types
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search media",
+               description = "Search movies, books and games; queries are case, whitespace and accent insensitive")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Search results"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid query, media type or limit")
+    })
+    public ResponseEntity<List<MediaMetadataDTO>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        if (q.length() > MAX_QUERY_LENGTH) {
+            throw new ValidationException("q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ValidationException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        MediaType type = mediaType == null || mediaType.equalsIgnoreCase("all") ? null : parseMediaType(mediaType);
+        return ResponseEntity.ok(fastAPIService.searchMedia(q, type, limit));
+    }
+
+    /**
+     * GET /api/media/{mediaType}/{mediaId}
+     * Get complete media metadata
+     */
+    @GetMapping("/{mediaType}/{mediaId}")
+    @Operation(summary = "Get media metadata",
+               description = "Retrieve complete metadata for a movie, book or game")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Metadata retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid media type"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Media not found")
+    })
+    public ResponseEntity<MediaMetadataDTO> getMediaMetadata(
+            @PathVariable String mediaType,
+            @PathVariable String mediaId) {
+
+        MediaType type = parseMediaType(mediaType);
+        MediaMetadataDTO metadata = fastAPIService.getMediaMetadata(mediaId, type)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Media not found: " + type.getValue() + "/" + mediaId));
+        return ResponseEntity.ok(metadata);
+    }
+
+    /**
+     * GET /api/media/providers/{region}/{mediaType}/{mediaId}
+     * Get watch providers for media in specific region
+     */
+    @GetMapping("/providers/{region}/{mediaType}/{mediaId}")
+    @Operation(summary = "Get watch providers",
+               description = "Streaming, rent and buy availability of a media item in a region")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Providers retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid media type"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Providers not available")
+    })
+    public ResponseEntity<WatchProviderDTO> getWatchProviders(
+            @PathVariable String region,
+            @PathVariable String mediaType,
+            @PathVariable String mediaId) {
+
+        MediaType type = parseMediaType(mediaType);
+        WatchProviderDTO providers = fastAPIService.getWatchProviders(mediaId, type, region)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Watch providers not available: " + type.getValue() + "/" + mediaId));
+        return ResponseEntity.ok(providers);
+    }
+
+    /**
+     * POST /api/media/providers/batch
+     * Get watch providers for a whole result list in one request (defaults to the user's region)
+     */
+    @PostMapping("/providers/batch")
+    @Operation(summary = "Get watch providers for many items",
+               description = "Resolve providers for up to 100 items in one region with a single lookup")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Providers retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    public ResponseEntity<List<WatchProviderDTO>> getWatchProvidersBatch(
+            @Valid @RequestBody WatchProvidersBatchRequest request,
+            Authentication authentication) {
+
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            throw new UnauthorizedException("Not authenticated");
+        }
+        String region = request.getRegion() != null ? request.getRegion() : user.getRegion();
+
+        List<MediaKey> items = new ArrayList<>(request.getItems().size());
+        for (WatchProvidersBatchRequest.Item item : request.getItems()) {
+            items.add(new MediaKey(item.getMediaType(), item.getMediaId()));
+        }
+        Map<MediaKey, WatchProviderDTO> providers = fastAPIService.getWatchProviders(items, region);
+
+        // Keep request order; items FastAPI could not resolve are omitted
+        List<WatchProviderDTO> response = new ArrayList<>(items.size());
+        for (MediaKey item : new LinkedHashSet<>(items)) {
+            WatchProviderDTO itemProviders = providers.get(item);
+            if (itemProviders != null) {
+                response.add(itemProviders);
+            }
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /api/media/state/batch
+     * Watched / rated / bookmarked flags and the user's rating for a whole list in one request
+     */
+    @PostMapping("/state/batch")
+    @Operation(summary = "Get user state for many items",
+               description = "Watched, rated and bookmarked flags plus the user's rating for up to 100 items")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "States retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    public ResponseEntity<List<MediaStateDTO>> getStatesBatch(
+            @Valid @RequestBody MediaStateBatchRequest request,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        List<MediaKey> items = new ArrayList<>(request.getItems().size());
+        for (MediaStateBatchRequest.Item item : request.getItems()) {
+            items.add(new MediaKey(item.getMediaType(), item.getMediaId()));
+        }
+        return ResponseEntity.ok(userMediaStateService.getStates(user.getId(), items));
+    }
+
+    /**
+     * POST /api/media/rating
+     * Submit or update rating for media (updates the taste profile in the background)
+     */
+    @PostMapping("/rating")
+    @Operation(summary = "Rate media",
+               description = "Submit or update the current user's rating (1-10) for a media item")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Rating created"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Rating updated"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    public ResponseEntity<RatingDTO> submitRating(
+            @Valid @RequestBody RatingRequest request,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        boolean created = ratingService.getRatingForMedia(user.getId(), request.getMediaId(), request.getMediaType())
+                .isEmpty();
+        RatingDTO rating = ratingService.submitRating(user.getId(), request);
+        return ResponseEntity.status(created ? HttpStatus.CREATED : HttpStatus.OK).body(rating);
+    }
+
+    /**
+     * DELETE /api/media/rating/{mediaType}/{mediaId}
+     * Delete the current user's rating
+     */
+    @DeleteMapping("/rating/{mediaType}/{mediaId}")
+    @Operation(summary = "Delete rating", description = "Remove the current user's rating for a media item")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Rating deleted"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Rating not found")
+    })
+    public ResponseEntity<ApiResponse<String>> deleteRating(
+            @PathVariable String mediaType,
+            @PathVariable String mediaId,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        ratingService.deleteRating(user.getId(), mediaId, parseMediaType(mediaType));
+        return ResponseEntity.ok(ApiResponse.success("Rating deleted successfully"));
+    }
+
+    /**
+     * GET /api/media/rating/{mediaType}/{mediaId}
+     * Get the current user's rating for a media item
+     */
+    @GetMapping("/rating/{mediaType}/{mediaId}")
+    @Operation(summary = "Get rating", description = "The current user's rating for a media item")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Rating retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Media not rated")
+    })
+    public ResponseEntity<RatingDTO> getRating(
+            @PathVariable String mediaType,
+            @PathVariable String mediaId,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        MediaType type = parseMediaType(mediaType);
+        RatingDTO rating = ratingService.getRatingForMedia(user.getId(), mediaId, type)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Rating not found: " + type.getValue() + "/" + mediaId));
+        return ResponseEntity.ok(rating);
+    }
+
+    /**
+     * GET /api/media/ratings
+     * Get the current user's ratings, newest first
+     */
+    @GetMapping("/ratings")
+    @Operation(summary = "List ratings", description = "The current user's ratings, optionally filtered by media type")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Ratings retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid media type or page")
+    })
+    public ResponseEntity<Page<RatingDTO>> getRatings(
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new ValidationException("page must be >= 0 and size between 1 and " + maxPageSize);
+        }
+        MediaType type = mediaType != null ? parseMediaType(mediaType) : null;
+        PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "updatedAt"));
+        return ResponseEntity.ok(ratingService.getUserRatings(user.getId(), type, pageable));
+    }
+
+    /**
+     * POST /api/media/watched
+     * Mark media as watched (marking it again updates the watched date)
+     */
+    @PostMapping("/watched")
+    @Operation(summary = "Mark as watched", description = "Mark a movie, book or game as watched, read or played")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Marked as watched"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    public ResponseEntity<WatchedEntryDTO> markAsWatched(
+            @Valid @RequestBody MarkWatchedRequest request,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        return ResponseEntity.status(HttpStatus.CREATED).body(watchedService.markAsWatched(user.getId(), request));
+    }
+
+    /**
+     * DELETE /api/media/watched/{mediaType}/{mediaId}
+     * Remove watched status
+     */
+    @DeleteMapping("/watched/{mediaType}/{mediaId}")
+    @Operation(summary = "Remove watched status", description = "Unmark a media item as watched")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Watched status removed"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Media not watched")
+    })
+    public ResponseEntity<ApiResponse<String>> removeWatched(
+            @PathVariable String mediaType,
+            @PathVariable String mediaId,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        watchedService.removeWatched(user.getId(), mediaId, parseMediaType(mediaType));
+        return ResponseEntity.ok(ApiResponse.success("Watched status removed successfully"));
+    }
+
+    /**
+     * GET /api/media/watched
+     * Get the current user's watch history, most recently watched first
+     */
+    @GetMapping("/watched")
+    @Operation(summary = "Watch history", description = "The current user's watched media, optionally filtered by media type")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Watch history retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid media type or page")
+    })
+    public ResponseEntity<Page<WatchedEntryDTO>> getWatchHistory(
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new ValidationException("page must be >= 0 and size between 1 and " + maxPageSize);
+        }
+        MediaType type = mediaType != null ? parseMediaType(mediaType) : null;
+        PageRequest pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Direction.DESC, "watchedDate").and(Sort.by(Sort.Direction.DESC, "createdAt")));
+        return ResponseEntity.ok(watchedService.getWatchHistory(user.getId(), type, pageable));
+    }
+
+    /**
+     * GET /api/media/watched/check/{mediaType}/{mediaId}
+     * Check if media is watched by the current user (served from the media state index)
+     */
+    @GetMapping("/watched/check/{mediaType}/{mediaId}")
+    @Operation(summary = "Check watched", description = "Whether the current user has watched a media item")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Watched status")
+    })
+    public ResponseEntity<Map<String, Boolean>> isWatched(
+            @PathVariable String mediaType,
+            @PathVariable String mediaId,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        MediaKey key = new MediaKey(parseMediaType(mediaType), mediaId);
+        return ResponseEntity.ok(Map.of("watched", userMediaStateIndex.has(user.getId(), key, MediaState.WATCHED)));
+    }
+
+    /**
+     * POST /api/media/bookmark
+     * Add media to bookmarks (bookmarking it again updates the notes)
+     */
+    @PostMapping("/bookmark")
+    @Operation(summary = "Bookmark media", description = "Save a media item to the current user's bookmarks")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Bookmark saved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    public ResponseEntity<BookmarkDTO> addBookmark(
+            @Valid @RequestBody BookmarkRequest request,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        return ResponseEntity.status(HttpStatus.CREATED).body(bookmarkService.addBookmark(user.getId(), request));
+    }
+
+    /**
+     * DELETE /api/media/bookmark/{mediaType}/{mediaId}
+     * Remove bookmark
+     */
+    @DeleteMapping("/bookmark/{mediaType}/{mediaId}")
+    @Operation(summary = "Remove bookmark", description = "Remove a media item from the current user's bookmarks")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bookmark removed"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Bookmark not found")
+    })
+    public ResponseEntity<ApiResponse<String>> removeBookmark(
+            @PathVariable String mediaType,
+            @PathVariable String mediaId,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        bookmarkService.removeBookmark(user.getId(), mediaId, parseMediaType(mediaType));
+        return ResponseEntity.ok(ApiResponse.success("Bookmark removed successfully"));
+    }
+
+    /**
+     * GET /api/media/bookmarks
+     * Get the current user's bookmarks, newest first
+     */
+    @GetMapping("/bookmarks")
+    @Operation(summary = "List bookmarks", description = "The current user's bookmarks, optionally filtered by media type")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bookmarks retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid media type or page")
+    })
+    public ResponseEntity<Page<BookmarkDTO>> getBookmarks(
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new ValidationException("page must be >= 0 and size between 1 and " + maxPageSize);
+        }
+        MediaType type = mediaType != null ? parseMediaType(mediaType) : null;
+        PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "savedAt"));
+        return ResponseEntity.ok(bookmarkService.getUserBookmarks(user.getId(), type, pageable));
+    }
+
+    /**
+     * GET /api/media/bookmark/check/{mediaType}/{mediaId}
+     * Check if media is bookmarked by the current user (served from the media state index)
+     */
+    @GetMapping("/bookmark/check/{mediaType}/{mediaId}")
+    @Operation(summary = "Check bookmark", description = "Whether the current user has bookmarked a media item")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bookmark status")
+    })
+    public ResponseEntity<Map<String, Boolean>> isBookmarked(
+            @PathVariable String mediaType,
+            @PathVariable String mediaId,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        MediaKey key = new MediaKey(parseMediaType(mediaType), mediaId);
+        return ResponseEntity.ok(Map.of("bookmarked", userMediaStateIndex.has(user.getId(), key, MediaState.BOOKMARKED)));
+    }
+
+    // ========================================
+    // Helper Methods
+    // ========================================
+
+    private User currentUser(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            throw new UnauthorizedException("Not authenticated");
+        }
+        return user;
+    }
+
+    /**
+     * Parse media type path variable (movie|book|game)
+     */
+    private MediaType parseMediaType(String value) {
+        try {
+            return MediaType.fromValue(value);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(e.getMessage());
+        }
+    }
+}
+
 // MediaController - REST API endpoints for media operations
 // Base path: /api/media
 // All endpoints require authentication (JWT)
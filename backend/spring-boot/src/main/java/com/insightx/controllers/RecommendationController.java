@@ -1,5 +1,372 @@
 package com.insightx.controllers;
 
+import com.insightx.dto.ExplainRequest;
+import com.insightx.dto.ExplanationDTO;
+import com.insightx.dto.ForYouDTO;
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.dto.RecommendationDTO;
+import com.insightx.dto.TasteProfileDTO;
+import com.insightx.entities.User;
+import com.insightx.exceptions.ServiceException;
+import com.insightx.exceptions.UnauthorizedException;
+import com.insightx.exceptions.ValidationException;
+import com.insightx.explanations.ExplanationScorer;
+import com.insightx.media.MediaState;
+import com.insightx.media.UserMediaStateIndex;
+import com.insightx.recommendations.RecommendationMaterializer;
+import com.insightx.recommendations.RecommendationPipeline;
+import com.insightx.recommendations.RecommendationPipelineProperties;
+import com.insightx.services.FastAPIService;
+import com.insightx.services.ForYouService;
+import com.insightx.services.MediaRatingStatsService;
+import com.insightx.services.SimilarMediaService;
+import com.insightx.services.TasteProfileService;
+import com.insightx.services.TrendingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Recommendation Controller
+ * REST API endpoints for recommendations and AI explanations
+ */
+@RestController
+@RequestMapping("/recommendations")
+@Tag(name = "Recommendations", description = "Personalized recommendations and AI explanations")
+@SecurityRequirement(name = "bearerAuth")
+public class RecommendationController {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationController.class);
+    private static final int MAX_LIST_LIMIT = 50;
+    private static final Set<MediaState> EXCLUDED_STATES = EnumSet.of(MediaState.WATCHED, MediaState.RATED);
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private ForYouService forYouService;
+
+    @Autowired
+    private TasteProfileService tasteProfileService;
+
+    @Autowired
+    private SimilarMediaService similarMediaService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private MediaRatingStatsService mediaRatingStatsService;
+
+    @Autowired
+    private UserMediaStateIndex userMediaStateIndex;
+
+    @Autowired
+    private RecommendationPipeline recommendationPipeline;
+
+    @Autowired
+    private RecommendationPipelineProperties pipelineProperties;
+
+    @Autowired
+    private RecommendationMaterializer recommendationMaterializer;
+
+    @Autowired
+    private ExplanationScorer explanationScorer;
+
+    @Value("${insightx.features.ai-explanations:true}")
+    private boolean aiExplanationsEnabled;
+
+    /**
+     * GET /api/recommendations
+     * Get personalized recommendations for current user
+     */
+    @GetMapping
+    @Operation(summary = "Get recommendations",
+               description = "Personalized recommendations merged from FastAPI, similar items, trending and followed users, re-ranked by taste profile")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Recommendations retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid media type or limit")
+    })
+    public ResponseEntity<List<RecommendationDTO>> getRecommendations(
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "true") boolean excludeWatched,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        com.insightx.entities.MediaType type =
+                mediaType == null || mediaType.equalsIgnoreCase("all") ? null : parseMediaType(mediaType);
+        List<RecommendationDTO> recommendations;
+        if (pipelineProperties.isEnabled()) {
+            // Precomputed lists exclude watched and rated items; other requests run the pipeline live
+            recommendations = excludeWatched
+                    ? recommendationMaterializer.getRecommendations(user, type, validateLimit(limit))
+                    : recommendationPipeline.recommend(user, type, validateLimit(limit), false);
+        } else {
+            recommendations = fastAPIService.getRecommendations(user.getId(), type, validateLimit(limit));
+            if (excludeWatched) {
+                // One in-memory pass over the user's state bitmaps instead of a query per item
+                recommendations = userMediaStateIndex.exclude(user.getId(), recommendations,
+                        r -> new MediaKey(r.getMediaType(), r.getMediaId()), EXCLUDED_STATES);
+            }
+        }
+        explanationScorer.annotate(user.getId(), recommendations);
+        return ResponseEntity.ok(recommendations);
+    }
+
+    /**
+     * GET /api/recommendations/for-you
+     * Get "For You" page: personalized, trending and new releases, fetched in parallel
+     */
+    @GetMapping("/for-you")
+    @Operation(summary = "Get For You page",
+               description = "Personalized, trending and new-release sections; slow sections fall back to cached or empty content")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Sections retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid media type or limit")
+    })
+    public ResponseEntity<ForYouDTO> getForYou(
+            @RequestParam(defaultValue = "movie") String mediaType,
+            @RequestParam(defaultValue = "10") int limit,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        ForYouDTO forYou = forYouService.getForYou(user, parseMediaType(mediaType), validateLimit(limit));
+        explanationScorer.annotate(user.getId(), forYou.getRecommended());
+        return ResponseEntity.ok(forYou);
+    }
+
+    /**
+     * GET /api/recommendations/trending/{mediaType}
+     * Get trending media (cold start recommendations), from InsightX's own activity when there is enough
+     */
+    @GetMapping("/trending/{mediaType}")
+    @Operation(summary = "Get trending media",
+               description = "Trending movies, books or games in a region (defaults to the user's region)")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Trending media retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid media type or limit")
+    })
+    public ResponseEntity<List<MediaMetadataDTO>> getTrending(
+            @PathVariable String mediaType,
+            @RequestParam(required = false) String region,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        return ResponseEntity.ok(trendingService.getTrending(parseMediaType(mediaType),
+                region != null ? region : user.getRegion(), validateLimit(limit)));
+    }
+
+    /**
+     * GET /api/recommendations/new-releases/{mediaType}
+     * Get newly released media
+     */
+    @GetMapping("/new-releases/{mediaType}")
+    @Operation(summary = "Get new releases",
+               description = "Newly released movies, books or games in a region (defaults to the user's region)")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "New releases retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid media type or limit")
+    })
+    public ResponseEntity<List<MediaMetadataDTO>> getNewReleases(
+            @PathVariable String mediaType,
+            @RequestParam(required = false) String region,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+
+        User user = currentUser(authentication);
+        return ResponseEntity.ok(fastAPIService.getNewReleases(parseMediaType(mediaType),
+                region != null ? region : user.getRegion(), validateLimit(limit)));
+    }
+
+    /**
+     * GET /api/recommendations/genres/{genre}
+     * Get top-rated media in a genre, from pre-aggregated rating statistics
+     */
+    @GetMapping("/genres/{genre}")
+    @Operation(summary = "Get top-rated media in a genre",
+               description = "Media of a genre (e.g. action, sci-fi) ranked by Bayesian average of InsightX ratings")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Top-rated media retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid genre, media type or limit")
+    })
+    public ResponseEntity<List<MediaMetadataDTO>> getTopRatedByGenre(
+            @PathVariable String genre,
+            @RequestParam(required = false) String mediaType,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+
+        currentUser(authentication);
+        if (MediaRatingStatsService.normalizeGenre(genre).isEmpty()) {
+            throw new ValidationException("genre must not be blank");
+        }
+        com.insightx.entities.MediaType type =
+                mediaType == null || mediaType.equalsIgnoreCase("all") ? null : parseMediaType(mediaType);
+        return ResponseEntity.ok(mediaRatingStatsService.getTopRated(genre, type, validateLimit(limit)));
+    }
+
+    /**
+     * GET /api/recommendations/similar/{mediaType}/{mediaId}
+     * Get media similar to a given item
+     */
+    @GetMapping("/similar/{mediaType}/{mediaId}")
+    @Operation(summary = "Get similar media",
+               description = "Items liked by the same users (local item-item model), or content-based similarity from FastAPI for cold items")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Similar media retrieved"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid media type or limit")
+    })
+    public ResponseEntity<List<MediaMetadataDTO>> getSimilarMedia(
+            @PathVariable String mediaType,
+            @PathVariable String mediaId,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        MediaKey item = new MediaKey(parseMediaType(mediaType), mediaId);
+        return ResponseEntity.ok(similarMediaService.getSimilarMedia(item, validateLimit(limit)));
+    }
+
+    /**
+     * GET /api/recommendations/taste-profile
+     * Get user's taste profile (for transparency)
+     */
+    @GetMapping("/taste-profile")
+    @Operation(summary = "Get taste profile",
+               description = "Genre preferences and rating behavior derived from the user's ratings")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Taste profile retrieved")
+    })
+    public ResponseEntity<TasteProfileDTO> getTasteProfile(Authentication authentication) {
+        User user = currentUser(authentication);
+        return ResponseEntity.ok(tasteProfileService.getTasteProfile(user.getId()));
+    }
+
+    /**
+     * POST /api/recommendations/explain
+     * Get AI explanation for why media is recommended (waits for the full text)
+     */
+    @PostMapping("/explain")
+    @Operation(summary = "Explain recommendation",
+               description = "Generate an AI explanation of why a media item matches the user's taste, with the match signals computed by InsightX")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Explanation generated"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "AI explanations unavailable")
+    })
+    public ResponseEntity<ExplanationDTO> explain(
+            @Valid @RequestBody ExplainRequest request,
+            Authentication authentication) {
+
+        requireAiExplanations();
+        UUID userId = currentUser(authentication).getId();
+
+        String explanation = fastAPIService.getAIExplanation(request.getMediaId(), request.getMediaType(), userId)
+                .orElseThrow(() -> new ServiceException("AI explanation service is unavailable"));
+        MediaKey key = new MediaKey(request.getMediaType(), request.getMediaId());
+
+        return ResponseEntity.ok(ExplanationDTO.builder()
+                .mediaId(request.getMediaId())
+                .mediaType(request.getMediaType())
+                .explanation(explanation)
+                .signals(explanationScorer.score(userId, List.of(key)).get(key))
+                .build());
+    }
+
+    /**
+     * POST /api/recommendations/explain/stream
+     * Stream the AI explanation as server-sent events while FastAPI generates it
+     *
+     * Events: "token" (text chunk), "done" (end of explanation), "error" (generation failed or
+     * AI explanations disabled)
+     */
+    @PostMapping(value = "/explain/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream recommendation explanation",
+               description = "Stream the AI explanation token by token as server-sent events")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Event stream opened"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid input data")
+    })
+    public Flux<ServerSentEvent<String>> streamExplanation(
+            @Valid @RequestBody ExplainRequest request,
+            Authentication authentication) {
+
+        // The client expects an event stream, so even this is reported as an event, not a JSON error
+        if (!aiExplanationsEnabled) {
+            return Flux.just(errorEvent("AI explanations are disabled"));
+        }
+        UUID userId = currentUser(authentication).getId();
+
+        // Headers are already committed once the first token is sent, so failures become an "error" event
+        return fastAPIService.streamAIExplanation(request.getMediaId(), request.getMediaType(), userId)
+                .map(token -> ServerSentEvent.<String>builder().event("token").data(token).build())
+                .concatWith(Flux.just(ServerSentEvent.<String>builder().event("done").data("").build()))
+                .onErrorResume(e -> {
+                    log.warn("AI explanation stream failed for user {}: {}", userId, e.getMessage());
+                    return Flux.just(errorEvent("AI explanation service is unavailable"));
+                });
+    }
+
+    // ========================================
+    // Helper Methods
+    // ========================================
+
+    private void requireAiExplanations() {
+        if (!aiExplanationsEnabled) {
+            throw new ServiceException("AI explanations are disabled");
+        }
+    }
+
+    private static ServerSentEvent<String> errorEvent(String message) {
+        return ServerSentEvent.<String>builder().event("error").data(message).build();
+    }
+
+    /**
+     * Extract the authenticated user from the security context
+     */
+    private User currentUser(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            throw new UnauthorizedException("Not authenticated");
+        }
+        return user;
+    }
+
+    /**
+     * Parse media type path variable (movie|book|game)
+     */
+    private com.insightx.entities.MediaType parseMediaType(String value) {
+        try {
+            return com.insightx.entities.MediaType.fromValue(value);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(e.getMessage());
+        }
+    }
+
+    private int validateLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            throw new ValidationException("limit must be between 1 and " + MAX_LIST_LIMIT);
+        }
+        return limit;
+    }
+}
+
 // RecommendationController - REST API endpoints for recommendations
 // Base path: /api/recommendations
 // All endpoints require authentication (JWT)
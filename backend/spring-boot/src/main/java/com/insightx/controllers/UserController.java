@@ -1,5 +1,58 @@
 package com.insightx.controllers;
 
+import com.insightx.dto.ApiResponse;
+import com.insightx.dto.UpdateRegionRequest;
+import com.insightx.entities.User;
+import com.insightx.exceptions.UnauthorizedException;
+import com.insightx.services.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * User Controller
+ * REST API endpoints for user profile and account management
+ */
+@RestController
+@RequestMapping("/users")
+@Tag(name = "Users", description = "User profile and account management endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class UserController {
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * PUT /api/users/region
+     * Update user's region
+     */
+    @PutMapping("/region")
+    @Operation(summary = "Update region",
+               description = "Change the user's region; watch providers for their items are prefetched in the background")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Region updated"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid region code"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Not authenticated")
+    })
+    public ResponseEntity<ApiResponse<String>> updateRegion(
+            @Valid @RequestBody UpdateRegionRequest request,
+            Authentication authentication) {
+
+        if (authentication == null || !(authentication.getPrincipal() instanceof User user)) {
+            throw new UnauthorizedException("Not authenticated");
+        }
+        userService.updateRegion(user.getId(), request.getRegion());
+        return ResponseEntity.ok(ApiResponse.success("Region updated successfully"));
+    }
+}
+
+
 // UserController - REST API endpoints for user management
 // Base path: /api/users
 // All endpoints require authentication (JWT)
@@ -74,4 +127,4 @@ package com.insightx.controllers;
 //
 // Response Format:
 // - Consistent with AuthController
-// - Include timestamp and request ID
\ No newline at end of file
+// - Include timestamp and request ID
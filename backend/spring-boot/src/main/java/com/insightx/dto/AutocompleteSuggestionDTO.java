@@ -0,0 +1,18 @@
+package com.insightx.dto;
+
+import com.insightx.entities.MediaType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AutocompleteSuggestionDTO {
+
+    private String mediaId;
+    private MediaType mediaType;
+    private String title;
+}
@@ -0,0 +1,23 @@
+package com.insightx.dto;
+
+import com.insightx.entities.Bookmark;
+import com.insightx.entities.MediaType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookmarkDTO {
+
+    private String mediaId;
+    private MediaType mediaType;
+    private String notes;
+    private Bookmark.Visibility visibility;
+    private LocalDateTime savedAt;
+}
@@ -0,0 +1,24 @@
+package com.insightx.dto;
+
+import com.insightx.entities.MediaType;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExplainRequest {
+
+    @NotBlank(message = "Media ID is required")
+    @Size(max = 100, message = "Media ID must not exceed 100 characters")
+    private String mediaId;
+
+    @NotNull(message = "Media type is required")
+    private MediaType mediaType;
+}
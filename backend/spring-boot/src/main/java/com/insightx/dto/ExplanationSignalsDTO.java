@@ -0,0 +1,32 @@
+package com.insightx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Why a media item matches the user's taste, computed by InsightX from the taste profile and
+ * cached metadata (scores in [0, 1]; a field is null when there is nothing to compare)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExplanationSignalsDTO {
+
+    // Cosine of the item's genres and media type with the taste vector, mapped to [0, 1]
+    private Double genreMatch;
+    private List<String> matchedGenres;
+
+    // Overlap with themes and creators of media the user rated highly
+    private Double themeSimilarity;
+    private List<String> matchedThemes;
+    private Double creatorOverlap;
+    private List<String> matchedCreators;
+
+    // 1-10, from the user's mean rating and per-genre deviations
+    private Double predictedRating;
+}
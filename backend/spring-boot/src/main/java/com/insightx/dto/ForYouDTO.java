@@ -0,0 +1,26 @@
+package com.insightx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "For You" page: personalized, trending and new-release sections.
+ * sectionStatus reports per section whether it is fresh ("ok"), served from cache after
+ * missing its deadline ("cached") or empty because it failed or timed out ("unavailable").
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ForYouDTO {
+
+    private List<RecommendationDTO> recommended;
+    private List<MediaMetadataDTO> trending;
+    private List<MediaMetadataDTO> newReleases;
+    private Map<String, String> sectionStatus;
+}
@@ -0,0 +1,33 @@
+package com.insightx.dto;
+
+import com.insightx.entities.MediaType;
+import com.insightx.entities.WatchedEntry;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MarkWatchedRequest {
+
+    @NotBlank(message = "Media ID is required")
+    @Size(max = 100, message = "Media ID must not exceed 100 characters")
+    private String mediaId;
+
+    @NotNull(message = "Media type is required")
+    private MediaType mediaType;
+
+    @PastOrPresent(message = "Watched date must not be in the future")
+    private LocalDate watchedDate;
+
+    private WatchedEntry.Visibility visibility;
+}
@@ -0,0 +1,25 @@
+package com.insightx.dto;
+
+import com.insightx.entities.MediaType;
+
+/**
+ * Media Key - Identifies a media item across media types ("movie:27205")
+ */
+public record MediaKey(MediaType mediaType, String mediaId) {
+
+    /**
+     * Parse a key produced by {@link #toString()}
+     */
+    public static MediaKey parse(String value) {
+        int separator = value.indexOf(':');
+        if (separator <= 0 || separator == value.length() - 1) {
+            throw new IllegalArgumentException("Invalid media key: " + value);
+        }
+        return new MediaKey(MediaType.fromValue(value.substring(0, separator)), value.substring(separator + 1));
+    }
+
+    @Override
+    public String toString() {
+        return mediaType.getValue() + ":" + mediaId;
+    }
+}
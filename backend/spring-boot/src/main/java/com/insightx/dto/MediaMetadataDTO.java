@@ -0,0 +1,52 @@
+package com.insightx.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.insightx.entities.MediaType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Media metadata as returned by the FastAPI intelligence layer
+ * (GET /api/media/{type}/{id})
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MediaMetadataDTO {
+
+    private String mediaId;
+    private MediaType mediaType;
+    private String title;
+    private String originalTitle;
+    private String overview;
+    private String releaseDate;
+    private String language;
+    private Integer runtime;
+    private List<String> genres;
+    private List<String> themes;
+    private List<String> creators;
+    private List<CastMemberDTO> cast;
+    private String posterUrl;
+    private String backdropUrl;
+    private List<String> images;
+    private Double averageRating;
+    private Long voteCount;
+    private Double popularity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class CastMemberDTO {
+        private String name;
+        private String character;
+        private String profileUrl;
+    }
+}
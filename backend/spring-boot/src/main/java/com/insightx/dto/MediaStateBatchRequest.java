@@ -0,0 +1,39 @@
+package com.insightx.dto;
+
+import com.insightx.entities.MediaType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaStateBatchRequest {
+
+    @NotEmpty(message = "Items are required")
+    @Size(max = 100, message = "At most 100 items per request")
+    private List<@Valid Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+
+        @NotBlank(message = "Media ID is required")
+        @Size(max = 100, message = "Media ID must not exceed 100 characters")
+        private String mediaId;
+
+        @NotNull(message = "Media type is required")
+        private MediaType mediaType;
+    }
+}
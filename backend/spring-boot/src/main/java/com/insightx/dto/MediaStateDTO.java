@@ -0,0 +1,26 @@
+package com.insightx.dto;
+
+import com.insightx.entities.MediaType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The current user's relation to one media item (POST /api/media/state/batch)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaStateDTO {
+
+    private String mediaId;
+    private MediaType mediaType;
+    private boolean watched;
+    private boolean rated;
+    private boolean bookmarked;
+
+    // Null when not rated
+    private Integer rating;
+}
@@ -0,0 +1,24 @@
+package com.insightx.dto;
+
+import com.insightx.entities.MediaType;
+import com.insightx.entities.Rating;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingDTO {
+
+    private String mediaId;
+    private MediaType mediaType;
+    private Integer rating;
+    private Rating.Visibility visibility;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,34 @@
+package com.insightx.dto;
+
+import com.insightx.entities.MediaType;
+import com.insightx.entities.Rating;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RatingRequest {
+
+    @NotBlank(message = "Media ID is required")
+    @Size(max = 100, message = "Media ID must not exceed 100 characters")
+    private String mediaId;
+
+    @NotNull(message = "Media type is required")
+    private MediaType mediaType;
+
+    @NotNull(message = "Rating is required")
+    @Min(value = 1, message = "Rating must be at least 1")
+    @Max(value = 10, message = "Rating must not exceed 10")
+    private Integer rating;
+
+    private Rating.Visibility visibility;
+}
@@ -0,0 +1,33 @@
+package com.insightx.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.insightx.entities.MediaType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Personalized recommendation with the signals that produced it
+ * (POST /api/recommendations/user/{userId})
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RecommendationDTO {
+
+    private String mediaId;
+    private MediaType mediaType;
+    private String title;
+    private String posterUrl;
+    private List<String> genres;
+    private Double score;
+    private List<String> signals;
+
+    // Computed by InsightX (ExplanationScorer), not part of the FastAPI response
+    private ExplanationSignalsDTO explanationSignals;
+}
@@ -0,0 +1,25 @@
+package com.insightx.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TasteProfileDTO {
+
+    private Map<String, Double> genrePreferences;
+    private Double averageRating;
+    private Double ratingVariance;
+    private Long totalRatings;
+    private String raterType;
+    private Map<String, Integer> mediaTypeDistribution;
+    private boolean personalized;
+    private LocalDateTime lastCalculated;
+}
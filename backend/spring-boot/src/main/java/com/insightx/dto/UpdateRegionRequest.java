@@ -0,0 +1,19 @@
+package com.insightx.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpdateRegionRequest {
+
+    @NotBlank(message = "Region is required")
+    @Pattern(regexp = "^[A-Za-z]{2}$", message = "Region must be a 2-letter ISO country code")
+    private String region;
+}
@@ -0,0 +1,41 @@
+package com.insightx.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.insightx.entities.MediaType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Streaming / rent / buy availability of a media item in one region
+ * (POST /api/providers/{region}/batch)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class WatchProviderDTO {
+
+    private String mediaId;
+    private MediaType mediaType;
+    private String region;
+    private String link;
+    private List<ProviderDTO> flatrate;
+    private List<ProviderDTO> rent;
+    private List<ProviderDTO> buy;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ProviderDTO {
+        private Integer providerId;
+        private String name;
+        private String logoUrl;
+    }
+}
@@ -0,0 +1,24 @@
+package com.insightx.dto;
+
+import com.insightx.entities.MediaType;
+import com.insightx.entities.WatchedEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WatchedEntryDTO {
+
+    private String mediaId;
+    private MediaType mediaType;
+    private LocalDate watchedDate;
+    private WatchedEntry.Visibility visibility;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,55 @@
+package com.insightx.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * MediaGenre Entity - One genre of a rated media item, with a copy of its Bayesian average
+ * so the top items of a genre are read from one index
+ */
+@Entity
+@Table(name = "media_genres",
+       indexes = {
+           @Index(name = "idx_media_genres_top", columnList = "genre, bayesian_average DESC"),
+           @Index(name = "idx_media_genres_type_top", columnList = "genre, media_type, bayesian_average DESC")
+       })
+@IdClass(MediaGenre.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaGenre {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "media_type", nullable = false, length = 20)
+    private MediaType mediaType;
+
+    @Id
+    @Column(name = "media_id", nullable = false, length = 100)
+    private String mediaId;
+
+    /**
+     * Normalized genre (lower case, words joined by hyphens)
+     */
+    @Id
+    @Column(name = "genre", nullable = false, length = 100)
+    private String genre;
+
+    @Column(name = "bayesian_average", nullable = false)
+    private Double bayesianAverage;
+
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private MediaType mediaType;
+        private String mediaId;
+        private String genre;
+    }
+}
@@ -0,0 +1,29 @@
+package com.insightx.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * MediaKeyEntry Entity - Dense int id of a media item (append-only dictionary)
+ */
+@Entity
+@Table(name = "media_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_media_key", columnNames = {"media_type", "media_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaKeyEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Integer id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "media_type", nullable = false, length = 20)
+    private MediaType mediaType;
+
+    @Column(name = "media_id", nullable = false, length = 100)
+    private String mediaId;
+}
@@ -0,0 +1,66 @@
+package com.insightx.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * MediaRatingStats Entity - Pre-aggregated ratings of one media item
+ *
+ * Maintained by MediaRatingStatsService in the same transaction as the rating change.
+ */
+@Entity
+@Table(name = "media_rating_stats")
+@IdClass(MediaRatingStats.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaRatingStats {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "media_type", nullable = false, length = 20)
+    private MediaType mediaType;
+
+    @Id
+    @Column(name = "media_id", nullable = false, length = 100)
+    private String mediaId;
+
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum;
+
+    @Column(name = "rating_sum_squares", nullable = false)
+    private Long ratingSumSquares;
+
+    @Column(name = "bayesian_average", nullable = false)
+    private Double bayesianAverage;
+
+    /**
+     * When the item's genres were written to media_genres (null = not yet)
+     */
+    @Column(name = "genres_loaded_at")
+    private LocalDateTime genresLoadedAt;
+
+    /**
+     * When loading the item's genres last failed (null = never attempted or loaded)
+     */
+    @Column(name = "genres_attempted_at")
+    private LocalDateTime genresAttemptedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private MediaType mediaType;
+        private String mediaId;
+    }
+}
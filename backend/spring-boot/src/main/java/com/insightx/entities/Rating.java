@@ -19,7 +19,8 @@ import java.util.UUID;
        indexes = {
            @Index(name = "idx_rating_user", columnList = "user_id"),
            @Index(name = "idx_rating_created", columnList = "created_at"),
-           @Index(name = "idx_rating_value", columnList = "rating")
+           @Index(name = "idx_rating_value", columnList = "rating"),
+           @Index(name = "idx_rating_updated", columnList = "updated_at")
        })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,41 @@
+package com.insightx.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * TasteDimension Entity - One dimension of the taste vectors (append-only dictionary)
+ */
+@Entity
+@Table(name = "taste_dimensions",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_taste_dimension", columnNames = {"kind", "name"}),
+           @UniqueConstraint(name = "uk_taste_dimension_idx", columnNames = {"idx"})
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TasteDimension {
+
+    public static final String MEDIA_TYPE = "media_type";
+    public static final String GENRE = "genre";
+    public static final String THEME = "theme";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", updatable = false, nullable = false)
+    private Integer id;
+
+    @Column(name = "kind", nullable = false, length = 20)
+    private String kind;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    /**
+     * Position of the dimension in taste vectors (dense, assigned on insert)
+     */
+    @Column(name = "idx", nullable = false, updatable = false)
+    private Integer dimensionIndex;
+}
@@ -19,7 +19,8 @@ import java.util.UUID;
 @Table(name = "taste_profiles",
        indexes = {
            @Index(name = "idx_taste_profile_user", columnList = "user_id", unique = true),
-           @Index(name = "idx_taste_profile_calculated", columnList = "last_calculated")
+           @Index(name = "idx_taste_profile_calculated_user", columnList = "last_calculated, user_id"),
+           @Index(name = "idx_taste_profile_updated_user", columnList = "updated_at, user_id")
        })
 @Data
 @NoArgsConstructor
@@ -40,6 +41,12 @@ public class TasteProfile {
     @Column(name = "profile_data", columnDefinition = "jsonb")
     private Map<String, Object> profileData;
 
+    /**
+     * L2-normalized float32 taste vector (see TasteVectors); null until the profile has ratings
+     */
+    @Column(name = "taste_vector")
+    private byte[] tasteVector;
+
     @Column(name = "version", nullable = false)
     @Builder.Default
     private Integer version = 1;
@@ -20,7 +20,8 @@ import java.util.UUID;
        indexes = {
            @Index(name = "idx_watched_user", columnList = "user_id"),
            @Index(name = "idx_watched_date", columnList = "watched_date"),
-           @Index(name = "idx_watched_user_date", columnList = "user_id, watched_date")
+           @Index(name = "idx_watched_user_date", columnList = "user_id, watched_date"),
+           @Index(name = "idx_watched_created", columnList = "created_at")
        })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,17 @@
+package com.insightx.events;
+
+import com.insightx.entities.MediaType;
+import com.insightx.media.MediaState;
+
+import java.util.UUID;
+
+/**
+ * Published by WatchedService and BookmarkService when media is marked or unmarked
+ * (active = false when the entry was removed). Rating changes use RatingChangedEvent.
+ */
+public record MediaStateChangedEvent(UUID userId,
+                                     MediaType mediaType,
+                                     String mediaId,
+                                     MediaState state,
+                                     boolean active) {
+}
@@ -0,0 +1,23 @@
+package com.insightx.events;
+
+import com.insightx.entities.MediaType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published by RatingService when a rating is created, changed or deleted.
+ * previousRating is null for a new rating; rating is null for a deletion.
+ * previousRatedAt/ratedAt are when each value was set (used for recency decay);
+ * changedAt is the database clock at the end of the rating's transaction, so it can be
+ * compared with taste profile rebuild watermarks taken from the same clock.
+ */
+public record RatingChangedEvent(UUID userId,
+                                 MediaType mediaType,
+                                 String mediaId,
+                                 Integer previousRating,
+                                 LocalDateTime previousRatedAt,
+                                 Integer rating,
+                                 LocalDateTime ratedAt,
+                                 LocalDateTime changedAt) {
+}
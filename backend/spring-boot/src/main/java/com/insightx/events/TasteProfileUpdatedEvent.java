@@ -0,0 +1,9 @@
+package com.insightx.events;
+
+import java.util.UUID;
+
+/**
+ * Published by TasteProfileService after a user's taste profile has been rewritten
+ */
+public record TasteProfileUpdatedEvent(UUID userId) {
+}
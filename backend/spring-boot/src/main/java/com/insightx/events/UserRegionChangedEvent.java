@@ -0,0 +1,9 @@
+package com.insightx.events;
+
+import java.util.UUID;
+
+/**
+ * Published by UserService after a user's region has been changed
+ */
+public record UserRegionChangedEvent(UUID userId, String previousRegion, String region) {
+}
@@ -0,0 +1,46 @@
+package com.insightx.explanations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Explanation signal settings (insightx.explanations.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "insightx.explanations")
+public class ExplanationProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Lifetime of cached (user, item) signals and per-user inputs; profile changes on any
+     * node invalidate them earlier
+     */
+    private long cacheTtlSeconds = 300;
+    private long maxCachedPairs = 200000;
+    private long maxCachedUsers = 20000;
+
+    /**
+     * Themes and creators are compared with the user's likedItems most recent ratings of at least likedRating
+     */
+    private int likedRating = 8;
+    private int likedItems = 50;
+
+    /**
+     * Matched genres, themes and creators listed per item
+     */
+    private int maxMatches = 3;
+
+    /**
+     * Parallel metadata lookups per batch
+     */
+    private int concurrency = 8;
+
+    /**
+     * Deadline for metadata fetched from FastAPI while computing signals; lookups still
+     * running then are cancelled and their items left without signals
+     */
+    private long lookupTimeoutMs = 500;
+}
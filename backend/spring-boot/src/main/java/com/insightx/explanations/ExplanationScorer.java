@@ -0,0 +1,318 @@
+package com.insightx.explanations;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insightx.cache.CacheInvalidationBus;
+import com.insightx.dto.ExplanationSignalsDTO;
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.dto.RecommendationDTO;
+import com.insightx.entities.Rating;
+import com.insightx.events.RatingChangedEvent;
+import com.insightx.events.TasteProfileUpdatedEvent;
+import com.insightx.repositories.RatingRepository;
+import com.insightx.services.FastAPIService;
+import com.insightx.services.TasteProfileService;
+import com.insightx.services.TasteProfileStats;
+import com.insightx.vectors.TasteVectorizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Explanation Scorer - Genre match, theme similarity, creator overlap and predicted rating
+ * of media items for a user, computed in-process
+ *
+ * Inputs are the taste profile (vector and genre statistics), the user's recent highly rated
+ * media and item metadata from the near cache, so only the natural-language text of
+ * POST /explain still needs FastAPI. A whole list is scored in one pass: the user's inputs are
+ * loaded once, and list items use cached metadata only (uncached items get no signals until
+ * their metadata is cached). Metadata fetched from FastAPI is bounded by lookupTimeoutMs, and
+ * user inputs that could not be loaded completely are not cached.
+ *
+ * Results are cached per (user, generation, item) for a short TTL. A user's generation is
+ * replaced when a rating or the taste profile changes on any node (CacheInvalidationBus), which
+ * makes all of the user's cached pairs unreachable at once; they then age out of the cache.
+ */
+@Component
+public class ExplanationScorer {
+
+    private static final Logger log = LoggerFactory.getLogger(ExplanationScorer.class);
+    private static final String CACHE_NAME = "explanation-signals";
+
+    @Autowired
+    private ExplanationProperties properties;
+
+    @Autowired
+    private TasteProfileService tasteProfileService;
+
+    @Autowired
+    private TasteVectorizer tasteVectorizer;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Generations are never reused, so a user evicted from here cannot revive stale pairs
+    private final AtomicLong generationCounter = new AtomicLong();
+
+    private Cache<UUID, Long> generations;
+    private Cache<UserGeneration, UserSignalProfile> profiles;
+    private Cache<PairKey, ExplanationSignalsDTO> pairs;
+
+    @PostConstruct
+    public void init() {
+        Duration ttl = Duration.ofSeconds(properties.getCacheTtlSeconds());
+        generations = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxCachedUsers())
+                .expireAfterAccess(ttl.multipliedBy(2))
+                .build();
+        profiles = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxCachedUsers())
+                .expireAfterWrite(ttl)
+                .build();
+        pairs = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxCachedPairs())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        invalidationBus.register(CACHE_NAME, key -> generations.invalidate(UUID.fromString(key)));
+        CaffeineCacheMetrics.monitor(meterRegistry, pairs, CACHE_NAME);
+    }
+
+    /**
+     * Signals for each item that has metadata, in input order (metadata is fetched if needed)
+     */
+    public Map<MediaKey, ExplanationSignalsDTO> score(UUID userId, Collection<MediaKey> items) {
+        return score(userId, items, true);
+    }
+
+    private Map<MediaKey, ExplanationSignalsDTO> score(UUID userId, Collection<MediaKey> items, boolean fetch) {
+        Map<MediaKey, ExplanationSignalsDTO> result = new LinkedHashMap<>();
+        if (!properties.isEnabled() || items.isEmpty()) {
+            return result;
+        }
+        long generation = generations.get(userId, id -> generationCounter.incrementAndGet());
+
+        List<MediaKey> misses = new ArrayList<>();
+        for (MediaKey key : new LinkedHashSet<>(items)) {
+            ExplanationSignalsDTO cached = pairs.getIfPresent(new PairKey(userId, generation, key));
+            result.put(key, cached);
+            if (cached == null) {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty()) {
+            UserSignalProfile profile = profile(userId, generation);
+            Map<MediaKey, MediaMetadataDTO> metadata = fetch
+                    ? present(lookupMetadata(misses))
+                    : fastAPIService.lookupCachedMediaMetadata(misses);
+            for (MediaKey key : misses) {
+                MediaMetadataDTO item = metadata.get(key);
+                if (item != null) {
+                    ExplanationSignalsDTO signals = compute(profile, key, item);
+                    pairs.put(new PairKey(userId, generation, key), signals);
+                    result.put(key, signals);
+                }
+            }
+        }
+        result.values().removeIf(signals -> signals == null);
+        return result;
+    }
+
+    /**
+     * Attach signals to a recommendation list in place; on failure the list is left without them
+     */
+    public void annotate(UUID userId, List<RecommendationDTO> recommendations) {
+        if (recommendations == null || recommendations.isEmpty() || !properties.isEnabled()) {
+            return;
+        }
+        try {
+            List<MediaKey> keys = new ArrayList<>(recommendations.size());
+            for (RecommendationDTO recommendation : recommendations) {
+                if (recommendation.getMediaType() != null) {
+                    keys.add(new MediaKey(recommendation.getMediaType(), recommendation.getMediaId()));
+                }
+            }
+            // A list page must not wait for FastAPI: items without cached metadata are skipped
+            Map<MediaKey, ExplanationSignalsDTO> signals = score(userId, keys, false);
+            for (RecommendationDTO recommendation : recommendations) {
+                if (recommendation.getMediaType() != null) {
+                    recommendation.setExplanationSignals(
+                            signals.get(new MediaKey(recommendation.getMediaType(), recommendation.getMediaId())));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error computing explanation signals for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTasteProfileUpdated(TasteProfileUpdatedEvent event) {
+        invalidate(event.userId());
+    }
+
+    private void invalidate(UUID userId) {
+        generations.invalidate(userId);
+        invalidationBus.publish(CACHE_NAME, userId.toString());
+    }
+
+    private ExplanationSignalsDTO compute(UserSignalProfile profile, MediaKey key, MediaMetadataDTO item) {
+        List<String> genres = item.getGenres();
+        Double genreMatch = null;
+        if (profile.tasteVector() != null && genres != null && !genres.isEmpty()) {
+            double affinity = tasteVectorizer.affinity(profile.tasteVector(), key.mediaType().getValue(), genres);
+            genreMatch = round((affinity + 1) / 2, 1000);
+        }
+        Double predicted = profile.predictRating(genres);
+
+        return ExplanationSignalsDTO.builder()
+                .genreMatch(genreMatch)
+                .matchedGenres(matches(genres, profile::genreDeviation))
+                .themeSimilarity(round(profile.themeSimilarity(item.getThemes()), 1000))
+                .matchedThemes(matches(item.getThemes(), profile::themeWeight))
+                .creatorOverlap(round(profile.creatorOverlap(item.getCreators()), 1000))
+                .matchedCreators(matches(item.getCreators(), profile::creatorWeight))
+                .predictedRating(predicted == null ? null : round(predicted, 10))
+                .build();
+    }
+
+    /**
+     * Item values the user scores positively, strongest first
+     */
+    private List<String> matches(List<String> values, ToDoubleFunction<String> weight) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream()
+                .filter(value -> value != null && weight.applyAsDouble(value) > 0)
+                .distinct()
+                .sorted(Comparator.comparingDouble(weight).reversed())
+                .limit(properties.getMaxMatches())
+                .toList();
+    }
+
+    /**
+     * Cached inputs of a user, loading them if needed; a failed or partial load is used for
+     * this call only, so the next call retries instead of serving it for the whole TTL
+     */
+    private UserSignalProfile profile(UUID userId, long generation) {
+        UserGeneration key = new UserGeneration(userId, generation);
+        UserSignalProfile profile = profiles.getIfPresent(key);
+        if (profile != null) {
+            return profile;
+        }
+        try {
+            LoadedProfile loaded = loadProfile(userId);
+            if (loaded.complete()) {
+                profiles.put(key, loaded.profile());
+            } else {
+                log.warn("Metadata of liked items for user {} only partly loaded; not caching explanation inputs",
+                        userId);
+            }
+            return loaded.profile();
+        } catch (Exception e) {
+            log.error("Error loading explanation inputs for user {}: {}", userId, e.getMessage());
+            return UserSignalProfile.EMPTY;
+        }
+    }
+
+    private LoadedProfile loadProfile(UUID userId) {
+        TasteProfileStats stats = tasteProfileService.getStats(userId).orElse(null);
+        float[] vector = tasteProfileService.getTasteVector(userId).orElse(null);
+
+        int likedRating = properties.getLikedRating();
+        Map<MediaKey, Double> weights = new LinkedHashMap<>();
+        for (Rating rating : ratingRepository.findByUserIdAndRatingGreaterThanEqual(userId, likedRating,
+                PageRequest.of(0, properties.getLikedItems(), Sort.by(Sort.Direction.DESC, "updatedAt")))) {
+            // A 10 counts three times as much as an 8 (with the default threshold)
+            weights.put(new MediaKey(rating.getMediaType(), rating.getMediaId()),
+                    (double) (rating.getRating() - likedRating + 1));
+        }
+        Map<MediaKey, Optional<MediaMetadataDTO>> metadata = lookupMetadata(weights.keySet());
+        return new LoadedProfile(UserSignalProfile.of(stats, vector, weights, present(metadata)),
+                metadata.size() == weights.size());
+    }
+
+    /**
+     * Metadata of each item whose lookup finished before the deadline (empty when the item has
+     * none); items still pending at the deadline, or whose lookup failed, are absent
+     */
+    private Map<MediaKey, Optional<MediaMetadataDTO>> lookupMetadata(Collection<MediaKey> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        Duration deadline = Duration.ofMillis(properties.getLookupTimeoutMs());
+        Map<MediaKey, Optional<MediaMetadataDTO>> metadata = Flux.fromIterable(keys)
+                .flatMap(key -> Mono.fromCallable(() -> fastAPIService.lookupMediaMetadata(key.mediaId(), key.mediaType()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .map(item -> Map.entry(key, item))
+                        .onErrorResume(e -> Mono.empty()), properties.getConcurrency())
+                // Cancels the lookups still running at the deadline and completes with the rest
+                .take(deadline)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block(deadline.multipliedBy(2));
+        return metadata != null ? metadata : Map.of();
+    }
+
+    private static Map<MediaKey, MediaMetadataDTO> present(Map<MediaKey, Optional<MediaMetadataDTO>> metadata) {
+        Map<MediaKey, MediaMetadataDTO> result = new HashMap<>();
+        metadata.forEach((key, item) -> item.ifPresent(value -> result.put(key, value)));
+        return result;
+    }
+
+    private static double round(double value, int scale) {
+        return Math.round(value * scale) / (double) scale;
+    }
+
+    /**
+     * complete = false when metadata of some liked items is missing (deadline or errors)
+     */
+    private record LoadedProfile(UserSignalProfile profile, boolean complete) {
+    }
+
+    private record UserGeneration(UUID userId, long generation) {
+    }
+
+    private record PairKey(UUID userId, long generation, MediaKey mediaKey) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.insightx.explanations;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.services.TasteProfileStats;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * What explanation signals compare items against for one user: taste vector, rating mean and
+ * per-genre deviations from the taste profile, plus weighted themes and creators of media the
+ * user rated highly. Immutable once built.
+ */
+final class UserSignalProfile {
+
+    static final UserSignalProfile EMPTY = new UserSignalProfile(null, 0, 0, Map.of(), Map.of(), Map.of());
+
+    // Same shrinkage as TasteVectorizer: a genre with this many ratings counts half
+    private static final double CONFIDENCE_RATINGS = 5.0;
+
+    private final float[] tasteVector;
+    private final long ratingCount;
+    private final double meanRating;
+    private final Map<String, Double> genreDeviations;
+    private final Map<String, Double> themes;
+    private final Map<String, Double> creators;
+    private final double themeNorm;
+    private final double creatorNorm;
+
+    private UserSignalProfile(float[] tasteVector, long ratingCount, double meanRating,
+                              Map<String, Double> genreDeviations, Map<String, Double> themes,
+                              Map<String, Double> creators) {
+        this.tasteVector = tasteVector;
+        this.ratingCount = ratingCount;
+        this.meanRating = meanRating;
+        this.genreDeviations = genreDeviations;
+        this.themes = themes;
+        this.creators = creators;
+        this.themeNorm = norm(themes);
+        this.creatorNorm = norm(creators);
+    }
+
+    /**
+     * @param likedWeights highly rated media with the weight of each rating
+     * @param likedMetadata metadata of those media (items without metadata are skipped)
+     */
+    static UserSignalProfile of(TasteProfileStats stats, float[] tasteVector,
+                                Map<MediaKey, Double> likedWeights, Map<MediaKey, MediaMetadataDTO> likedMetadata) {
+        Map<String, Double> deviations = new HashMap<>();
+        long count = 0;
+        double mean = 0;
+        if (stats != null && stats.getRating().getCount() > 0) {
+            count = stats.getRating().getCount();
+            mean = stats.getRating().getMean();
+            for (Map.Entry<String, TasteProfileStats.GenreStats> entry : stats.getGenres().entrySet()) {
+                TasteProfileStats.GenreStats genre = entry.getValue();
+                double confidence = genre.getCount() / (genre.getCount() + CONFIDENCE_RATINGS);
+                deviations.put(key(entry.getKey()), (genre.decayedAverage() - mean) * confidence);
+            }
+        }
+
+        Map<String, Double> themes = new HashMap<>();
+        Map<String, Double> creators = new HashMap<>();
+        likedWeights.forEach((key, weight) -> {
+            MediaMetadataDTO metadata = likedMetadata.get(key);
+            if (metadata != null) {
+                addAll(themes, metadata.getThemes(), weight);
+                addAll(creators, metadata.getCreators(), weight);
+            }
+        });
+        return new UserSignalProfile(tasteVector, count, mean, deviations, themes, creators);
+    }
+
+    float[] tasteVector() {
+        return tasteVector;
+    }
+
+    /**
+     * Rating-scale deviation of a genre from the user's mean (0 for unrated genres)
+     */
+    double genreDeviation(String genre) {
+        return genreDeviations.getOrDefault(key(genre), 0.0);
+    }
+
+    /**
+     * Mean rating plus the average deviation of the item's rated genres, clamped to 1-10;
+     * null without ratings
+     */
+    Double predictRating(Collection<String> genres) {
+        if (ratingCount == 0) {
+            return null;
+        }
+        double deviation = 0;
+        int known = 0;
+        if (genres != null) {
+            for (String genre : genres) {
+                Double value = genreDeviations.get(key(genre));
+                if (value != null) {
+                    deviation += value;
+                    known++;
+                }
+            }
+        }
+        double predicted = meanRating + (known > 0 ? deviation / known : 0);
+        return Math.max(1, Math.min(10, predicted));
+    }
+
+    double themeSimilarity(List<String> itemThemes) {
+        return cosine(themes, themeNorm, itemThemes);
+    }
+
+    double creatorOverlap(List<String> itemCreators) {
+        return cosine(creators, creatorNorm, itemCreators);
+    }
+
+    double themeWeight(String theme) {
+        return themes.getOrDefault(key(theme), 0.0);
+    }
+
+    double creatorWeight(String creator) {
+        return creators.getOrDefault(key(creator), 0.0);
+    }
+
+    /**
+     * Cosine between the weighted user set and the item's set (each item value weighs 1)
+     */
+    private static double cosine(Map<String, Double> weights, double norm, List<String> values) {
+        if (norm == 0 || values == null || values.isEmpty()) {
+            return 0;
+        }
+        double dot = 0;
+        int distinct = 0;
+        for (String value : values.stream().filter(v -> v != null && !v.isBlank()).map(UserSignalProfile::key).distinct().toList()) {
+            dot += weights.getOrDefault(value, 0.0);
+            distinct++;
+        }
+        return distinct == 0 ? 0 : dot / (norm * Math.sqrt(distinct));
+    }
+
+    private static void addAll(Map<String, Double> weights, List<String> values, double weight) {
+        if (values != null) {
+            for (String value : values) {
+                if (value != null && !value.isBlank()) {
+                    weights.merge(key(value), weight, Double::sum);
+                }
+            }
+        }
+    }
+
+    private static double norm(Map<String, Double> weights) {
+        double sum = 0;
+        for (double weight : weights.values()) {
+            sum += weight * weight;
+        }
+        return Math.sqrt(sum);
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,179 @@
+package com.insightx.jobs;
+
+import com.insightx.cache.CacheInvalidationBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Job Coordinator - Runs scheduled jobs on exactly one node of the cluster
+ *
+ * Every node keeps its @Scheduled triggers; before running, a node claims a Redis lease
+ * (jobs:lease:{job}:{run}) for the job's current run. The lease has a short TTL that is
+ * renewed while the job runs, so a crashed node frees it within one TTL. A finished run
+ * replaces the lease with a "done" marker that lives until the run's window is over, so
+ * nodes triggering later in the same window skip it; a failed run deletes the lease and
+ * may be retried by another node.
+ *
+ * Large jobs can be split into user-id shards (JobShard); each shard is claimed on its
+ * own, so all nodes work on one run in parallel.
+ *
+ * Metrics: jobs.run (timer, tags job and result=success|failure) and jobs.skipped
+ * (counter, tag job) for runs left to another node.
+ */
+@Component
+public class JobCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(JobCoordinator.class);
+    private static final String KEY_PREFIX = "jobs:lease:";
+    private static final String DONE = "done";
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+            "  return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+            "end " +
+            "return 0", Long.class);
+
+    // ARGV[2] = how long to keep the done marker (0 = delete the lease)
+    private static final RedisScript<Long> FINISH_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) ~= ARGV[1] then return 0 end " +
+            "if tonumber(ARGV[2]) > 0 then " +
+            "  redis.call('set', KEYS[1], '" + DONE + "', 'PX', ARGV[2]) " +
+            "else " +
+            "  redis.call('del', KEYS[1]) " +
+            "end " +
+            "return 1", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insightx.jobs.lease-ttl-ms:60000}")
+    private long leaseTtlMs;
+
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    public void init() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("job-lease-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+    }
+
+    /**
+     * Run a job at most once per interval window across the cluster
+     */
+    public boolean runPeriodic(String job, Duration interval, Runnable task) {
+        long window = System.currentTimeMillis() / interval.toMillis();
+        return run(job, String.valueOf(window), interval, task);
+    }
+
+    /**
+     * Run a job once per runKey across the cluster; a completed run is remembered for doneTtl
+     */
+    public boolean run(String job, String runKey, Duration doneTtl, Runnable task) {
+        return execute(job, job + ":" + runKey, doneTtl, task);
+    }
+
+    /**
+     * Run the shards of a job that no other node has claimed for this runKey.
+     * Nodes start at different shards, so they rarely contend for the same one.
+     *
+     * @return shards run on this node
+     */
+    public int runSharded(String job, String runKey, int shards, Duration doneTtl, Consumer<JobShard> task) {
+        int start = Math.floorMod(invalidationBus.getNodeId().hashCode(), shards);
+        int ran = 0;
+        for (int i = 0; i < shards; i++) {
+            JobShard shard = new JobShard((start + i) % shards, shards);
+            if (execute(job, job + ":" + runKey + ":" + shard.index(), doneTtl, () -> task.accept(shard))) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    private boolean execute(String job, String lease, Duration doneTtl, Runnable task) {
+        String key = KEY_PREFIX + lease;
+        String token = invalidationBus.getNodeId() + ":" + UUID.randomUUID();
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(key, token, Duration.ofMillis(leaseTtlMs));
+            if (!Boolean.TRUE.equals(acquired)) {
+                meterRegistry.counter("jobs.skipped", "job", job).increment();
+                return false;
+            }
+        } catch (Exception e) {
+            // Without Redis no node can tell whether another one runs the job, so none does
+            log.error("Error acquiring lease for job {}: {}", lease, e.getMessage());
+            return false;
+        }
+
+        long renewEvery = Math.max(1, leaseTtlMs / 3);
+        ScheduledFuture<?> renewal = heartbeat.scheduleAtFixedRate(() -> renew(key, token),
+                renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            task.run();
+            success = true;
+        } catch (Exception e) {
+            log.error("Job {} failed: {}", lease, e.getMessage());
+        } finally {
+            renewal.cancel(false);
+            Timer.builder("jobs.run")
+                    .tag("job", job)
+                    .tag("result", success ? "success" : "failure")
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            finish(key, token, success ? doneTtl : Duration.ZERO);
+        }
+        return success;
+    }
+
+    private void renew(String key, String token) {
+        try {
+            Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(key), token, String.valueOf(leaseTtlMs));
+            if (renewed == null || renewed == 0) {
+                log.warn("Lost lease {}; another node may start the same job", key);
+            }
+        } catch (Exception e) {
+            log.error("Error renewing lease {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void finish(String key, String token, Duration doneTtl) {
+        try {
+            stringRedisTemplate.execute(FINISH_SCRIPT, List.of(key), token, String.valueOf(doneTtl.toMillis()));
+        } catch (Exception e) {
+            log.error("Error releasing lease {}: {}", key, e.getMessage());
+        }
+    }
+}
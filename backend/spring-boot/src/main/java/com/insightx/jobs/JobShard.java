@@ -0,0 +1,46 @@
+package com.insightx.jobs;
+
+import java.math.BigInteger;
+import java.util.UUID;
+
+/**
+ * One of count equal user-id ranges of a sharded job.
+ *
+ * User ids are random (v4) UUIDs, so splitting the unsigned range of their high 64 bits
+ * gives evenly sized shards. The bounds are inclusive and ordered the way PostgreSQL
+ * compares uuid values, so they can be used directly in "user_id BETWEEN :lower AND :upper".
+ */
+public record JobShard(int index, int count) {
+
+    private static final BigInteger RANGE = BigInteger.ONE.shiftLeft(64);
+
+    public JobShard {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + "/" + count);
+        }
+    }
+
+    public UUID lowerBound() {
+        return new UUID(highBitsStart(index), 0L);
+    }
+
+    public UUID upperBound() {
+        long upper = index == count - 1 ? -1L : highBitsStart(index + 1) - 1;
+        return new UUID(upper, -1L);
+    }
+
+    public boolean contains(UUID userId) {
+        long high = userId.getMostSignificantBits();
+        return Long.compareUnsigned(high, lowerBound().getMostSignificantBits()) >= 0
+                && Long.compareUnsigned(high, upperBound().getMostSignificantBits()) <= 0;
+    }
+
+    private long highBitsStart(int shard) {
+        return RANGE.multiply(BigInteger.valueOf(shard)).divide(BigInteger.valueOf(count)).longValue();
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
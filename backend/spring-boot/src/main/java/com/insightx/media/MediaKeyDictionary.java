@@ -0,0 +1,193 @@
+package com.insightx.media;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.entities.MediaKeyEntry;
+import com.insightx.repositories.MediaKeyEntryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Media Key Dictionary - Dense int ids for (mediaType, mediaId), shared by all in-memory engines
+ *
+ * The dictionary is append-only in the media_keys table and held fully in memory: lookups by
+ * key are one hash probe, lookups by id one array read, and neither takes a lock. Unknown keys
+ * are inserted in their own transaction (so an id handed out always exists, even if the
+ * caller's transaction rolls back); ids added by other nodes are loaded on the first miss.
+ * Loading follows an id watermark, so an id whose transaction commits after a higher one was
+ * loaded is fetched by key (or by id) on a miss instead.
+ *
+ * Ids are id - 1 of the table rows. They are dense except for rare gaps when two nodes add
+ * the same key at once, so they can index arrays and bitsets directly.
+ */
+@Component
+public class MediaKeyDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaKeyDictionary.class);
+    private static final int LOAD_PAGE_SIZE = 10000;
+
+    @Autowired
+    private MediaKeyEntryRepository mediaKeyEntryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<MediaKey, Integer> ids = new ConcurrentHashMap<>();
+    private volatile MediaKey[] keys = new MediaKey[1024];
+    private volatile int size;
+    private TransactionTemplate newTransaction;
+
+    // Guarded by this
+    private int lastLoadedId;
+
+    @PostConstruct
+    public void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            synchronized (this) {
+                catchUp();
+            }
+            log.info("Loaded {} media keys", ids.size());
+        } catch (Exception e) {
+            log.error("Error loading media keys: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Id of a media item without adding it; -1 when unknown
+     */
+    public int find(MediaKey key) {
+        Integer id = ids.get(key);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Id of a media item, adding it to the dictionary if needed
+     */
+    public int idOf(MediaKey key) {
+        Integer id = ids.get(key);
+        return id != null ? id : idsOf(List.of(key))[0];
+    }
+
+    /**
+     * Ids of many media items (same order), adding the unknown ones in one transaction
+     */
+    public int[] idsOf(Collection<MediaKey> mediaKeys) {
+        List<MediaKey> missing = new ArrayList<>();
+        for (MediaKey key : mediaKeys) {
+            if (!ids.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            synchronized (this) {
+                // Another node may have added them already
+                catchUp();
+                List<MediaKey> unknown = missing.stream().filter(key -> !ids.containsKey(key)).distinct().toList();
+                if (!unknown.isEmpty()) {
+                    newTransaction.executeWithoutResult(status -> {
+                        for (MediaKey key : unknown) {
+                            mediaKeyEntryRepository.insertIfAbsent(key.mediaType().name(), key.mediaId());
+                        }
+                    });
+                    catchUp();
+                    // Ids committed after a higher id was loaded are behind the watermark; fetch them by key
+                    for (MediaKey key : unknown) {
+                        if (!ids.containsKey(key)) {
+                            mediaKeyEntryRepository.findByMediaTypeAndMediaId(key.mediaType(), key.mediaId())
+                                    .ifPresent(this::add);
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] result = new int[mediaKeys.size()];
+        int i = 0;
+        for (MediaKey key : mediaKeys) {
+            result[i++] = find(key);
+        }
+        return result;
+    }
+
+    /**
+     * Media item of an id; null when the id is not (yet) known
+     */
+    public MediaKey keyOf(int id) {
+        MediaKey[] current = keys;
+        if (id >= 0 && id < current.length && current[id] != null) {
+            return current[id];
+        }
+        if (id < 0) {
+            return null;
+        }
+        synchronized (this) {
+            catchUp();
+            current = keys;
+            if (id >= current.length || current[id] == null) {
+                // May be a late commit below the watermark
+                mediaKeyEntryRepository.findById(id + 1).ifPresent(this::add);
+            }
+        }
+        current = keys;
+        return id < current.length ? current[id] : null;
+    }
+
+    /**
+     * Upper bound of the ids handed out so far (array size needed to index every item)
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Load entries added since the last load (by this or any other node)
+     */
+    private void catchUp() {
+        while (true) {
+            List<MediaKeyEntry> entries = mediaKeyEntryRepository.findByIdGreaterThanOrderByIdAsc(lastLoadedId,
+                    PageRequest.of(0, LOAD_PAGE_SIZE));
+            if (entries.isEmpty()) {
+                return;
+            }
+            for (MediaKeyEntry entry : entries) {
+                add(entry);
+            }
+            lastLoadedId = entries.get(entries.size() - 1).getId();
+            if (entries.size() < LOAD_PAGE_SIZE) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publish one entry (caller holds the lock)
+     */
+    private void add(MediaKeyEntry entry) {
+        MediaKey[] current = keys;
+        if (current.length < entry.getId()) {
+            // Readers keep using the old array until the new one is published
+            current = Arrays.copyOf(current, Math.max(entry.getId(), current.length * 2));
+            keys = current;
+        }
+        MediaKey key = new MediaKey(entry.getMediaType(), entry.getMediaId());
+        int id = entry.getId() - 1;
+        current[id] = key;
+        ids.put(key, id);
+        size = Math.max(size, entry.getId());
+    }
+}
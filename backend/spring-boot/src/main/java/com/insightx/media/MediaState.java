@@ -0,0 +1,10 @@
+package com.insightx.media;
+
+/**
+ * A user's relation to a media item
+ */
+public enum MediaState {
+    WATCHED,
+    RATED,
+    BOOKMARKED
+}
@@ -0,0 +1,214 @@
+package com.insightx.media;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insightx.cache.CacheInvalidationBus;
+import com.insightx.dto.MediaKey;
+import com.insightx.entities.MediaType;
+import com.insightx.events.MediaStateChangedEvent;
+import com.insightx.events.RatingChangedEvent;
+import com.insightx.repositories.WatchedEntryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * User Media State Index - Per-user bitmaps of watched, rated and bookmarked media
+ *
+ * Tier 1: in-process Caffeine cache of immutable UserMediaStates
+ * Tier 2: Redis (media_state:{userId}), shared by all nodes
+ * Miss: one UNION ALL query over watched_entries, ratings and bookmarks
+ *
+ * Committed changes are applied to the local copy in place, dropped from Redis and
+ * broadcast through CacheInvalidationBus so other nodes reload. Exclusion and state
+ * enrichment of a candidate list are one in-memory pass instead of a query per candidate.
+ */
+@Component
+public class UserMediaStateIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserMediaStateIndex.class);
+    private static final String CACHE_NAME = "media-state";
+    private static final String KEY_PREFIX = "media_state:";
+
+    @Autowired
+    private WatchedEntryRepository watchedEntryRepository;
+
+    @Autowired
+    private MediaKeyDictionary mediaKeyDictionary;
+
+    @Autowired
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insightx.media-state.local.max-users:50000}")
+    private long maxLocalUsers;
+
+    // Short TTLs bound how long a load racing a concurrent write can serve the old state
+    @Value("${insightx.media-state.local.ttl:600}")
+    private long localTtlSeconds;
+
+    @Value("${insightx.media-state.redis-ttl:3600}")
+    private long redisTtlSeconds;
+
+    private Cache<UUID, UserMediaStates> localCache;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(maxLocalUsers)
+                .expireAfterWrite(Duration.ofSeconds(Math.min(localTtlSeconds, redisTtlSeconds)))
+                .recordStats()
+                .build();
+
+        invalidationBus.register(CACHE_NAME, key -> localCache.invalidate(UUID.fromString(key)));
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, CACHE_NAME);
+    }
+
+    /**
+     * States of a user from the local tier, then Redis, then the database
+     */
+    public UserMediaStates get(UUID userId) {
+        // Loads run inside the cache's per-key compute, so a concurrent apply() waits for them
+        return localCache.get(userId, this::load);
+    }
+
+    public boolean has(UUID userId, MediaKey key, MediaState state) {
+        int id = mediaKeyDictionary.find(key);
+        return id >= 0 && get(userId).has(state, id);
+    }
+
+    /**
+     * States of each media item (same order, empty set for items the user has no relation to)
+     */
+    public Map<MediaKey, Set<MediaState>> statesOf(UUID userId, Collection<MediaKey> keys) {
+        UserMediaStates states = get(userId);
+        Map<MediaKey, Set<MediaState>> result = new LinkedHashMap<>();
+        for (MediaKey key : keys) {
+            result.put(key, states.statesOf(mediaKeyDictionary.find(key)));
+        }
+        return result;
+    }
+
+    /**
+     * Items the user has none of the given states for, in their original order.
+     * If the states cannot be loaded the list is returned unfiltered.
+     */
+    public <T> List<T> exclude(UUID userId, List<T> items, Function<T, MediaKey> keyOf, Set<MediaState> excluded) {
+        if (items.isEmpty() || excluded.isEmpty()) {
+            return items;
+        }
+        UserMediaStates states;
+        try {
+            states = get(userId);
+        } catch (Exception e) {
+            log.error("Error loading media states for user {}: {}", userId, e.getMessage());
+            return items;
+        }
+        List<T> kept = new ArrayList<>(items.size());
+        for (T item : items) {
+            MediaKey key = keyOf.apply(item);
+            if (key == null || !states.hasAny(excluded, mediaKeyDictionary.find(key))) {
+                kept.add(item);
+            }
+        }
+        return kept;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMediaStateChanged(MediaStateChangedEvent event) {
+        apply(event.userId(), new MediaKey(event.mediaType(), event.mediaId()), event.state(), event.active());
+    }
+
+    /**
+     * Only new and deleted ratings change the RATED state; a changed value does not
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        boolean created = event.previousRating() == null && event.rating() != null;
+        boolean deleted = event.rating() == null;
+        if (created || deleted) {
+            apply(event.userId(), new MediaKey(event.mediaType(), event.mediaId()), MediaState.RATED, created);
+        }
+    }
+
+    private void apply(UUID userId, MediaKey key, MediaState state, boolean active) {
+        try {
+            int id = active ? mediaKeyDictionary.idOf(key) : mediaKeyDictionary.find(key);
+            localCache.asMap().computeIfPresent(userId, (user, states) -> states.with(state, id, active));
+        } catch (Exception e) {
+            log.error("Error updating media states for user {}: {}", userId, e.getMessage());
+            localCache.invalidate(userId);
+        }
+        try {
+            binaryRedisTemplate.delete(buildKey(userId));
+        } catch (Exception e) {
+            log.error("Error deleting cached media states for user {}: {}", userId, e.getMessage());
+        }
+        invalidationBus.publish(CACHE_NAME, userId.toString());
+    }
+
+    private UserMediaStates load(UUID userId) {
+        UserMediaStates remote = readRemote(userId);
+        if (remote != null) {
+            return remote;
+        }
+
+        List<Object[]> rows = watchedEntryRepository.findMediaStatesByUserId(userId);
+        MediaState[] states = new MediaState[rows.size()];
+        List<MediaKey> keys = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            states[i] = MediaState.valueOf(row[0].toString());
+            keys.add(new MediaKey(MediaType.valueOf(row[1].toString()), row[2].toString()));
+        }
+        UserMediaStates loaded = UserMediaStates.of(states, mediaKeyDictionary.idsOf(keys));
+        writeRemote(userId, loaded);
+        return loaded;
+    }
+
+    private UserMediaStates readRemote(UUID userId) {
+        try {
+            byte[] data = binaryRedisTemplate.opsForValue().get(buildKey(userId));
+            return data == null ? null : UserMediaStates.deserialize(data);
+        } catch (Exception e) {
+            log.error("Error reading cached media states for user {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(UUID userId, UserMediaStates states) {
+        try {
+            binaryRedisTemplate.opsForValue().set(buildKey(userId), states.serialize(),
+                    Duration.ofSeconds(redisTtlSeconds));
+        } catch (Exception e) {
+            log.error("Error caching media states for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private String buildKey(UUID userId) {
+        return KEY_PREFIX + userId;
+    }
+}
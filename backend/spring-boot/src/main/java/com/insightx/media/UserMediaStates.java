@@ -0,0 +1,146 @@
+package com.insightx.media;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * User Media States - What one user watched, rated and bookmarked, as a roaring bitmap per state
+ * over MediaKeyDictionary ids
+ *
+ * Instances are immutable: with() copies only the bitmap it changes, so readers never see
+ * a bitmap mid-update and can check membership without locking.
+ */
+public final class UserMediaStates {
+
+    public static final UserMediaStates EMPTY = new UserMediaStates(new EnumMap<>(MediaState.class));
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final MediaState[] STATES = MediaState.values();
+
+    private final Map<MediaState, RoaringBitmap> bitmaps;
+
+    private UserMediaStates(Map<MediaState, RoaringBitmap> bitmaps) {
+        this.bitmaps = bitmaps;
+    }
+
+    public boolean has(MediaState state, int mediaId) {
+        RoaringBitmap bitmap = bitmaps.get(state);
+        return mediaId >= 0 && bitmap != null && bitmap.contains(mediaId);
+    }
+
+    /**
+     * True if the media is in any of the given states
+     */
+    public boolean hasAny(Set<MediaState> states, int mediaId) {
+        for (MediaState state : states) {
+            if (has(state, mediaId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * States of one media item (empty set when the user has no relation to it)
+     */
+    public Set<MediaState> statesOf(int mediaId) {
+        Set<MediaState> states = EnumSet.noneOf(MediaState.class);
+        for (MediaState state : STATES) {
+            if (has(state, mediaId)) {
+                states.add(state);
+            }
+        }
+        return states;
+    }
+
+    public int count(MediaState state) {
+        RoaringBitmap bitmap = bitmaps.get(state);
+        return bitmap == null ? 0 : bitmap.getCardinality();
+    }
+
+    /**
+     * Copy with one media item added to or removed from a state
+     */
+    public UserMediaStates with(MediaState state, int mediaId, boolean present) {
+        if (mediaId < 0 || has(state, mediaId) == present) {
+            return this;
+        }
+        RoaringBitmap bitmap = bitmaps.get(state);
+        RoaringBitmap copy = bitmap == null ? new RoaringBitmap() : bitmap.clone();
+        if (present) {
+            copy.add(mediaId);
+        } else {
+            copy.remove(mediaId);
+        }
+        Map<MediaState, RoaringBitmap> next = new EnumMap<>(MediaState.class);
+        next.putAll(bitmaps);
+        next.put(state, copy);
+        return new UserMediaStates(next);
+    }
+
+    /**
+     * Build from parallel arrays of states and media ids
+     */
+    static UserMediaStates of(MediaState[] states, int[] mediaIds) {
+        Map<MediaState, RoaringBitmap> bitmaps = new EnumMap<>(MediaState.class);
+        for (int i = 0; i < states.length; i++) {
+            if (mediaIds[i] >= 0) {
+                bitmaps.computeIfAbsent(states[i], s -> new RoaringBitmap()).add(mediaIds[i]);
+            }
+        }
+        for (RoaringBitmap bitmap : bitmaps.values()) {
+            bitmap.runOptimize();
+        }
+        return new UserMediaStates(bitmaps);
+    }
+
+    /**
+     * Format: version byte, then one portable roaring bitmap per MediaState in ordinal order
+     */
+    public byte[] serialize() {
+        RoaringBitmap[] ordered = new RoaringBitmap[STATES.length];
+        int size = 1;
+        for (MediaState state : STATES) {
+            RoaringBitmap bitmap = bitmaps.getOrDefault(state, new RoaringBitmap());
+            ordered[state.ordinal()] = bitmap;
+            size += bitmap.serializedSizeInBytes();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(FORMAT_VERSION);
+        for (RoaringBitmap bitmap : ordered) {
+            bitmap.serialize(buffer);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decode serialize() output; null for an unknown format version
+     */
+    public static UserMediaStates deserialize(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.get() != FORMAT_VERSION) {
+            return null;
+        }
+        Map<MediaState, RoaringBitmap> bitmaps = new EnumMap<>(MediaState.class);
+        try {
+            for (MediaState state : STATES) {
+                RoaringBitmap bitmap = new RoaringBitmap();
+                bitmap.deserialize(buffer.slice());
+                buffer.position(buffer.position() + bitmap.serializedSizeInBytes());
+                if (!bitmap.isEmpty()) {
+                    bitmaps.put(state, bitmap);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new UserMediaStates(bitmaps);
+    }
+}
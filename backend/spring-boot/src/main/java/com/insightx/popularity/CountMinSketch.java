@@ -0,0 +1,181 @@
+package com.insightx.popularity;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Count-Min Sketch - Approximate per-key counts in depth x width counters
+ *
+ * With width = ceil(e / epsilon) and depth = ceil(ln(1 / delta)), an estimate is never
+ * below the true count and exceeds it by more than epsilon * total with probability at
+ * most delta. Memory depends only on epsilon and delta, not on the number of keys.
+ *
+ * Keys are hashed with a fixed 64-bit function (not String.hashCode), so sketches built
+ * on different nodes with the same dimensions can be merged by adding counters.
+ * Not thread-safe; callers synchronize.
+ */
+public final class CountMinSketch {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int depth;
+    private final int width;
+    private final long[] counters;
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Sketch depth and width must be positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new long[depth * width];
+    }
+
+    /**
+     * Sketch sized for an overestimate of at most epsilon * total with probability 1 - delta
+     */
+    public static CountMinSketch forErrorBounds(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("epsilon and delta must be in (0, 1)");
+        }
+        return new CountMinSketch((int) Math.ceil(Math.log(1 / delta)), (int) Math.ceil(Math.E / epsilon));
+    }
+
+    public void add(String key, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + column(h1, h2, row)] += count;
+        }
+        total += count;
+    }
+
+    /**
+     * Upper bound on the key's count; 0 only if the key was never added
+     */
+    public long estimate(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + column(h1, h2, row)]);
+        }
+        return min;
+    }
+
+    /**
+     * Sum of all counts added (after scaling)
+     */
+    public long total() {
+        return total;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public boolean compatibleWith(CountMinSketch other) {
+        return depth == other.depth && width == other.width;
+    }
+
+    /**
+     * Add another sketch's counts; the result is the sketch of both streams
+     */
+    public void merge(CountMinSketch other) {
+        if (!compatibleWith(other)) {
+            throw new IllegalArgumentException("Cannot merge sketches of different dimensions");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+    }
+
+    /**
+     * Multiply all counts by factor (decay); bounds hold relative to the scaled total
+     */
+    public void scale(double factor) {
+        long scaledTotal = 0;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = (long) (counters[i] * factor);
+        }
+        for (int i = 0; i < width; i++) {
+            scaledTotal += counters[i];
+        }
+        total = scaledTotal;
+    }
+
+    /**
+     * Format: version byte, depth, width, total, then the counters row by row
+     */
+    public byte[] serialize() {
+        ByteBuffer buffer = ByteBuffer.allocate(serializedSize());
+        writeTo(buffer);
+        return buffer.array();
+    }
+
+    int serializedSize() {
+        return 1 + Integer.BYTES * 2 + Long.BYTES * (1 + counters.length);
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.put(FORMAT_VERSION);
+        buffer.putInt(depth);
+        buffer.putInt(width);
+        buffer.putLong(total);
+        for (long counter : counters) {
+            buffer.putLong(counter);
+        }
+    }
+
+    /**
+     * Decode serialize() output; null for an unknown format version
+     */
+    public static CountMinSketch deserialize(byte[] data) {
+        return readFrom(ByteBuffer.wrap(data));
+    }
+
+    static CountMinSketch readFrom(ByteBuffer buffer) {
+        if (buffer.get() != FORMAT_VERSION) {
+            return null;
+        }
+        CountMinSketch sketch = new CountMinSketch(buffer.getInt(), buffer.getInt());
+        sketch.total = buffer.getLong();
+        for (int i = 0; i < sketch.counters.length; i++) {
+            sketch.counters[i] = buffer.getLong();
+        }
+        return sketch;
+    }
+
+    // Kirsch-Mitzenmacher: row hashes h1 + row * h2 are as good as independent ones here
+    private int column(int h1, int h2, int row) {
+        return Math.floorMod(h1 + row * h2, width);
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 fmix64 avalanche step
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
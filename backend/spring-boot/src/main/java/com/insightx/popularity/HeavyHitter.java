@@ -0,0 +1,13 @@
+package com.insightx.popularity;
+
+/**
+ * Heavy Hitter - A key reported by a SpaceSaving summary
+ *
+ * count is an upper bound on the true count; count - error is a lower bound.
+ */
+public record HeavyHitter(String key, long count, long error) {
+
+    public long guaranteedCount() {
+        return count - error;
+    }
+}
@@ -0,0 +1,61 @@
+package com.insightx.popularity;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Popularity sketch settings (insightx.popularity.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "insightx.popularity")
+public class PopularityProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Count estimates exceed the true count by more than epsilon * total events with
+     * probability at most delta. Changing either invalidates the shared sketches.
+     */
+    private double epsilon = 0.001;
+    private double delta = 0.01;
+
+    /**
+     * Heavy hitters tracked per media type; any item with more than total / topK events is kept
+     */
+    private int topK = 1000;
+
+    /**
+     * Event weights (whole events, so sketches stay integer counters)
+     */
+    private int ratingWeight = 2;
+    private int watchedWeight = 2;
+    private int bookmarkWeight = 1;
+
+    /**
+     * Counts are multiplied by decayFactor every decayIntervalMs so popularity follows recent activity
+     */
+    private double decayFactor = 0.5;
+    private long decayIntervalMs = 86400000;
+
+    private long flushIntervalMs = 30000;
+    private long refreshIntervalMs = 60000;
+
+    /**
+     * Attempts of the optimistic read-merge-write of a shared sketch before the delta is kept for later
+     */
+    private int mergeAttempts = 3;
+
+    private Benchmark benchmark = new Benchmark();
+
+    @Data
+    public static class Benchmark {
+        private boolean enabled = false;
+        private int items = 1000000;
+        private int events = 10000000;
+        private double zipfExponent = 1.0;
+        private int nodes = 4;
+        private int k = 100;
+    }
+}
@@ -0,0 +1,97 @@
+package com.insightx.popularity;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Popularity Sketch - Count-Min Sketch for any item's count plus Space-Saving for the top K
+ *
+ * The two answer different questions in bounded memory: the sketch estimates the count of
+ * an arbitrary item, the summary names the heaviest items (a sketch cannot enumerate keys).
+ * Both only overestimate, so estimate() takes the smaller of the two bounds.
+ * Not thread-safe; callers synchronize.
+ */
+public final class PopularitySketch {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final CountMinSketch counts;
+    private final SpaceSaving heavyHitters;
+
+    public PopularitySketch(CountMinSketch counts, SpaceSaving heavyHitters) {
+        this.counts = counts;
+        this.heavyHitters = heavyHitters;
+    }
+
+    public static PopularitySketch create(double epsilon, double delta, int topK) {
+        return new PopularitySketch(CountMinSketch.forErrorBounds(epsilon, delta), new SpaceSaving(topK));
+    }
+
+    public void add(String key, long count) {
+        counts.add(key, count);
+        heavyHitters.add(key, count);
+    }
+
+    public long estimate(String key) {
+        long estimate = counts.estimate(key);
+        long tracked = heavyHitters.estimate(key);
+        return tracked >= 0 ? Math.min(estimate, tracked) : estimate;
+    }
+
+    public List<HeavyHitter> top(int limit) {
+        return heavyHitters.top(limit);
+    }
+
+    public long total() {
+        return counts.total();
+    }
+
+    public boolean isEmpty() {
+        return counts.total() == 0;
+    }
+
+    /**
+     * Same sketch dimensions and top-K capacity, so merge() is allowed
+     */
+    public boolean compatibleWith(PopularitySketch other) {
+        return counts.compatibleWith(other.counts) && heavyHitters.capacity() == other.heavyHitters.capacity();
+    }
+
+    public void merge(PopularitySketch other) {
+        if (!compatibleWith(other)) {
+            throw new IllegalArgumentException("Cannot merge popularity sketches of different dimensions");
+        }
+        counts.merge(other.counts);
+        heavyHitters.merge(other.heavyHitters);
+    }
+
+    public void scale(double factor) {
+        counts.scale(factor);
+        heavyHitters.scale(factor);
+    }
+
+    /**
+     * Format: version byte, then the sketch and the summary in their own formats
+     */
+    public byte[] serialize() {
+        byte[][] keys = new byte[heavyHitters.size()][];
+        ByteBuffer buffer = ByteBuffer.allocate(1 + counts.serializedSize() + heavyHitters.serializedSize(keys));
+        buffer.put(FORMAT_VERSION);
+        counts.writeTo(buffer);
+        heavyHitters.writeTo(buffer, keys);
+        return buffer.array();
+    }
+
+    /**
+     * Decode serialize() output; null for an unknown format version
+     */
+    public static PopularitySketch deserialize(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.get() != FORMAT_VERSION) {
+            return null;
+        }
+        CountMinSketch counts = CountMinSketch.readFrom(buffer);
+        SpaceSaving heavyHitters = counts == null ? null : SpaceSaving.readFrom(buffer);
+        return heavyHitters == null ? null : new PopularitySketch(counts, heavyHitters);
+    }
+}
@@ -0,0 +1,162 @@
+package com.insightx.popularity;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Popularity Sketch Benchmark - Accuracy, memory and speed of PopularitySketch against exact counts
+ *
+ * Runs once at startup when insightx.popularity.benchmark.enabled=true. Streams synthetic
+ * Zipf-distributed events (no Redis needed) into one sketch and into per-node sketches that
+ * are merged afterwards, and logs update cost, serialized size against an exact count map,
+ * count error against the epsilon * total bound, and top-k recall.
+ */
+@Component
+@ConditionalOnProperty(name = "insightx.popularity.benchmark.enabled", havingValue = "true")
+public class PopularitySketchBenchmark implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularitySketchBenchmark.class);
+    private static final long SEED = 42;
+
+    // Rough heap cost of one HashMap<String, Long> entry with a short key
+    private static final int EXACT_BYTES_PER_ENTRY = 120;
+
+    @Autowired
+    private PopularityProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        PopularityProperties.Benchmark settings = properties.getBenchmark();
+        Random random = new Random(SEED);
+        int items = settings.getItems();
+        String[] keys = new String[items];
+        for (int i = 0; i < items; i++) {
+            keys[i] = "movie:" + (i * 7919L % 10_000_000);
+        }
+        int[] events = zipfStream(items, settings.getEvents(), settings.getZipfExponent(), random);
+        long[] exact = new long[items];
+        for (int event : events) {
+            exact[event]++;
+        }
+        int distinct = 0;
+        for (long count : exact) {
+            if (count > 0) {
+                distinct++;
+            }
+        }
+        log.info("Generated {} events over {} distinct items (zipf s={})",
+                events.length, distinct, settings.getZipfExponent());
+
+        PopularitySketch single = newSketch();
+        long start = System.nanoTime();
+        for (int event : events) {
+            single.add(keys[event], 1);
+        }
+        long nanos = System.nanoTime() - start;
+        log.info("Single sketch: {} ns/update, {} KB serialized vs ~{} KB exact map",
+                nanos / events.length, single.serialize().length / 1024,
+                (long) distinct * EXACT_BYTES_PER_ENTRY / 1024);
+        report("single", single, exact, keys, settings.getK());
+
+        int nodes = Math.max(1, settings.getNodes());
+        PopularitySketch[] perNode = new PopularitySketch[nodes];
+        for (int n = 0; n < nodes; n++) {
+            perNode[n] = newSketch();
+        }
+        for (int i = 0; i < events.length; i++) {
+            perNode[random.nextInt(nodes)].add(keys[events[i]], 1);
+        }
+        start = System.nanoTime();
+        PopularitySketch merged = PopularitySketch.deserialize(perNode[0].serialize());
+        for (int n = 1; n < nodes; n++) {
+            merged.merge(PopularitySketch.deserialize(perNode[n].serialize()));
+        }
+        log.info("Merged {} node sketches (with serialization) in {} ms", nodes, (System.nanoTime() - start) / 1_000_000);
+        report("merged", merged, exact, keys, settings.getK());
+    }
+
+    private PopularitySketch newSketch() {
+        return PopularitySketch.create(properties.getEpsilon(), properties.getDelta(), properties.getTopK());
+    }
+
+    private void report(String name, PopularitySketch sketch, long[] exact, String[] keys, int k) {
+        double bound = properties.getEpsilon() * sketch.total();
+        long maxError = 0;
+        double errorSum = 0;
+        int counted = 0;
+        int overBound = 0;
+        for (int i = 0; i < exact.length; i++) {
+            if (exact[i] == 0) {
+                continue;
+            }
+            long error = sketch.estimate(keys[i]) - exact[i];
+            if (error < 0) {
+                log.warn("{}: underestimate for {} ({} < {})", name, keys[i], exact[i] + error, exact[i]);
+            }
+            maxError = Math.max(maxError, error);
+            errorSum += error;
+            counted++;
+            if (error > bound) {
+                overBound++;
+            }
+        }
+        log.info(String.format("%-8s mean error %.2f, max error %d, bound %.0f, over bound %.4f%% (delta %.2f%%)",
+                name, errorSum / Math.max(1, counted), maxError, bound,
+                100.0 * overBound / Math.max(1, counted), 100 * properties.getDelta()));
+
+        Set<String> exactTop = new HashSet<>();
+        for (int i : topIndexes(exact, k)) {
+            exactTop.add(keys[i]);
+        }
+        List<HeavyHitter> reported = sketch.top(k);
+        int hits = 0;
+        for (HeavyHitter hitter : reported) {
+            if (exactTop.contains(hitter.key())) {
+                hits++;
+            }
+        }
+        log.info(String.format("%-8s top-%d recall %.3f", name, k, hits / (double) Math.max(1, exactTop.size())));
+    }
+
+    /**
+     * Item indexes drawn with probability proportional to 1 / rank^exponent
+     */
+    private static int[] zipfStream(int items, int events, double exponent, Random random) {
+        double[] cumulative = new double[items];
+        double sum = 0;
+        for (int i = 0; i < items; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        int[] stream = new int[events];
+        for (int e = 0; e < events; e++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            stream[e] = Math.min(items - 1, index >= 0 ? index : -index - 1);
+        }
+        return stream;
+    }
+
+    private static int[] topIndexes(long[] counts, int k) {
+        Integer[] order = new Integer[counts.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(counts[b], counts[a]));
+        int[] top = new int[Math.min(k, order.length)];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = order[i];
+        }
+        return top;
+    }
+}
@@ -0,0 +1,276 @@
+package com.insightx.popularity;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.entities.MediaType;
+import com.insightx.events.MediaStateChangedEvent;
+import com.insightx.events.RatingChangedEvent;
+import com.insightx.jobs.JobCoordinator;
+import com.insightx.media.MediaState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Popularity Tracker - Bounded-memory media popularity per media type
+ *
+ * New ratings, watched entries and bookmarks are added (weighted) to a local
+ * PopularitySketch per media type. Each flush merges the local delta into the shared
+ * sketch in Redis (popularity:{type}) with an optimistic WATCH/MULTI read-merge-write,
+ * so nodes never overwrite each other's counts; a delta that cannot be merged is kept
+ * and retried on the next flush. Every node reads the shared sketches back on a schedule
+ * and serves estimates and top items from memory.
+ *
+ * Memory per media type is fixed by epsilon, delta and topK (about 8 * e / epsilon *
+ * ln(1 / delta) bytes of counters plus topK entries), whatever the catalogue size.
+ * Removals are not subtracted: popularity counts interactions, and decay ages them out.
+ */
+@Component
+public class PopularityTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularityTracker.class);
+    private static final String KEY_PREFIX = "popularity:";
+
+    @Autowired
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Autowired
+    private PopularityProperties properties;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    // Local deltas since the last flush; compute() serializes writers per media type
+    private final Map<MediaType, PopularitySketch> pending = new ConcurrentHashMap<>();
+
+    // Shared sketches as last read; never mutated once published
+    private volatile Map<MediaType, PopularitySketch> snapshot = Collections.emptyMap();
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        if (event.previousRating() == null && event.rating() != null) {
+            record(event.mediaType(), event.mediaId(), properties.getRatingWeight());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMediaStateChanged(MediaStateChangedEvent event) {
+        if (!event.active()) {
+            return;
+        }
+        if (event.state() == MediaState.WATCHED) {
+            record(event.mediaType(), event.mediaId(), properties.getWatchedWeight());
+        } else if (event.state() == MediaState.BOOKMARKED) {
+            record(event.mediaType(), event.mediaId(), properties.getBookmarkWeight());
+        }
+    }
+
+    /**
+     * Count weight interactions with a media item
+     */
+    public void record(MediaType mediaType, String mediaId, int weight) {
+        if (!properties.isEnabled() || weight <= 0) {
+            return;
+        }
+        String key = new MediaKey(mediaType, mediaId).toString();
+        pending.compute(mediaType, (type, sketch) -> {
+            PopularitySketch target = sketch != null ? sketch : newSketch();
+            target.add(key, weight);
+            return target;
+        });
+    }
+
+    /**
+     * Estimated interaction count of a media item across all nodes (an upper bound,
+     * see PopularityProperties.epsilon); 0 if unknown
+     */
+    public long estimate(MediaKey key) {
+        PopularitySketch sketch = snapshot.get(key.mediaType());
+        return sketch == null ? 0 : sketch.estimate(key.toString());
+    }
+
+    /**
+     * Most popular media items of one type, most popular first
+     */
+    public List<MediaKey> top(MediaType mediaType, int limit) {
+        PopularitySketch sketch = snapshot.get(mediaType);
+        return sketch == null ? Collections.emptyList() : toKeys(sketch.top(limit), limit);
+    }
+
+    /**
+     * Most popular media items of all types, most popular first
+     */
+    public List<MediaKey> top(int limit) {
+        List<HeavyHitter> hitters = new ArrayList<>();
+        for (PopularitySketch sketch : snapshot.values()) {
+            hitters.addAll(sketch.top(limit));
+        }
+        hitters.sort(Comparator.comparingLong(HeavyHitter::count).reversed());
+        return toKeys(hitters, limit);
+    }
+
+    /**
+     * Merge local deltas into the shared sketches
+     */
+    @Scheduled(fixedDelayString = "${insightx.popularity.flush-interval-ms:30000}")
+    public void flush() {
+        for (MediaType mediaType : MediaType.values()) {
+            PopularitySketch batch = pending.remove(mediaType);
+            if (batch == null) {
+                continue;
+            }
+            PopularitySketch merged = updateShared(mediaType, shared -> {
+                if (shared == null || !shared.compatibleWith(batch)) {
+                    if (shared != null) {
+                        log.warn("Replacing popularity sketch for {}: dimensions changed", mediaType);
+                    }
+                    return batch;
+                }
+                shared.merge(batch);
+                return shared;
+            });
+            if (merged != null) {
+                publish(mediaType, merged);
+            } else {
+                // Keep the delta for the next flush; memory stays one sketch per type
+                pending.merge(mediaType, batch, (current, retry) -> {
+                    current.merge(retry);
+                    return current;
+                });
+            }
+        }
+    }
+
+    /**
+     * Read the shared sketches into memory
+     */
+    @Scheduled(fixedDelayString = "${insightx.popularity.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (MediaType mediaType : MediaType.values()) {
+            try {
+                byte[] data = binaryRedisTemplate.opsForValue().get(buildKey(mediaType));
+                PopularitySketch sketch = data == null ? null : PopularitySketch.deserialize(data);
+                if (sketch != null) {
+                    publish(mediaType, sketch);
+                }
+            } catch (Exception e) {
+                log.error("Error reading popularity sketch for {}: {}", mediaType, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Scale the shared sketches by the decay factor; runs on one node per interval (JobCoordinator).
+     * The first check comes soon after startup: the coordinator skips it if the current interval
+     * window already ran, so restarts neither postpone nor repeat the decay.
+     */
+    @Scheduled(fixedDelayString = "${insightx.popularity.decay-interval-ms:86400000}",
+               initialDelayString = "${insightx.popularity.decay-initial-delay-ms:60000}")
+    public void decay() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        jobCoordinator.runPeriodic("popularity-decay", Duration.ofMillis(properties.getDecayIntervalMs()), () -> {
+            for (MediaType mediaType : MediaType.values()) {
+                PopularitySketch decayed = updateShared(mediaType, shared -> {
+                    if (shared != null) {
+                        shared.scale(properties.getDecayFactor());
+                    }
+                    return shared;
+                });
+                if (decayed != null) {
+                    publish(mediaType, decayed);
+                }
+            }
+        });
+    }
+
+    /**
+     * Optimistic read-modify-write of one shared sketch: the write is discarded if another
+     * node changed the key after it was read, and the change is re-applied to the new value.
+     *
+     * @return the written sketch, or null if it could not be written
+     */
+    private PopularitySketch updateShared(MediaType mediaType, UnaryOperator<PopularitySketch> change) {
+        String key = buildKey(mediaType);
+        for (int attempt = 1; attempt <= properties.getMergeAttempts(); attempt++) {
+            try {
+                PopularitySketch written = binaryRedisTemplate.execute(new SessionCallback<PopularitySketch>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> PopularitySketch execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, byte[]> redis = (RedisOperations<String, byte[]>) operations;
+                        redis.watch(key);
+                        byte[] data = redis.opsForValue().get(key);
+                        PopularitySketch updated = change.apply(data == null ? null : PopularitySketch.deserialize(data));
+                        if (updated == null) {
+                            redis.unwatch();
+                            return null;
+                        }
+                        redis.multi();
+                        redis.opsForValue().set(key, updated.serialize());
+                        List<Object> results = redis.exec();
+                        return results == null || results.isEmpty() ? null : updated;
+                    }
+                });
+                if (written != null) {
+                    return written;
+                }
+                log.debug("Popularity sketch for {} changed concurrently (attempt {})", mediaType, attempt);
+            } catch (Exception e) {
+                log.error("Error updating popularity sketch for {}: {}", mediaType, e.getMessage());
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void publish(MediaType mediaType, PopularitySketch sketch) {
+        Map<MediaType, PopularitySketch> next = new EnumMap<>(MediaType.class);
+        next.putAll(snapshot);
+        next.put(mediaType, sketch);
+        snapshot = next;
+    }
+
+    private PopularitySketch newSketch() {
+        return PopularitySketch.create(properties.getEpsilon(), properties.getDelta(), properties.getTopK());
+    }
+
+    private List<MediaKey> toKeys(List<HeavyHitter> hitters, int limit) {
+        List<MediaKey> keys = new ArrayList<>(Math.min(limit, hitters.size()));
+        for (HeavyHitter hitter : hitters) {
+            if (keys.size() >= limit) {
+                break;
+            }
+            try {
+                keys.add(MediaKey.parse(hitter.key()));
+            } catch (IllegalArgumentException e) {
+                log.debug("Skipping malformed popularity key {}", hitter.key());
+            }
+        }
+        return keys;
+    }
+
+    private String buildKey(MediaType mediaType) {
+        return KEY_PREFIX + mediaType.getValue();
+    }
+}
@@ -0,0 +1,278 @@
+package com.insightx.popularity;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving - Top-K heavy hitters in a fixed number of counters (Metwally et al.)
+ *
+ * When all capacity counters are taken, a new key replaces the smallest one and inherits
+ * its count as error. Every key with a true count above total / capacity is kept, and each
+ * reported count overestimates the true one by at most its error (itself at most
+ * total / capacity). Counters sit in an indexed min-heap, so an update is O(log capacity).
+ *
+ * Two summaries merge into one of the same capacity (Agarwal et al., mergeable summaries):
+ * a key missing from a full summary is charged that summary's minimum, which keeps counts
+ * upper bounds and the total error within total / capacity.
+ * Not thread-safe; callers synchronize.
+ */
+public final class SpaceSaving {
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final Counter[] heap;
+    private int size;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+        this.heap = new Counter[capacity];
+    }
+
+    public void add(String key, long count) {
+        if (count <= 0) {
+            return;
+        }
+        total += count;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += count;
+            siftDown(counter.index);
+            return;
+        }
+        if (size < capacity) {
+            counter = new Counter(key, count, 0);
+            counters.put(key, counter);
+            heap[size] = counter;
+            counter.index = size++;
+            siftUp(counter.index);
+            return;
+        }
+        // Evict the smallest counter; its count becomes the newcomer's error
+        Counter min = heap[0];
+        counters.remove(min.key);
+        min.key = key;
+        min.error = min.count;
+        min.count += count;
+        counters.put(key, min);
+        siftDown(0);
+    }
+
+    /**
+     * Upper bound on the key's count if it is tracked, otherwise -1
+     */
+    public long estimate(String key) {
+        Counter counter = counters.get(key);
+        return counter == null ? -1 : counter.count;
+    }
+
+    /**
+     * Count every untracked key is at most (0 until all counters are taken)
+     */
+    public long minCount() {
+        return size < capacity ? 0 : heap[0].count;
+    }
+
+    /**
+     * Tracked keys by descending count
+     */
+    public List<HeavyHitter> top(int limit) {
+        Counter[] sorted = Arrays.copyOf(heap, size);
+        Arrays.sort(sorted, Comparator.comparingLong((Counter c) -> c.count).reversed());
+        List<HeavyHitter> result = new ArrayList<>(Math.min(limit, size));
+        for (int i = 0; i < Math.min(limit, size); i++) {
+            result.add(new HeavyHitter(sorted[i].key, sorted[i].count, sorted[i].error));
+        }
+        return result;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Combine another summary into this one, keeping the capacity largest counts
+     */
+    public void merge(SpaceSaving other) {
+        long ownMin = minCount();
+        long otherMin = other.minCount();
+        Map<String, Counter> combined = new HashMap<>((size + other.size) * 2);
+        for (int i = 0; i < size; i++) {
+            Counter own = heap[i];
+            Counter theirs = other.counters.get(own.key);
+            combined.put(own.key, theirs == null
+                    ? new Counter(own.key, own.count + otherMin, own.error + otherMin)
+                    : new Counter(own.key, own.count + theirs.count, own.error + theirs.error));
+        }
+        for (int i = 0; i < other.size; i++) {
+            Counter theirs = other.heap[i];
+            if (!combined.containsKey(theirs.key)) {
+                combined.put(theirs.key, new Counter(theirs.key, theirs.count + ownMin, theirs.error + ownMin));
+            }
+        }
+
+        Counter[] sorted = combined.values().toArray(new Counter[0]);
+        Arrays.sort(sorted, Comparator.comparingLong((Counter c) -> c.count).reversed());
+        long mergedTotal = total + other.total;
+        clear();
+        for (int i = 0; i < Math.min(capacity, sorted.length); i++) {
+            Counter counter = sorted[i];
+            counters.put(counter.key, counter);
+            heap[size] = counter;
+            counter.index = size++;
+            siftUp(counter.index);
+        }
+        total = mergedTotal;
+    }
+
+    /**
+     * Multiply all counts and errors by factor (decay)
+     */
+    public void scale(double factor) {
+        for (int i = 0; i < size; i++) {
+            heap[i].count = (long) (heap[i].count * factor);
+            heap[i].error = (long) (heap[i].error * factor);
+        }
+        // Flooring can reorder equal-ish counts; rebuild the heap bottom-up
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        total = (long) (total * factor);
+    }
+
+    /**
+     * Format: version byte, capacity, total, size, then per counter
+     * key length, UTF-8 key, count and error
+     */
+    public byte[] serialize() {
+        byte[][] keys = new byte[size][];
+        ByteBuffer buffer = ByteBuffer.allocate(serializedSize(keys));
+        writeTo(buffer, keys);
+        return buffer.array();
+    }
+
+    int serializedSize(byte[][] keys) {
+        int bytes = 1 + Integer.BYTES * 2 + Long.BYTES;
+        for (int i = 0; i < size; i++) {
+            keys[i] = heap[i].key.getBytes(StandardCharsets.UTF_8);
+            bytes += Integer.BYTES + keys[i].length + Long.BYTES * 2;
+        }
+        return bytes;
+    }
+
+    void writeTo(ByteBuffer buffer, byte[][] keys) {
+        buffer.put(FORMAT_VERSION);
+        buffer.putInt(capacity);
+        buffer.putLong(total);
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(keys[i].length);
+            buffer.put(keys[i]);
+            buffer.putLong(heap[i].count);
+            buffer.putLong(heap[i].error);
+        }
+    }
+
+    /**
+     * Decode serialize() output; null for an unknown format version
+     */
+    public static SpaceSaving deserialize(byte[] data) {
+        return readFrom(ByteBuffer.wrap(data));
+    }
+
+    static SpaceSaving readFrom(ByteBuffer buffer) {
+        if (buffer.get() != FORMAT_VERSION) {
+            return null;
+        }
+        SpaceSaving summary = new SpaceSaving(buffer.getInt());
+        long total = buffer.getLong();
+        int size = buffer.getInt();
+        for (int i = 0; i < size; i++) {
+            byte[] key = new byte[buffer.getInt()];
+            buffer.get(key);
+            Counter counter = new Counter(new String(key, StandardCharsets.UTF_8), buffer.getLong(), buffer.getLong());
+            summary.counters.put(counter.key, counter);
+            summary.heap[summary.size] = counter;
+            counter.index = summary.size++;
+            summary.siftUp(counter.index);
+        }
+        summary.total = total;
+        return summary;
+    }
+
+    private void clear() {
+        counters.clear();
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        total = 0;
+    }
+
+    private void siftUp(int index) {
+        Counter counter = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].count <= counter.count) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(counter, index);
+    }
+
+    private void siftDown(int index) {
+        Counter counter = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].count < heap[child].count) {
+                child = right;
+            }
+            if (counter.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(counter, index);
+    }
+
+    private void place(Counter counter, int index) {
+        heap[index] = counter;
+        counter.index = index;
+    }
+
+    private static final class Counter {
+        private String key;
+        private long count;
+        private long error;
+        private int index;
+
+        private Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
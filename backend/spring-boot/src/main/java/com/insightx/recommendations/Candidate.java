@@ -0,0 +1,84 @@
+package com.insightx.recommendations;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.dto.RecommendationDTO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A media item moving through the recommendation pipeline.
+ * Immutable, so a stage that overruns its budget cannot change what later stages see.
+ * title, posterUrl and genres are null until a source or stage knows them.
+ */
+public record Candidate(MediaKey mediaKey,
+                        String title,
+                        String posterUrl,
+                        List<String> genres,
+                        double score,
+                        List<String> signals) {
+
+    public static Candidate of(RecommendationDTO recommendation, String signal) {
+        List<String> signals = new ArrayList<>();
+        signals.add(signal);
+        if (recommendation.getSignals() != null) {
+            signals.addAll(recommendation.getSignals());
+        }
+        return new Candidate(new MediaKey(recommendation.getMediaType(), recommendation.getMediaId()),
+                recommendation.getTitle(), recommendation.getPosterUrl(), recommendation.getGenres(), 0, signals);
+    }
+
+    public static Candidate of(MediaMetadataDTO metadata, String signal) {
+        return new Candidate(new MediaKey(metadata.getMediaType(), metadata.getMediaId()),
+                metadata.getTitle(), metadata.getPosterUrl(), metadata.getGenres(), 0, List.of(signal));
+    }
+
+    public static Candidate of(MediaKey mediaKey, String signal) {
+        return new Candidate(mediaKey, null, null, null, 0, List.of(signal));
+    }
+
+    public Candidate withScore(double score) {
+        return new Candidate(mediaKey, title, posterUrl, genres, score, signals);
+    }
+
+    public Candidate withGenres(List<String> genres) {
+        return new Candidate(mediaKey, title, posterUrl, genres, score, signals);
+    }
+
+    public Candidate withMetadata(MediaMetadataDTO metadata) {
+        return new Candidate(mediaKey,
+                title != null ? title : metadata.getTitle(),
+                posterUrl != null ? posterUrl : metadata.getPosterUrl(),
+                genres != null ? genres : metadata.getGenres(),
+                score, signals);
+    }
+
+    /**
+     * The same item from another source: scores add up, signals and known fields are combined
+     */
+    public Candidate combine(Candidate other) {
+        Set<String> combined = new LinkedHashSet<>(signals);
+        combined.addAll(other.signals);
+        return new Candidate(mediaKey,
+                title != null ? title : other.title,
+                posterUrl != null ? posterUrl : other.posterUrl,
+                genres != null ? genres : other.genres,
+                score + other.score,
+                List.copyOf(combined));
+    }
+
+    public RecommendationDTO toDTO() {
+        return RecommendationDTO.builder()
+                .mediaId(mediaKey.mediaId())
+                .mediaType(mediaKey.mediaType())
+                .title(title)
+                .posterUrl(posterUrl)
+                .genres(genres)
+                .score(score)
+                .signals(signals)
+                .build();
+    }
+}
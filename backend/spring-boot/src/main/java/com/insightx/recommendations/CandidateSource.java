@@ -0,0 +1,26 @@
+package com.insightx.recommendations;
+
+import java.util.List;
+
+/**
+ * Candidate Source - One way of finding media a user might like
+ *
+ * Sources run in parallel, each bounded by its own budget. Candidates are returned best
+ * first; only their rank is used when sources are merged.
+ */
+public interface CandidateSource {
+
+    /**
+     * Name used for budgets, weights, metrics and the candidates' signals
+     */
+    String name();
+
+    List<Candidate> fetch(RecommendationContext context);
+
+    /**
+     * Used when fetch() fails or overruns its budget (e.g. a cached copy); empty by default
+     */
+    default List<Candidate> fallback(RecommendationContext context) {
+        return List.of();
+    }
+}
@@ -0,0 +1,89 @@
+package com.insightx.recommendations;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Picks the final list by maximal marginal relevance: each pick maximizes
+ * lambda * relevance - (1 - lambda) * (similarity to the closest item already picked),
+ * where similarity is genre overlap (Jaccard) plus a same-media-type bonus.
+ * O(limit * candidates): each candidate's closest-pick similarity is updated once per pick.
+ */
+@Component
+@Order(300)
+public class DiversityStage implements RecommendationStage {
+
+    private static final double GENRE_SIMILARITY_WEIGHT = 0.7;
+    private static final double MEDIA_TYPE_SIMILARITY_WEIGHT = 0.3;
+
+    @Autowired
+    private RecommendationPipelineProperties properties;
+
+    @Override
+    public String name() {
+        return "diversity";
+    }
+
+    @Override
+    public List<Candidate> apply(RecommendationContext context, List<Candidate> candidates) {
+        int n = candidates.size();
+        int picks = Math.min(context.limit(), n);
+        double maxScore = candidates.stream().mapToDouble(Candidate::score).max().orElse(0);
+        double lambda = properties.getDiversityLambda();
+
+        List<Set<String>> genres = new ArrayList<>(n);
+        for (Candidate candidate : candidates) {
+            genres.add(candidate.genres() == null ? Set.of() : new HashSet<>(candidate.genres()));
+        }
+        double[] closest = new double[n];
+        boolean[] picked = new boolean[n];
+
+        List<Candidate> result = new ArrayList<>(picks);
+        for (int p = 0; p < picks; p++) {
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (picked[i]) {
+                    continue;
+                }
+                double relevance = maxScore > 0 ? candidates.get(i).score() / maxScore : 0;
+                double value = lambda * relevance - (1 - lambda) * closest[i];
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = i;
+                }
+            }
+            picked[best] = true;
+            Candidate chosen = candidates.get(best);
+            result.add(chosen);
+            for (int i = 0; i < n; i++) {
+                if (!picked[i]) {
+                    closest[i] = Math.max(closest[i], similarity(chosen, genres.get(best),
+                            candidates.get(i), genres.get(i)));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double similarity(Candidate a, Set<String> aGenres, Candidate b, Set<String> bGenres) {
+        double genreSimilarity = 0;
+        if (!aGenres.isEmpty() && !bGenres.isEmpty()) {
+            int shared = 0;
+            for (String genre : aGenres) {
+                if (bGenres.contains(genre)) {
+                    shared++;
+                }
+            }
+            genreSimilarity = (double) shared / (aGenres.size() + bGenres.size() - shared);
+        }
+        boolean sameType = a.mediaKey().mediaType() == b.mediaKey().mediaType();
+        return GENRE_SIMILARITY_WEIGHT * genreSimilarity + (sameType ? MEDIA_TYPE_SIMILARITY_WEIGHT : 0);
+    }
+}
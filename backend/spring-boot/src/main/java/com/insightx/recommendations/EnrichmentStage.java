@@ -0,0 +1,45 @@
+package com.insightx.recommendations;
+
+import com.insightx.services.FastAPIService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+/**
+ * Fills in title, poster and genres of the final items that came from sources without
+ * metadata (item-item, followed users), looking them up in parallel
+ */
+@Component
+@Order(400)
+public class EnrichmentStage implements RecommendationStage {
+
+    private static final int CONCURRENCY = 8;
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Override
+    public String name() {
+        return "enrich";
+    }
+
+    @Override
+    public List<Candidate> apply(RecommendationContext context, List<Candidate> candidates) {
+        return Flux.fromIterable(candidates.subList(0, Math.min(context.limit(), candidates.size())))
+                .flatMapSequential(candidate -> candidate.title() != null
+                        ? Mono.just(candidate)
+                        : Mono.fromCallable(() -> fastAPIService.getMediaMetadata(candidate.mediaKey().mediaId(),
+                                        candidate.mediaKey().mediaType())
+                                .map(candidate::withMetadata)
+                                .orElse(candidate))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorReturn(candidate), CONCURRENCY)
+                .collectList()
+                .block();
+    }
+}
@@ -0,0 +1,47 @@
+package com.insightx.recommendations;
+
+import com.insightx.media.MediaState;
+import com.insightx.media.UserMediaStateIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Drops items of other media types and, unless disabled, items the user already watched or
+ * rated (one pass over the user's state bitmaps). Runs first so later stages do less work.
+ */
+@Component
+@Order(100)
+public class ExclusionFilterStage implements RecommendationStage {
+
+    private static final Set<MediaState> EXCLUDED_STATES = EnumSet.of(MediaState.WATCHED, MediaState.RATED);
+
+    @Autowired
+    private UserMediaStateIndex userMediaStateIndex;
+
+    @Override
+    public String name() {
+        return "filter";
+    }
+
+    @Override
+    public boolean required() {
+        // Skipping it would recommend items the user already watched or rated
+        return true;
+    }
+
+    @Override
+    public List<Candidate> apply(RecommendationContext context, List<Candidate> candidates) {
+        List<Candidate> ofType = candidates.stream()
+                .filter(candidate -> context.accepts(candidate.mediaKey().mediaType()))
+                .toList();
+        if (!context.excludeWatched()) {
+            return ofType;
+        }
+        return userMediaStateIndex.exclude(context.userId(), ofType, Candidate::mediaKey, EXCLUDED_STATES);
+    }
+}
@@ -0,0 +1,39 @@
+package com.insightx.recommendations;
+
+import com.insightx.services.FastAPIService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * FastAPI's personalized recommendations (falls back to the cached list)
+ */
+@Component
+public class FastApiCandidateSource implements CandidateSource {
+
+    public static final String NAME = "fastapi";
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Candidate> fetch(RecommendationContext context) {
+        return fastAPIService.getRecommendations(context.userId(), context.mediaType(), context.candidateLimit())
+                .stream()
+                .map(recommendation -> Candidate.of(recommendation, NAME))
+                .toList();
+    }
+
+    @Override
+    public List<Candidate> fallback(RecommendationContext context) {
+        return fastAPIService.getCachedRecommendations(context.userId(), context.mediaType(), context.candidateLimit())
+                .map(list -> list.stream().map(recommendation -> Candidate.of(recommendation, NAME)).toList())
+                .orElse(List.of());
+    }
+}
@@ -0,0 +1,49 @@
+package com.insightx.recommendations;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.entities.MediaType;
+import com.insightx.repositories.RatingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Media the people the user follows liked recently, most liked first (one query)
+ */
+@Component
+public class FollowedUsersCandidateSource implements CandidateSource {
+
+    public static final String NAME = "followed";
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private RecommendationPipelineProperties properties;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Candidate> fetch(RecommendationContext context) {
+        LocalDateTime since = LocalDateTime.now().minusDays(properties.getFollowedWindowDays());
+        // Over-fetch when filtering by type in memory
+        int limit = context.mediaType() == null
+                ? context.candidateLimit()
+                : context.candidateLimit() * MediaType.values().length;
+
+        return ratingRepository.findLikedByFollowedUsers(context.userId(), properties.getMinPositiveRating(), since,
+                        PageRequest.of(0, limit))
+                .stream()
+                .map(row -> new MediaKey((MediaType) row[0], (String) row[1]))
+                .filter(key -> context.accepts(key.mediaType()))
+                .limit(context.candidateLimit())
+                .map(key -> Candidate.of(key, NAME))
+                .toList();
+    }
+}
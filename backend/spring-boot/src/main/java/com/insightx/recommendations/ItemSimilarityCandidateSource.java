@@ -0,0 +1,63 @@
+package com.insightx.recommendations;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.entities.Rating;
+import com.insightx.repositories.RatingRepository;
+import com.insightx.similarity.ItemSimilarityIndex;
+import com.insightx.similarity.ItemSimilarityModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Neighbours of the user's recent favourites in the local item-item model (no FastAPI call).
+ * An item similar to several favourites scores the sum of its similarities.
+ */
+@Component
+public class ItemSimilarityCandidateSource implements CandidateSource {
+
+    public static final String NAME = "item-similarity";
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private ItemSimilarityIndex itemSimilarityIndex;
+
+    @Autowired
+    private RecommendationPipelineProperties properties;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Candidate> fetch(RecommendationContext context) {
+        List<Rating> seeds = ratingRepository.findByUserIdAndRatingGreaterThanEqual(context.userId(),
+                properties.getMinPositiveRating(),
+                PageRequest.of(0, properties.getSeedItems(), Sort.by(Sort.Direction.DESC, "updatedAt")));
+
+        Map<MediaKey, Double> scores = new HashMap<>();
+        for (Rating seed : seeds) {
+            MediaKey seedKey = new MediaKey(seed.getMediaType(), seed.getMediaId());
+            for (ItemSimilarityModel.SimilarItem neighbor :
+                    itemSimilarityIndex.findSimilar(seedKey, context.candidateLimit())) {
+                if (context.accepts(neighbor.mediaKey().mediaType())) {
+                    scores.merge(neighbor.mediaKey(), (double) neighbor.score(), Double::sum);
+                }
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<MediaKey, Double>comparingByValue().reversed())
+                .limit(context.candidateLimit())
+                .map(entry -> Candidate.of(entry.getKey(), NAME))
+                .toList();
+    }
+}
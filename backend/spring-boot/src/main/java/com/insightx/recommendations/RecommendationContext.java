@@ -0,0 +1,21 @@
+package com.insightx.recommendations;
+
+import com.insightx.entities.MediaType;
+
+import java.util.UUID;
+
+/**
+ * One pipeline run: who the recommendations are for and how many are needed.
+ * mediaType null = all types; candidateLimit is how many items each source should return.
+ */
+public record RecommendationContext(UUID userId,
+                                    String region,
+                                    MediaType mediaType,
+                                    int limit,
+                                    int candidateLimit,
+                                    boolean excludeWatched) {
+
+    public boolean accepts(MediaType type) {
+        return mediaType == null || mediaType == type;
+    }
+}
@@ -0,0 +1,64 @@
+package com.insightx.recommendations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed recommendation list settings (insightx.recommendation-materialization.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "insightx.recommendation-materialization")
+public class RecommendationMaterializationProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Items kept per list
+     */
+    private int size = 100;
+
+    /**
+     * Lists built per user: "all" and/or media type values
+     */
+    private List<String> mediaTypes = new ArrayList<>(List.of("all", "movie", "book", "game"));
+
+    /**
+     * Lists not rebuilt for this long expire from Redis
+     */
+    private long ttlSeconds = 86400;
+
+    /**
+     * Lists older than this are rebuilt for users active within activeWindowDays
+     */
+    private long refreshAgeMs = 21600000;
+    private int activeWindowDays = 7;
+
+    private long intervalMs = 60000;
+
+    /**
+     * Users (re)built per run, and how many at once
+     */
+    private int batchSize = 200;
+    private int workers = 4;
+
+    /**
+     * A new rating at or below this demotes the rated item's neighbours in the user's lists
+     */
+    private int dislikeRating = 4;
+    private int demoteNeighbors = 20;
+
+    /**
+     * A neighbour with similarity s keeps (1 - demotePenalty * s) of its score
+     */
+    private double demotePenalty = 0.5;
+
+    /**
+     * Rating changes after which the user's lists are rebuilt (their taste vector has moved)
+     */
+    private int rebuildAfterChanges = 10;
+}
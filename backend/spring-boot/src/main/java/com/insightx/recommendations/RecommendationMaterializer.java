@@ -0,0 +1,503 @@
+package com.insightx.recommendations;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.RecommendationDTO;
+import com.insightx.entities.MediaType;
+import com.insightx.entities.User;
+import com.insightx.events.MediaStateChangedEvent;
+import com.insightx.events.RatingChangedEvent;
+import com.insightx.jobs.JobCoordinator;
+import com.insightx.media.MediaState;
+import com.insightx.media.UserMediaStateIndex;
+import com.insightx.repositories.UserRepository;
+import com.insightx.services.FastAPIService;
+import com.insightx.similarity.ItemSimilarityIndex;
+import com.insightx.similarity.ItemSimilarityModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recommendation Materializer - Precomputed recommendation lists per user and media type
+ *
+ * A background job runs the RecommendationPipeline for active users and stores each list in
+ * Redis as a sorted set (member "type:mediaId", score) plus a hash of item details. A read is
+ * one script call that returns the top of the range with details, without any upstream call.
+ *
+ * Lists are not thrown away on every change:
+ * - a newly rated or watched item is removed from the user's lists
+ * - a new low rating demotes the rated item's item-item neighbours
+ * - after rebuildAfterChanges rating changes (the taste vector has moved) the user is queued
+ *   for a rebuild; lists are also rebuilt once older than refreshAgeMs
+ *
+ * A rebuild computed before a change may overwrite the removal; reads also drop watched and
+ * rated items through the state bitmaps, so only a demotion can be lost until the next rebuild.
+ *
+ * Keys share the {userId} hash tag, so the scripts stay on one Redis Cluster slot.
+ */
+@Component
+public class RecommendationMaterializer {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationMaterializer.class);
+    private static final String JOB_NAME = "recommendation-materialization";
+    private static final String METRIC_PREFIX = "recommendations.materialized";
+    private static final String ALL_TYPES = "all";
+    private static final String ACTIVE_KEY = "recs:active";
+    private static final String BUILT_KEY = "recs:built";
+    private static final String STALE_KEY = "recs:stale";
+    private static final Set<MediaState> EXCLUDED_STATES = EnumSet.of(MediaState.WATCHED, MediaState.RATED);
+
+    // Returns [member, score, details, ...] for the top ARGV[1] items
+    private static final RedisScript<List<String>> READ_SCRIPT = listScript(
+            "local items = redis.call('zrevrange', KEYS[1], 0, tonumber(ARGV[1]) - 1, 'WITHSCORES') " +
+            "if #items == 0 then return {} end " +
+            "local members = {} " +
+            "for i = 1, #items, 2 do members[#members + 1] = items[i] end " +
+            "local details = redis.call('hmget', KEYS[2], unpack(members)) " +
+            "local result = {} " +
+            "for i = 1, #members do " +
+            "  result[#result + 1] = members[i] " +
+            "  result[#result + 1] = items[2 * i] " +
+            "  result[#result + 1] = details[i] or '' " +
+            "end " +
+            "return result");
+
+    // ARGV[1] = ttl seconds, then (member, score, details) triples
+    private static final RedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('del', KEYS[1], KEYS[2]) " +
+            "for i = 2, #ARGV, 3 do " +
+            "  redis.call('zadd', KEYS[1], ARGV[i + 1], ARGV[i]) " +
+            "  redis.call('hset', KEYS[2], ARGV[i], ARGV[i + 2]) " +
+            "end " +
+            "if #ARGV > 1 then " +
+            "  redis.call('expire', KEYS[1], ARGV[1]) " +
+            "  redis.call('expire', KEYS[2], ARGV[1]) " +
+            "end " +
+            "return (#ARGV - 1) / 3", Long.class);
+
+    // KEYS = (zset, hash) pairs, ARGV[1] = member
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>(
+            "local removed = 0 " +
+            "for i = 1, #KEYS, 2 do " +
+            "  removed = removed + redis.call('zrem', KEYS[i], ARGV[1]) " +
+            "  redis.call('hdel', KEYS[i + 1], ARGV[1]) " +
+            "end " +
+            "return removed", Long.class);
+
+    // KEYS = zsets, ARGV = (member, factor) pairs; only members already in a list are touched
+    private static final RedisScript<Long> DEMOTE_SCRIPT = new DefaultRedisScript<>(
+            "local demoted = 0 " +
+            "for i = 1, #KEYS do " +
+            "  for j = 1, #ARGV, 2 do " +
+            "    local score = redis.call('zscore', KEYS[i], ARGV[j]) " +
+            "    if score then " +
+            "      redis.call('zadd', KEYS[i], 'XX', tonumber(score) * tonumber(ARGV[j + 1]), ARGV[j]) " +
+            "      demoted = demoted + 1 " +
+            "    end " +
+            "  end " +
+            "end " +
+            "return demoted", Long.class);
+
+    // Dequeue a stale user only if it was not re-queued while being rebuilt
+    private static final RedisScript<Long> DEQUEUE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('zscore', KEYS[1], ARGV[1]) == ARGV[2] then " +
+            "  return redis.call('zrem', KEYS[1], ARGV[1]) " +
+            "end " +
+            "return 0", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RecommendationPipeline recommendationPipeline;
+
+    @Autowired
+    private RecommendationMaterializationProperties properties;
+
+    @Autowired
+    private UserMediaStateIndex userMediaStateIndex;
+
+    @Autowired
+    private ItemSimilarityIndex itemSimilarityIndex;
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Recommendations from the precomputed list; on a miss the pipeline runs live and the user
+     * is queued for the background job
+     */
+    public List<RecommendationDTO> getRecommendations(User user, MediaType mediaType, int limit) {
+        UUID userId = user.getId();
+        touch(userId);
+        Optional<List<RecommendationDTO>> cached = read(userId, mediaType, limit);
+        if (cached.isPresent()) {
+            meterRegistry.counter(METRIC_PREFIX + ".reads", "result", "hit").increment();
+            return cached.get();
+        }
+
+        meterRegistry.counter(METRIC_PREFIX + ".reads", "result", "miss").increment();
+        requestBuild(userId);
+        return recommendationPipeline.recommend(user, mediaType, limit, true);
+    }
+
+    /**
+     * Top of a precomputed list, without watched or rated items; empty when there is no list
+     */
+    public Optional<List<RecommendationDTO>> read(UUID userId, MediaType mediaType, int limit) {
+        String typeKey = typeKey(mediaType);
+        if (!properties.isEnabled() || !properties.getMediaTypes().contains(typeKey)) {
+            return Optional.empty();
+        }
+
+        List<String> rows;
+        try {
+            // Read past the limit so items dropped by the state filter can be replaced
+            int count = Math.min(limit * 2, properties.getSize());
+            rows = stringRedisTemplate.execute(READ_SCRIPT,
+                    List.of(listKey(userId, typeKey), itemsKey(userId, typeKey)), String.valueOf(count));
+        } catch (Exception e) {
+            log.error("Error reading recommendations of user {}: {}", userId, e.getMessage());
+            return Optional.empty();
+        }
+        if (rows == null || rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<RecommendationDTO> items = new ArrayList<>(rows.size() / 3);
+        for (int i = 0; i + 2 < rows.size(); i += 3) {
+            RecommendationDTO item = decode(rows.get(i), Double.parseDouble(rows.get(i + 1)), rows.get(i + 2));
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        List<RecommendationDTO> kept = userMediaStateIndex.exclude(userId, items,
+                item -> new MediaKey(item.getMediaType(), item.getMediaId()), EXCLUDED_STATES);
+        return Optional.of(kept.size() > limit ? kept.subList(0, limit) : kept);
+    }
+
+    /**
+     * Queue a user for the next background run (no-op when their lists were built already)
+     */
+    public void requestBuild(UUID userId) {
+        try {
+            if (stringRedisTemplate.opsForZSet().score(BUILT_KEY, userId.toString()) == null) {
+                markStale(userId);
+            }
+        } catch (Exception e) {
+            log.error("Error queueing recommendations of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${insightx.recommendation-materialization.interval-ms:60000}",
+               initialDelayString = "${insightx.recommendation-materialization.initial-delay-ms:60000}")
+    public void materialize() {
+        if (properties.isEnabled()) {
+            jobCoordinator.runPeriodic(JOB_NAME, Duration.ofMillis(properties.getIntervalMs()), this::materializeBatch);
+        }
+    }
+
+    /**
+     * Rebuild queued users first, then lists past refreshAgeMs of users who are still active
+     */
+    private void materializeBatch() {
+        ZSetOperations<String, String> zset = stringRedisTemplate.opsForZSet();
+        long now = System.currentTimeMillis();
+        zset.removeRangeByScore(ACTIVE_KEY, 0, now - TimeUnit.DAYS.toMillis(properties.getActiveWindowDays()));
+
+        Map<String, String> stale = new LinkedHashMap<>();
+        Set<ZSetOperations.TypedTuple<String>> queued = zset.rangeWithScores(STALE_KEY, 0, properties.getBatchSize() - 1);
+        if (queued != null) {
+            for (ZSetOperations.TypedTuple<String> entry : queued) {
+                stale.put(entry.getValue(), formatScore(entry.getScore()));
+            }
+        }
+
+        List<String> users = new ArrayList<>(stale.keySet());
+        int refreshSlots = properties.getBatchSize() - users.size();
+        if (refreshSlots > 0) {
+            Set<String> old = zset.rangeByScore(BUILT_KEY, 0, now - properties.getRefreshAgeMs(), 0, refreshSlots);
+            if (old != null) {
+                for (String user : old) {
+                    if (stale.containsKey(user)) {
+                        continue;
+                    }
+                    if (zset.score(ACTIVE_KEY, user) == null) {
+                        // Inactive: stop refreshing and let the lists expire
+                        zset.remove(BUILT_KEY, user);
+                    } else {
+                        users.add(user);
+                    }
+                }
+            }
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+
+        Flux.fromIterable(users)
+                .flatMap(user -> Mono.fromRunnable(() -> {
+                            build(UUID.fromString(user));
+                            String queuedAt = stale.get(user);
+                            if (queuedAt != null) {
+                                stringRedisTemplate.execute(DEQUEUE_SCRIPT, List.of(STALE_KEY), user, queuedAt);
+                            }
+                        })
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(e -> {
+                            log.error("Error materializing recommendations of user {}: {}", user, e.getMessage());
+                            return Mono.empty();
+                        }), properties.getWorkers())
+                .blockLast();
+        log.info("Materialized recommendations of {} users ({} queued)", users.size(), stale.size());
+    }
+
+    /**
+     * Run the pipeline for every configured list of a user and replace the stored lists
+     */
+    public void build(UUID userId) {
+        long start = System.nanoTime();
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            stringRedisTemplate.opsForZSet().remove(BUILT_KEY, userId.toString());
+            stringRedisTemplate.opsForZSet().remove(ACTIVE_KEY, userId.toString());
+            return;
+        }
+
+        for (String typeKey : properties.getMediaTypes()) {
+            MediaType mediaType = ALL_TYPES.equals(typeKey) ? null : MediaType.fromValue(typeKey);
+            List<RecommendationDTO> items =
+                    recommendationPipeline.recommend(user, mediaType, properties.getSize(), true);
+            write(userId, typeKey, items);
+        }
+        stringRedisTemplate.opsForZSet().add(BUILT_KEY, userId.toString(), System.currentTimeMillis());
+        meterRegistry.timer(METRIC_PREFIX + ".build").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMediaStateChanged(MediaStateChangedEvent event) {
+        if (properties.isEnabled() && event.state() == MediaState.WATCHED && event.active()) {
+            remove(event.userId(), new MediaKey(event.mediaType(), event.mediaId()));
+        }
+    }
+
+    /**
+     * A new rating removes the item; a new low rating also demotes its neighbours. Deleted
+     * ratings are left to the next rebuild.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        if (!properties.isEnabled() || event.rating() == null) {
+            return;
+        }
+        MediaKey key = new MediaKey(event.mediaType(), event.mediaId());
+        if (event.previousRating() == null) {
+            remove(event.userId(), key);
+        }
+        boolean disliked = event.rating() <= properties.getDislikeRating();
+        boolean wasDisliked = event.previousRating() != null && event.previousRating() <= properties.getDislikeRating();
+        if (disliked && !wasDisliked) {
+            demoteNeighbours(event.userId(), key);
+        }
+        countChange(event.userId());
+    }
+
+    private void remove(UUID userId, MediaKey key) {
+        List<String> keys = new ArrayList<>(4);
+        for (String typeKey : properties.getMediaTypes()) {
+            if (ALL_TYPES.equals(typeKey) || typeKey.equals(key.mediaType().getValue())) {
+                keys.add(listKey(userId, typeKey));
+                keys.add(itemsKey(userId, typeKey));
+            }
+        }
+        try {
+            Long removed = stringRedisTemplate.execute(REMOVE_SCRIPT, keys, member(key));
+            meterRegistry.counter(METRIC_PREFIX + ".updates", "type", "remove").increment(removed != null ? removed : 0);
+        } catch (Exception e) {
+            log.error("Error removing {} from recommendations of user {}: {}", key, userId, e.getMessage());
+        }
+    }
+
+    private void demoteNeighbours(UUID userId, MediaKey key) {
+        List<ItemSimilarityModel.SimilarItem> neighbours =
+                itemSimilarityIndex.findSimilar(key, properties.getDemoteNeighbors());
+        if (neighbours.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>(neighbours.size() * 2);
+        for (ItemSimilarityModel.SimilarItem neighbour : neighbours) {
+            args.add(member(neighbour.mediaKey()));
+            args.add(String.valueOf(Math.max(0, 1 - properties.getDemotePenalty() * neighbour.score())));
+        }
+        List<String> keys = properties.getMediaTypes().stream().map(typeKey -> listKey(userId, typeKey)).toList();
+        try {
+            Long demoted = stringRedisTemplate.execute(DEMOTE_SCRIPT, keys, args.toArray());
+            meterRegistry.counter(METRIC_PREFIX + ".updates", "type", "demote").increment(demoted != null ? demoted : 0);
+        } catch (Exception e) {
+            log.error("Error demoting neighbours of {} for user {}: {}", key, userId, e.getMessage());
+        }
+    }
+
+    private void countChange(UUID userId) {
+        String key = "recs:{" + userId + "}:changes";
+        try {
+            Long changes = stringRedisTemplate.opsForValue().increment(key);
+            if (changes != null && changes == 1) {
+                stringRedisTemplate.expire(key, Duration.ofSeconds(properties.getTtlSeconds()));
+            }
+            if (changes != null && changes >= properties.getRebuildAfterChanges()) {
+                stringRedisTemplate.delete(key);
+                if (stringRedisTemplate.opsForZSet().score(BUILT_KEY, userId.toString()) != null) {
+                    markStale(userId);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error counting recommendation changes of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void write(UUID userId, String typeKey, List<RecommendationDTO> items) {
+        List<String> args = new ArrayList<>(1 + items.size() * 3);
+        args.add(String.valueOf(properties.getTtlSeconds()));
+        for (RecommendationDTO item : items) {
+            if (item.getTitle() == null) {
+                // The pipeline's enrichment budget is tuned for requests; the background job can wait
+                fastAPIService.getMediaMetadata(item.getMediaId(), item.getMediaType()).ifPresent(metadata -> {
+                    item.setTitle(metadata.getTitle());
+                    item.setPosterUrl(metadata.getPosterUrl());
+                    if (item.getGenres() == null) {
+                        item.setGenres(metadata.getGenres());
+                    }
+                });
+            }
+            String details = encode(item);
+            if (details != null) {
+                args.add(member(new MediaKey(item.getMediaType(), item.getMediaId())));
+                args.add(String.valueOf(item.getScore() != null ? item.getScore() : 0));
+                args.add(details);
+            }
+        }
+        stringRedisTemplate.execute(REPLACE_SCRIPT, List.of(listKey(userId, typeKey), itemsKey(userId, typeKey)),
+                args.toArray());
+    }
+
+    private void touch(UUID userId) {
+        try {
+            stringRedisTemplate.opsForZSet().add(ACTIVE_KEY, userId.toString(), System.currentTimeMillis());
+        } catch (Exception e) {
+            log.error("Error recording recommendation read of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void markStale(UUID userId) {
+        // NX: keep the original queue position if already queued
+        stringRedisTemplate.opsForZSet().addIfAbsent(STALE_KEY, userId.toString(), System.currentTimeMillis());
+    }
+
+    private String encode(RecommendationDTO item) {
+        // The score lives in the sorted set, where demotions change it
+        RecommendationDTO details = RecommendationDTO.builder()
+                .mediaId(item.getMediaId())
+                .mediaType(item.getMediaType())
+                .title(item.getTitle())
+                .posterUrl(item.getPosterUrl())
+                .genres(item.getGenres())
+                .signals(item.getSignals())
+                .build();
+        try {
+            return objectMapper.writeValueAsString(details);
+        } catch (JsonProcessingException e) {
+            log.error("Error encoding recommendation {}: {}", item.getMediaId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private RecommendationDTO decode(String member, double score, String details) {
+        try {
+            RecommendationDTO item;
+            if (details.isEmpty()) {
+                int separator = member.indexOf(':');
+                item = RecommendationDTO.builder()
+                        .mediaType(MediaType.fromValue(member.substring(0, separator)))
+                        .mediaId(member.substring(separator + 1))
+                        .build();
+            } else {
+                item = objectMapper.readValue(details, RecommendationDTO.class);
+            }
+            item.setScore(score);
+            return item;
+        } catch (Exception e) {
+            log.error("Error decoding recommendation {}: {}", member, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String member(MediaKey key) {
+        return key.mediaType().getValue() + ":" + key.mediaId();
+    }
+
+    private static String typeKey(MediaType mediaType) {
+        return mediaType == null ? ALL_TYPES : mediaType.getValue();
+    }
+
+    private static String listKey(UUID userId, String typeKey) {
+        return "recs:{" + userId + "}:" + typeKey;
+    }
+
+    private static String itemsKey(UUID userId, String typeKey) {
+        return "recs:{" + userId + "}:" + typeKey + ":items";
+    }
+
+    /**
+     * Score as Redis prints it (integral millisecond timestamps have no fraction)
+     */
+    private static String formatScore(Double score) {
+        return score == null ? "" : String.valueOf(score.longValue());
+    }
+
+    /**
+     * Script returning a Lua array; with StringRedisTemplate every element is deserialized to a String
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RedisScript<List<String>> listScript(String script) {
+        // Class literals cannot carry type arguments, so the result type is declared once here
+        return (RedisScript) new DefaultRedisScript<>(script, List.class);
+    }
+}
@@ -0,0 +1,153 @@
+package com.insightx.recommendations;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.RecommendationDTO;
+import com.insightx.entities.MediaType;
+import com.insightx.entities.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Recommendation Pipeline - Candidate generation and re-ranking on the Java side
+ *
+ * 1. Every CandidateSource is fetched in parallel, each bounded by its own budget; a source
+ *    that fails or overruns contributes its fallback (or nothing), so a FastAPI outage only
+ *    removes the FastAPI candidates.
+ * 2. The lists are merged by reciprocal rank fusion: an item scores the sum over sources of
+ *    weight / (rrfK + rank), so sources with different score scales combine without tuning.
+ * 3. Each RecommendationStage (filter, taste scoring, diversity, enrichment) runs in order,
+ *    bounded by its own budget; a stage that fails or overruns is skipped. Required stages
+ *    (the exclusion filter) run inline without a budget instead, so they always apply.
+ *
+ * Per step metrics: recommendations.pipeline.step (latency), .candidates (output size) and
+ * .fallbacks (timeouts and errors).
+ */
+@Service
+public class RecommendationPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationPipeline.class);
+    private static final String METRIC_PREFIX = "recommendations.pipeline";
+    private static final String MERGE_STEP = "merge";
+
+    @Autowired
+    private List<CandidateSource> sources;
+
+    @Autowired
+    private List<RecommendationStage> stages;
+
+    @Autowired
+    private RecommendationPipelineProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public List<RecommendationDTO> recommend(User user, MediaType mediaType, int limit, boolean excludeWatched) {
+        int candidateLimit = Math.min(limit * properties.getCandidateMultiplier(),
+                properties.getMaxCandidatesPerSource());
+        RecommendationContext context = new RecommendationContext(user.getId(), user.getRegion(), mediaType,
+                limit, candidateLimit, excludeWatched);
+
+        List<List<Candidate>> fetched = Flux.fromIterable(sources)
+                .flatMap(source -> fetch(source, context))
+                .collectList()
+                .block();
+
+        long start = System.nanoTime();
+        List<Candidate> candidates = merge(fetched);
+        record(MERGE_STEP, start, candidates.size());
+
+        for (RecommendationStage stage : stages) {
+            candidates = run(stage, context, candidates);
+        }
+        return candidates.stream().limit(limit).map(Candidate::toDTO).toList();
+    }
+
+    /**
+     * Fetch one source on a worker thread; the result is scored by its rank for fusion
+     */
+    private Mono<List<Candidate>> fetch(CandidateSource source, RecommendationContext context) {
+        long start = System.nanoTime();
+        double weight = properties.weightOf(source.name());
+        return withBudget(source.name(), () -> source.fetch(context), () -> source.fallback(context))
+                .map(items -> {
+                    List<Candidate> ranked = new ArrayList<>(items.size());
+                    for (int rank = 0; rank < items.size(); rank++) {
+                        ranked.add(items.get(rank).withScore(weight / (properties.getRrfK() + rank + 1)));
+                    }
+                    record(source.name(), start, ranked.size());
+                    return ranked;
+                });
+    }
+
+    private List<Candidate> run(RecommendationStage stage, RecommendationContext context, List<Candidate> input) {
+        long start = System.nanoTime();
+        List<Candidate> output = stage.required()
+                ? stage.apply(context, input)
+                : withBudget(stage.name(), () -> stage.apply(context, input), () -> input).block();
+        record(stage.name(), start, output.size());
+        return output;
+    }
+
+    /**
+     * Run work on a worker thread, bounded by the step's budget.
+     * Never errors: timeouts and failures resolve to the fallback (or an empty list).
+     */
+    private Mono<List<Candidate>> withBudget(String step, Supplier<List<Candidate>> work,
+                                             Supplier<List<Candidate>> fallback) {
+        CompletableFuture<List<Candidate>> future = CompletableFuture.supplyAsync(work,
+                task -> Schedulers.boundedElastic().schedule(task));
+
+        // suppressCancel: an overrunning source still completes and fills its caches for the next request
+        return Mono.fromFuture(future, true)
+                .timeout(Duration.ofMillis(properties.budgetFor(step)))
+                .onErrorResume(e -> {
+                    boolean timedOut = e instanceof TimeoutException;
+                    meterRegistry.counter(METRIC_PREFIX + ".fallbacks",
+                            "step", step, "reason", timedOut ? "timeout" : "error").increment();
+                    if (!timedOut) {
+                        log.error("Recommendation step {} failed: {}", step, e.getMessage());
+                    }
+                    return Mono.fromCallable(fallback::get)
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .onErrorReturn(List.of());
+                });
+    }
+
+    /**
+     * Combine the same item from different sources, best fused score first
+     */
+    static List<Candidate> merge(List<List<Candidate>> fetched) {
+        Map<MediaKey, Candidate> merged = new LinkedHashMap<>();
+        for (List<Candidate> candidates : fetched) {
+            for (Candidate candidate : candidates) {
+                merged.merge(candidate.mediaKey(), candidate, Candidate::combine);
+            }
+        }
+        List<Candidate> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        return result;
+    }
+
+    private void record(String step, long startNanos, int candidates) {
+        meterRegistry.timer(METRIC_PREFIX + ".step", "step", step)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.summary(METRIC_PREFIX + ".candidates", "step", step).record(candidates);
+    }
+}
@@ -0,0 +1,82 @@
+package com.insightx.recommendations;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Recommendation pipeline settings (insightx.recommendation-pipeline.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "insightx.recommendation-pipeline")
+public class RecommendationPipelineProperties {
+
+    /**
+     * When false, GET /recommendations serves FastAPI's list directly
+     */
+    private boolean enabled = true;
+
+    /**
+     * Each source returns up to limit * candidateMultiplier items, capped at maxCandidatesPerSource
+     */
+    private int candidateMultiplier = 5;
+    private int maxCandidatesPerSource = 200;
+
+    /**
+     * Per source / stage time budget by name; others get defaultBudgetMs
+     */
+    private Map<String, Long> budgetsMs = new HashMap<>();
+    private long defaultBudgetMs = 500;
+
+    /**
+     * Per source weight in rank fusion; others weigh 1.0
+     */
+    private Map<String, Double> sourceWeights = new HashMap<>();
+
+    /**
+     * Rank fusion constant: a source's item at rank r adds weight / (rrfK + r)
+     */
+    private int rrfK = 60;
+
+    /**
+     * Share of the final score from taste vector affinity (the rest is the fused source rank)
+     */
+    private double tasteWeight = 0.5;
+
+    /**
+     * MMR trade-off: 1.0 = relevance only, lower values favour variety of genres and media types
+     */
+    private double diversityLambda = 0.7;
+
+    /**
+     * Recent positive ratings used as item-item seeds
+     */
+    private int seedItems = 10;
+
+    /**
+     * Ratings at or above this count as liked (item-item seeds, followed users)
+     */
+    private int minPositiveRating = 7;
+
+    /**
+     * Followed users' ratings from this many days back are considered
+     */
+    private int followedWindowDays = 30;
+
+    /**
+     * Nearest users by taste vector whose liked media become candidates (collaborative filtering)
+     */
+    private int similarUsers = 50;
+
+    public long budgetFor(String name) {
+        return budgetsMs.getOrDefault(name, defaultBudgetMs);
+    }
+
+    public double weightOf(String source) {
+        return sourceWeights.getOrDefault(source, 1.0);
+    }
+}
@@ -0,0 +1,27 @@
+package com.insightx.recommendations;
+
+import java.util.List;
+
+/**
+ * Recommendation Stage - One step applied to the merged candidate list, in @Order order
+ *
+ * A stage must return a new list and leave its input untouched: when it fails or overruns
+ * its budget, the pipeline skips it and continues with the input (unless it is required).
+ */
+public interface RecommendationStage {
+
+    /**
+     * Name used for budgets and metrics
+     */
+    String name();
+
+    /**
+     * Required stages run on the request thread without a budget and are never skipped
+     * (e.g. filters whose output must hold whatever the latency)
+     */
+    default boolean required() {
+        return false;
+    }
+
+    List<Candidate> apply(RecommendationContext context, List<Candidate> candidates);
+}
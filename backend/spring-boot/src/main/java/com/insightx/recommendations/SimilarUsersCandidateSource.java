@@ -0,0 +1,62 @@
+package com.insightx.recommendations;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.entities.MediaType;
+import com.insightx.repositories.RatingRepository;
+import com.insightx.vectors.IvfIndex;
+import com.insightx.vectors.SimilarUserIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Media liked by the users whose taste vectors are nearest to the user's (SimilarUserIndex),
+ * most liked first. Only active with collaborative filtering enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "insightx.features.collaborative-filtering", havingValue = "true")
+public class SimilarUsersCandidateSource implements CandidateSource {
+
+    public static final String NAME = "similar-users";
+
+    @Autowired
+    private SimilarUserIndex similarUserIndex;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private RecommendationPipelineProperties properties;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Candidate> fetch(RecommendationContext context) {
+        List<UUID> neighbors = similarUserIndex.findSimilarUsers(context.userId(), properties.getSimilarUsers())
+                .stream()
+                .map(IvfIndex.Neighbor::userId)
+                .toList();
+        if (neighbors.isEmpty()) {
+            return List.of();
+        }
+        // Over-fetch when filtering by type in memory
+        int limit = context.mediaType() == null
+                ? context.candidateLimit()
+                : context.candidateLimit() * MediaType.values().length;
+
+        return ratingRepository.findLikedByUsers(neighbors, properties.getMinPositiveRating(), PageRequest.of(0, limit))
+                .stream()
+                .map(row -> new MediaKey((MediaType) row[0], (String) row[1]))
+                .filter(key -> context.accepts(key.mediaType()))
+                .limit(context.candidateLimit())
+                .map(key -> Candidate.of(key, NAME))
+                .toList();
+    }
+}
@@ -0,0 +1,76 @@
+package com.insightx.recommendations;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.services.FastAPIService;
+import com.insightx.services.TasteProfileService;
+import com.insightx.vectors.TasteVectorizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Re-scores candidates by how well their genres and media type match the user's taste vector,
+ * blended with the fused source rank. Genres missing from the sources are read from the
+ * metadata caches in one batch, never from FastAPI, so the stage stays within its budget;
+ * uncached candidates are scored on media type alone. Users without a taste vector keep the
+ * fused order.
+ */
+@Component
+@Order(200)
+public class TasteScoringStage implements RecommendationStage {
+
+    @Autowired
+    private TasteProfileService tasteProfileService;
+
+    @Autowired
+    private TasteVectorizer tasteVectorizer;
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private RecommendationPipelineProperties properties;
+
+    @Override
+    public String name() {
+        return "taste-score";
+    }
+
+    @Override
+    public List<Candidate> apply(RecommendationContext context, List<Candidate> candidates) {
+        float[] tasteVector = tasteProfileService.getTasteVector(context.userId()).orElse(null);
+        if (tasteVector == null || candidates.isEmpty()) {
+            return candidates;
+        }
+
+        List<MediaKey> withoutGenres = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (candidate.genres() == null) {
+                withoutGenres.add(candidate.mediaKey());
+            }
+        }
+        Map<MediaKey, MediaMetadataDTO> metadata = fastAPIService.lookupCachedMediaMetadata(withoutGenres);
+
+        double maxFused = candidates.stream().mapToDouble(Candidate::score).max().orElse(0);
+        double weight = properties.getTasteWeight();
+        List<Candidate> scored = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            MediaMetadataDTO cached = candidate.genres() == null ? metadata.get(candidate.mediaKey()) : null;
+            if (cached != null) {
+                candidate = candidate.withGenres(cached.getGenres() != null ? cached.getGenres() : List.of());
+            }
+            double fused = maxFused > 0 ? candidate.score() / maxFused : 0;
+            double affinity = tasteVectorizer.affinity(tasteVector, candidate.mediaKey().mediaType().getValue(),
+                    candidate.genres());
+            scored.add(candidate.withScore((1 - weight) * fused + weight * (affinity + 1) / 2));
+        }
+        scored.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        return scored;
+    }
+}
@@ -0,0 +1,86 @@
+package com.insightx.recommendations;
+
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.entities.MediaType;
+import com.insightx.services.FastAPIService;
+import com.insightx.trending.TrendingEngine;
+import com.insightx.trending.TrendingItem;
+import com.insightx.trending.TrendingProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Trending media in the user's region: first-party trending when there is enough activity,
+ * otherwise FastAPI's list (falling back to the cached one). Without a media type filter the
+ * per-type lists are interleaved.
+ */
+@Component
+public class TrendingCandidateSource implements CandidateSource {
+
+    public static final String NAME = "trending";
+
+    @Autowired
+    private TrendingEngine trendingEngine;
+
+    @Autowired
+    private TrendingProperties trendingProperties;
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Candidate> fetch(RecommendationContext context) {
+        return collect(context, type -> {
+            List<TrendingItem> local = trendingEngine.top(type, context.region(), context.candidateLimit());
+            if (local.size() >= Math.min(context.candidateLimit(), trendingProperties.getMinItems())) {
+                return local.stream().map(item -> Candidate.of(item.mediaKey(), NAME)).toList();
+            }
+            return toCandidates(fastAPIService.getTrending(type, context.region(), context.candidateLimit()));
+        });
+    }
+
+    @Override
+    public List<Candidate> fallback(RecommendationContext context) {
+        return collect(context, type -> toCandidates(fastAPIService.getCachedTrending(type, context.region(),
+                context.candidateLimit()).orElse(List.of())));
+    }
+
+    private List<Candidate> toCandidates(List<MediaMetadataDTO> items) {
+        return items.stream().map(item -> Candidate.of(item, NAME)).toList();
+    }
+
+    private List<Candidate> collect(RecommendationContext context, Function<MediaType, List<Candidate>> fetch) {
+        List<List<Candidate>> lists = new ArrayList<>();
+        for (MediaType type : MediaType.values()) {
+            if (context.accepts(type)) {
+                lists.add(fetch.apply(type));
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>();
+        for (int rank = 0; candidates.size() < context.candidateLimit(); rank++) {
+            boolean any = false;
+            for (List<Candidate> list : lists) {
+                if (rank < list.size()) {
+                    candidates.add(list.get(rank));
+                    any = true;
+                }
+            }
+            if (!any) {
+                break;
+            }
+        }
+        return candidates.size() > context.candidateLimit()
+                ? candidates.subList(0, context.candidateLimit())
+                : candidates;
+    }
+}
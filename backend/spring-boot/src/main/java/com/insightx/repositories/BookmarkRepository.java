@@ -1,5 +1,66 @@
 package com.insightx.repositories;
 
+import com.insightx.entities.Bookmark;
+import com.insightx.entities.MediaType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bookmark Repository - Data access layer for Bookmark entity
+ */
+@Repository
+public interface BookmarkRepository extends JpaRepository<Bookmark, UUID> {
+
+    List<Bookmark> findByUserId(UUID userId);
+
+    List<Bookmark> findByUserIdOrderBySavedAtDesc(UUID userId);
+
+    Page<Bookmark> findByUserIdOrderBySavedAtDesc(UUID userId, Pageable pageable);
+
+    List<Bookmark> findByUserIdAndMediaType(UUID userId, MediaType mediaType);
+
+    Page<Bookmark> findByUserId(UUID userId, Pageable pageable);
+
+    Page<Bookmark> findByUserIdAndMediaType(UUID userId, MediaType mediaType, Pageable pageable);
+
+    Optional<Bookmark> findByUserIdAndMediaIdAndMediaType(UUID userId, String mediaId, MediaType mediaType);
+
+    boolean existsByUserIdAndMediaIdAndMediaType(UUID userId, String mediaId, MediaType mediaType);
+
+    long countByUserId(UUID userId);
+
+    long countByUserIdAndMediaType(UUID userId, MediaType mediaType);
+
+    List<Bookmark> findByUserIdAndSavedAtAfter(UUID userId, LocalDateTime date);
+
+    void deleteByUserIdAndMediaIdAndMediaType(UUID userId, String mediaId, MediaType mediaType);
+
+    @Modifying
+    @Query("DELETE FROM Bookmark b WHERE b.userId = :userId")
+    void deleteAllByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT b.mediaType, COUNT(b) FROM Bookmark b WHERE b.userId = :userId GROUP BY b.mediaType")
+    List<Object[]> getBookmarkCountByMediaType(@Param("userId") UUID userId);
+
+    /**
+     * Most-bookmarked media across all users: rows of [mediaType, mediaId, count]
+     */
+    @Query("SELECT b.mediaType, b.mediaId, COUNT(b) FROM Bookmark b " +
+           "GROUP BY b.mediaType, b.mediaId ORDER BY COUNT(b) DESC")
+    List<Object[]> findMostBookmarkedMedia(Pageable pageable);
+}
+
+
 // BookmarkRepository - Data access for user bookmarks
 // Extends JpaRepository for CRUD operations
 //
@@ -55,4 +116,4 @@ package com.insightx.repositories;
 // UI Integration:
 // - Quick lookup for showing bookmark icon state
 // - Efficient pagination for long bookmark lists
-// - Filter by media type for segmented views
\ No newline at end of file
+// - Filter by media type for segmented views
@@ -0,0 +1,61 @@
+package com.insightx.repositories;
+
+import com.insightx.entities.MediaGenre;
+import com.insightx.entities.MediaType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Media Genre Repository - Data access layer for genres of rated media
+ */
+@Repository
+public interface MediaGenreRepository extends JpaRepository<MediaGenre, MediaGenre.Key> {
+
+    /**
+     * Best rated items of a genre (range scan of idx_media_genres_top)
+     */
+    @Query("SELECT g FROM MediaGenre g WHERE g.genre = :genre AND g.ratingCount > 0 " +
+           "ORDER BY g.bayesianAverage DESC")
+    List<MediaGenre> findTopByGenre(@Param("genre") String genre, Pageable pageable);
+
+    /**
+     * Best rated items of a genre and media type (range scan of idx_media_genres_type_top)
+     */
+    @Query("SELECT g FROM MediaGenre g WHERE g.genre = :genre AND g.mediaType = :mediaType AND g.ratingCount > 0 " +
+           "ORDER BY g.bayesianAverage DESC")
+    List<MediaGenre> findTopByGenreAndMediaType(@Param("genre") String genre, @Param("mediaType") MediaType mediaType,
+                                                Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM MediaGenre g WHERE g.mediaType = :mediaType AND g.mediaId = :mediaId")
+    int deleteByMedia(@Param("mediaType") MediaType mediaType, @Param("mediaId") String mediaId);
+
+    /**
+     * Add a genre to an item, copying the average and count from its current statistics
+     */
+    @Modifying
+    @Query(value = "INSERT INTO media_genres (media_type, media_id, genre, bayesian_average, rating_count) " +
+                   "SELECT media_type, media_id, :genre, bayesian_average, rating_count FROM media_rating_stats " +
+                   "WHERE media_type = :mediaType AND media_id = :mediaId " +
+                   "ON CONFLICT (media_type, media_id, genre) DO NOTHING",
+           nativeQuery = true)
+    int insertFromStats(@Param("mediaType") String mediaType, @Param("mediaId") String mediaId,
+                        @Param("genre") String genre);
+
+    /**
+     * Re-copy averages and counts from media_rating_stats where they drifted
+     * (a rating change racing a genre load, or a new prior)
+     */
+    @Modifying
+    @Query(value = "UPDATE media_genres g SET bayesian_average = s.bayesian_average, rating_count = s.rating_count " +
+                   "FROM media_rating_stats s WHERE g.media_type = s.media_type AND g.media_id = s.media_id " +
+                   "AND (g.bayesian_average <> s.bayesian_average OR g.rating_count <> s.rating_count)",
+           nativeQuery = true)
+    int syncFromStats();
+}
@@ -0,0 +1,39 @@
+package com.insightx.repositories;
+
+import com.insightx.entities.MediaKeyEntry;
+import com.insightx.entities.MediaType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Media Key Entry Repository - Data access layer for the media key dictionary
+ */
+@Repository
+public interface MediaKeyEntryRepository extends JpaRepository<MediaKeyEntry, Integer> {
+
+    /**
+     * Entries added after the given id, in id order (loading and catching up with other nodes)
+     */
+    List<MediaKeyEntry> findByIdGreaterThanOrderByIdAsc(Integer afterId, Pageable pageable);
+
+    Optional<MediaKeyEntry> findByMediaTypeAndMediaId(MediaType mediaType, String mediaId);
+
+    /**
+     * Add a media item unless it exists. The NOT EXISTS check keeps the sequence from advancing
+     * for items that are already present, so ids only get gaps when two nodes race.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO media_keys (media_type, media_id) " +
+                   "SELECT :mediaType, :mediaId WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM media_keys WHERE media_type = :mediaType AND media_id = :mediaId) " +
+                   "ON CONFLICT (media_type, media_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("mediaType") String mediaType, @Param("mediaId") String mediaId);
+}
@@ -0,0 +1,87 @@
+package com.insightx.repositories;
+
+import com.insightx.entities.MediaRatingStats;
+import com.insightx.entities.MediaType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Media Rating Stats Repository - Data access layer for pre-aggregated rating statistics
+ */
+@Repository
+public interface MediaRatingStatsRepository extends JpaRepository<MediaRatingStats, MediaRatingStats.Key> {
+
+    /**
+     * Add a rating change to an item's statistics (creating the row on its first rating) and copy
+     * the new average to the item's genre rows, in one statement. ON CONFLICT takes the row lock,
+     * so concurrent changes to the same item add up instead of overwriting each other.
+     *
+     * @return genre rows updated
+     */
+    @Modifying
+    @Query(value = "WITH stats AS (" +
+                   "INSERT INTO media_rating_stats AS s (media_type, media_id, rating_count, rating_sum, " +
+                   "rating_sum_squares, bayesian_average, updated_at) " +
+                   "VALUES (:mediaType, :mediaId, :countDelta, :sumDelta, :squaresDelta, " +
+                   "(:priorWeight * :priorMean + :sumDelta) / (:priorWeight + :countDelta), CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (media_type, media_id) DO UPDATE SET " +
+                   "rating_count = s.rating_count + EXCLUDED.rating_count, " +
+                   "rating_sum = s.rating_sum + EXCLUDED.rating_sum, " +
+                   "rating_sum_squares = s.rating_sum_squares + EXCLUDED.rating_sum_squares, " +
+                   "bayesian_average = (:priorWeight * :priorMean + s.rating_sum + EXCLUDED.rating_sum) " +
+                   "/ (:priorWeight + s.rating_count + EXCLUDED.rating_count), " +
+                   "updated_at = CURRENT_TIMESTAMP " +
+                   "RETURNING media_type, media_id, rating_count, bayesian_average) " +
+                   "UPDATE media_genres g SET bayesian_average = stats.bayesian_average, rating_count = stats.rating_count " +
+                   "FROM stats WHERE g.media_type = stats.media_type AND g.media_id = stats.media_id",
+           nativeQuery = true)
+    int applyDelta(@Param("mediaType") String mediaType, @Param("mediaId") String mediaId,
+                   @Param("countDelta") long countDelta, @Param("sumDelta") long sumDelta,
+                   @Param("squaresDelta") long squaresDelta,
+                   @Param("priorMean") double priorMean, @Param("priorWeight") double priorWeight);
+
+    /**
+     * Most-rated media from the pre-aggregated counts: rows of [mediaType, mediaId, count]
+     */
+    @Query("SELECT s.mediaType, s.mediaId, s.ratingCount FROM MediaRatingStats s " +
+           "WHERE s.ratingCount > 0 ORDER BY s.ratingCount DESC")
+    List<Object[]> findMostRated(Pageable pageable);
+
+    /**
+     * Rated items whose genres have not been loaded yet and that were not attempted since
+     * retryBefore: never attempted first, then oldest attempt, then oldest change
+     */
+    @Query("SELECT s FROM MediaRatingStats s WHERE s.genresLoadedAt IS NULL " +
+           "AND (s.genresAttemptedAt IS NULL OR s.genresAttemptedAt < :retryBefore) " +
+           "ORDER BY s.genresAttemptedAt ASC NULLS FIRST, s.updatedAt ASC")
+    List<MediaRatingStats> findGenresPending(@Param("retryBefore") LocalDateTime retryBefore, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE MediaRatingStats s SET s.genresAttemptedAt = :attemptedAt " +
+           "WHERE s.mediaType = :mediaType AND s.mediaId = :mediaId")
+    int markGenresAttempted(@Param("mediaType") MediaType mediaType, @Param("mediaId") String mediaId,
+                            @Param("attemptedAt") LocalDateTime attemptedAt);
+
+    @Modifying
+    @Query("UPDATE MediaRatingStats s SET s.genresLoadedAt = :loadedAt " +
+           "WHERE s.mediaType = :mediaType AND s.mediaId = :mediaId")
+    int markGenresLoaded(@Param("mediaType") MediaType mediaType, @Param("mediaId") String mediaId,
+                         @Param("loadedAt") LocalDateTime loadedAt);
+
+    /**
+     * Recompute averages with the current prior; only rows whose average changes are written
+     */
+    @Modifying
+    @Query(value = "UPDATE media_rating_stats SET bayesian_average = " +
+                   "(:priorWeight * :priorMean + rating_sum) / (:priorWeight + rating_count) " +
+                   "WHERE bayesian_average <> (:priorWeight * :priorMean + rating_sum) / (:priorWeight + rating_count)",
+           nativeQuery = true)
+    int reapplyPrior(@Param("priorMean") double priorMean, @Param("priorWeight") double priorWeight);
+}
@@ -1,5 +1,138 @@
 package com.insightx.repositories;
 
+import com.insightx.entities.MediaType;
+import com.insightx.entities.Rating;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Rating Repository - Data access layer for Rating entity
+ */
+@Repository
+public interface RatingRepository extends JpaRepository<Rating, UUID> {
+
+    List<Rating> findByUserId(UUID userId);
+
+    Page<Rating> findByUserId(UUID userId, Pageable pageable);
+
+    List<Rating> findByUserIdAndMediaType(UUID userId, MediaType mediaType);
+
+    Page<Rating> findByUserIdAndMediaType(UUID userId, MediaType mediaType, Pageable pageable);
+
+    Optional<Rating> findByUserIdAndMediaIdAndMediaType(UUID userId, String mediaId, MediaType mediaType);
+
+    /**
+     * Load a rating and lock its row until the transaction ends (serializes changes of one rating,
+     * so each change's delta is computed from the value it replaces)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rating r WHERE r.userId = :userId AND r.mediaId = :mediaId AND r.mediaType = :mediaType")
+    Optional<Rating> findForUpdate(@Param("userId") UUID userId,
+                                   @Param("mediaId") String mediaId,
+                                   @Param("mediaType") MediaType mediaType);
+
+    List<Rating> findByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    List<Rating> findByUserIdAndRatingGreaterThanEqual(UUID userId, int minRating);
+
+    List<Rating> findByUserIdAndRatingGreaterThanEqual(UUID userId, int minRating, Pageable pageable);
+
+    List<Rating> findByUserIdAndCreatedAtAfter(UUID userId, LocalDateTime date);
+
+    long countByUserId(UUID userId);
+
+    List<Rating> findTop10ByUserIdOrderByRatingDesc(UUID userId);
+
+    void deleteByUserIdAndMediaIdAndMediaType(UUID userId, String mediaId, MediaType mediaType);
+
+    /**
+     * The subset of the given users that have at least one rating
+     */
+    @Query("SELECT DISTINCT r.userId FROM Rating r WHERE r.userId IN :userIds")
+    List<UUID> findUserIdsWithRatings(@Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Media the given users rated at least minRating: rows of [userId, mediaType, mediaId]
+     */
+    @Query("SELECT r.userId, r.mediaType, r.mediaId FROM Rating r " +
+           "WHERE r.userId IN :userIds AND r.rating >= :minRating")
+    List<Object[]> findRatedMediaByUserIds(@Param("userIds") Collection<UUID> userIds,
+                                           @Param("minRating") int minRating);
+
+    /**
+     * A user's ratings of the given media ids (any type): rows of [mediaType, mediaId, rating]
+     */
+    @Query("SELECT r.mediaType, r.mediaId, r.rating FROM Rating r " +
+           "WHERE r.userId = :userId AND r.mediaId IN :mediaIds")
+    List<Object[]> findRatingValues(@Param("userId") UUID userId,
+                                    @Param("mediaIds") Collection<String> mediaIds);
+
+    /**
+     * Media liked by the users a user follows since a given time, most liked first:
+     * rows of [mediaType, mediaId, likes, averageRating]
+     */
+    @Query("SELECT r.mediaType, r.mediaId, COUNT(r), AVG(r.rating) FROM Rating r " +
+           "WHERE r.userId IN (SELECT f.followingId FROM UserFollow f WHERE f.followerId = :userId) " +
+           "AND r.rating >= :minRating AND r.updatedAt > :since " +
+           "GROUP BY r.mediaType, r.mediaId " +
+           "ORDER BY COUNT(r) DESC, AVG(r.rating) DESC")
+    List<Object[]> findLikedByFollowedUsers(@Param("userId") UUID userId,
+                                            @Param("minRating") int minRating,
+                                            @Param("since") LocalDateTime since,
+                                            Pageable pageable);
+
+    /**
+     * Media liked by any of the given users, most liked first:
+     * rows of [mediaType, mediaId, likes, averageRating]
+     */
+    @Query("SELECT r.mediaType, r.mediaId, COUNT(r), AVG(r.rating) FROM Rating r " +
+           "WHERE r.userId IN :userIds AND r.rating >= :minRating " +
+           "GROUP BY r.mediaType, r.mediaId " +
+           "ORDER BY COUNT(r) DESC, AVG(r.rating) DESC")
+    List<Object[]> findLikedByUsers(@Param("userIds") Collection<UUID> userIds,
+                                    @Param("minRating") int minRating,
+                                    Pageable pageable);
+
+    /**
+     * Users with a rating created or changed after the given time
+     */
+    @Query("SELECT DISTINCT r.userId FROM Rating r WHERE r.updatedAt > :since")
+    List<UUID> findUserIdsRatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * The database clock; rating changes and taste profile rebuilds are ordered by it, not by
+     * the clocks of the nodes that ran them
+     */
+    @Query(value = "SELECT CAST(clock_timestamp() AS timestamp)", nativeQuery = true)
+    LocalDateTime databaseNow();
+
+    @Query("SELECT AVG(r.rating) FROM Rating r WHERE r.userId = :userId")
+    Double getAverageRatingByUserId(@Param("userId") UUID userId);
+
+    @Query("SELECT r.mediaType, COUNT(r) FROM Rating r WHERE r.userId = :userId GROUP BY r.mediaType")
+    List<Object[]> getRatingDistributionByMediaType(@Param("userId") UUID userId);
+
+    /**
+     * Most-rated media across all users: rows of [mediaType, mediaId, count]
+     */
+    @Query("SELECT r.mediaType, r.mediaId, COUNT(r) FROM Rating r " +
+           "GROUP BY r.mediaType, r.mediaId ORDER BY COUNT(r) DESC")
+    List<Object[]> findMostRatedMedia(Pageable pageable);
+}
+
+
 // RatingRepository - Data access for user ratings
 // Extends JpaRepository for CRUD operations
 //
@@ -47,4 +180,4 @@ package com.insightx.repositories;
 // Performance Considerations:
 // - Index on (userId, createdAt) for temporal queries
 // - Index on (userId, rating) for high-rated queries
-// - Consider materialized views for aggregations
\ No newline at end of file
+// - Consider materialized views for aggregations
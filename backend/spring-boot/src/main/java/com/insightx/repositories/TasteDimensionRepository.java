@@ -0,0 +1,34 @@
+package com.insightx.repositories;
+
+import com.insightx.entities.TasteDimension;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Taste Dimension Repository - Data access layer for the taste vector dimension dictionary
+ */
+@Repository
+public interface TasteDimensionRepository extends JpaRepository<TasteDimension, Integer> {
+
+    /**
+     * Serialize dimension inserts until the end of the transaction (readers are not blocked)
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE taste_dimensions IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForInsert();
+
+    /**
+     * Add a dimension at the next free index unless it exists; call after lockForInsert so
+     * concurrent nodes cannot pick the same index
+     */
+    @Modifying
+    @Query(value = "INSERT INTO taste_dimensions (kind, name, idx) " +
+                   "SELECT :kind, :name, COALESCE(MAX(idx) + 1, 0) FROM taste_dimensions " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM taste_dimensions WHERE kind = :kind AND name = :name) " +
+                   "ON CONFLICT (kind, name) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("kind") String kind, @Param("name") String name);
+}
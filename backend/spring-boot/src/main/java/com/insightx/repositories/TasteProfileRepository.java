@@ -1,5 +1,96 @@
 package com.insightx.repositories;
 
+import com.insightx.entities.TasteProfile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Taste Profile Repository - Data access layer for TasteProfile entity
+ */
+@Repository
+public interface TasteProfileRepository extends JpaRepository<TasteProfile, UUID> {
+
+    Optional<TasteProfile> findByUserId(UUID userId);
+
+    boolean existsByUserId(UUID userId);
+
+    List<TasteProfile> findByLastCalculatedBefore(LocalDateTime date);
+
+    void deleteByUserId(UUID userId);
+
+    /**
+     * Load a profile and lock its row until the transaction ends (serializes profile updates per user)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT tp FROM TasteProfile tp WHERE tp.userId = :userId")
+    Optional<TasteProfile> findByUserIdForUpdate(@Param("userId") UUID userId);
+
+    /**
+     * Next page of stale profiles in a user id range, after the (lastCalculated, userId) cursor,
+     * oldest first. Rows: [user_id, last_calculated]; served by idx_taste_profile_calculated_user.
+     */
+    @Query(value = "SELECT user_id, last_calculated FROM taste_profiles " +
+                   "WHERE last_calculated < :cutoff " +
+                   "AND (last_calculated, user_id) > (:afterCalculated, :afterUserId) " +
+                   "AND user_id BETWEEN :lowerUserId AND :upperUserId " +
+                   "ORDER BY last_calculated, user_id LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findStaleAfter(@Param("cutoff") LocalDateTime cutoff,
+                                  @Param("afterCalculated") LocalDateTime afterCalculated,
+                                  @Param("afterUserId") UUID afterUserId,
+                                  @Param("lowerUserId") UUID lowerUserId,
+                                  @Param("upperUserId") UUID upperUserId,
+                                  @Param("limit") int limit);
+
+    /**
+     * Taste vectors in user id order, after the given user. Rows: [user_id, taste_vector]
+     */
+    @Query(value = "SELECT user_id, taste_vector FROM taste_profiles " +
+                   "WHERE user_id > :afterUserId AND taste_vector IS NOT NULL " +
+                   "ORDER BY user_id LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findTasteVectorsAfter(@Param("afterUserId") UUID afterUserId, @Param("limit") int limit);
+
+    /**
+     * Profiles changed after the (updatedAt, userId) cursor, oldest change first.
+     * Rows: [user_id, taste_vector (may be null), updated_at]; served by idx_taste_profile_updated_user.
+     */
+    @Query(value = "SELECT user_id, taste_vector, updated_at FROM taste_profiles " +
+                   "WHERE (updated_at, user_id) > (:afterUpdated, :afterUserId) " +
+                   "ORDER BY updated_at, user_id LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findTasteVectorsUpdatedAfter(@Param("afterUpdated") LocalDateTime afterUpdated,
+                                                @Param("afterUserId") UUID afterUserId,
+                                                @Param("limit") int limit);
+
+    /**
+     * Mark profiles as recalculated
+     */
+    @Modifying
+    @Query("UPDATE TasteProfile tp SET tp.lastCalculated = :date WHERE tp.userId IN :userIds")
+    int updateLastCalculatedForUsers(@Param("userIds") Collection<UUID> userIds, @Param("date") LocalDateTime date);
+
+    /**
+     * Create an empty profile row unless one exists (safe under concurrent first ratings)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO taste_profiles (user_id) VALUES (:userId) ON CONFLICT (user_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId);
+}
+
+
 // TasteProfileRepository - Data access for taste profiles
 // Extends JpaRepository for CRUD operations
 //
@@ -58,4 +149,4 @@ package com.insightx.repositories;
 // Future Enhancements:
 // - Store profile versions for schema evolution
 // - Keep historical profiles for tracking changes
-// - Similarity matching between profiles
\ No newline at end of file
+// - Similarity matching between profiles
@@ -1,7 +1,10 @@
 package com.insightx.repositories;
 
 import com.insightx.entities.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -61,4 +64,17 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * Find users by role
      */
     List<User> findByRole(String role);
+
+    /**
+     * Next page of user ids in id order, after the given id
+     */
+    @Query(value = "SELECT id FROM users WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<UUID> findIdsAfter(@Param("afterId") UUID afterId, @Param("limit") int limit);
+
+    /**
+     * Regions ordered by number of active users: rows of [region, count]
+     */
+    @Query("SELECT u.region, COUNT(u) FROM User u WHERE u.active = true AND u.region IS NOT NULL " +
+           "GROUP BY u.region ORDER BY COUNT(u) DESC")
+    List<Object[]> countActiveUsersByRegion(Pageable pageable);
 }
\ No newline at end of file
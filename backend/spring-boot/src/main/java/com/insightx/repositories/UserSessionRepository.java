@@ -0,0 +1,27 @@
+package com.insightx.repositories;
+
+import com.insightx.entities.UserSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * User Session Repository - Data access layer for UserSession entity
+ */
+@Repository
+public interface UserSessionRepository extends JpaRepository<UserSession, UUID> {
+
+    /**
+     * Delete up to limit sessions that expired before cutoff (range scan on idx_session_expires)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM user_sessions WHERE id IN " +
+                   "(SELECT id FROM user_sessions WHERE expires_at < :cutoff LIMIT :limit)",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
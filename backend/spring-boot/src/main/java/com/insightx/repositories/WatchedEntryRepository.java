@@ -1,5 +1,64 @@
 package com.insightx.repositories;
 
+import com.insightx.entities.MediaType;
+import com.insightx.entities.WatchedEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Watched Entry Repository - Data access layer for WatchedEntry entity
+ */
+@Repository
+public interface WatchedEntryRepository extends JpaRepository<WatchedEntry, UUID> {
+
+    List<WatchedEntry> findByUserId(UUID userId);
+
+    Page<WatchedEntry> findByUserId(UUID userId, Pageable pageable);
+
+    Page<WatchedEntry> findByUserIdAndMediaType(UUID userId, MediaType mediaType, Pageable pageable);
+
+    Optional<WatchedEntry> findByUserIdAndMediaIdAndMediaType(UUID userId, String mediaId, MediaType mediaType);
+
+    boolean existsByUserIdAndMediaIdAndMediaType(UUID userId, String mediaId, MediaType mediaType);
+
+    long countByUserId(UUID userId);
+
+    /**
+     * Media the given users watched: rows of [userId, mediaType, mediaId]
+     */
+    @Query("SELECT w.userId, w.mediaType, w.mediaId FROM WatchedEntry w WHERE w.userId IN :userIds")
+    List<Object[]> findWatchedMediaByUserIds(@Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Users who marked something watched after the given time
+     */
+    @Query("SELECT DISTINCT w.userId FROM WatchedEntry w WHERE w.createdAt > :since")
+    List<UUID> findUserIdsWatchedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Everything a user watched, rated or bookmarked, in one round-trip:
+     * rows of [state (WATCHED|RATED|BOOKMARKED), media_type, media_id]
+     */
+    @Query(value = "SELECT 'WATCHED' AS state, media_type, media_id FROM watched_entries WHERE user_id = :userId " +
+                   "UNION ALL " +
+                   "SELECT 'RATED', media_type, media_id FROM ratings WHERE user_id = :userId " +
+                   "UNION ALL " +
+                   "SELECT 'BOOKMARKED', media_type, media_id FROM bookmarks WHERE user_id = :userId",
+           nativeQuery = true)
+    List<Object[]> findMediaStatesByUserId(@Param("userId") UUID userId);
+}
+
+
 // WatchedEntryRepository - Data access for watched media tracking
 // Extends JpaRepository for CRUD operations
 //
@@ -0,0 +1,166 @@
+package com.insightx.search;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Radix Trie - Compressed prefix tree over int entry ids
+ *
+ * Every node keeps the top-K entry ids of its subtree ordered by weight, so a lookup is a
+ * walk down at most |prefix| characters followed by returning a precomputed array; no
+ * subtree traversal or sorting happens at query time.
+ *
+ * Not thread-safe; TitleAutocompleteIndex guards access with a read/write lock.
+ */
+final class RadixTrie {
+
+    private static final int[] NO_IDS = new int[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final int topK;
+    private final IntToDoubleFunction weightOf;
+    private final Node root = new Node("");
+    private int nodeCount = 1;
+
+    RadixTrie(int topK, IntToDoubleFunction weightOf) {
+        this.topK = topK;
+        this.weightOf = weightOf;
+    }
+
+    /**
+     * Insert a key for an entry id; the id is offered to the top-K list of every node on the path
+     */
+    void insert(String key, int id) {
+        Node node = root;
+        offer(node, id);
+        int pos = 0;
+        while (pos < key.length()) {
+            int index = findChild(node, key.charAt(pos));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(pos));
+                offer(leaf, id);
+                addChild(node, -index - 1, leaf);
+                return;
+            }
+
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, pos);
+            if (common < child.label.length()) {
+                // Split the edge: the shared part becomes a new node above the existing child
+                Node middle = new Node(child.label.substring(0, common));
+                middle.top = child.top;
+                middle.children = new Node[]{child};
+                child.label = child.label.substring(common);
+                node.children[index] = middle;
+                nodeCount++;
+                child = middle;
+            }
+            offer(child, id);
+            pos += common;
+            node = child;
+        }
+    }
+
+    /**
+     * Top-K entry ids (highest weight first) for keys starting with the prefix
+     */
+    int[] top(String prefix) {
+        Node node = root;
+        int pos = 0;
+        while (pos < prefix.length()) {
+            int index = findChild(node, prefix.charAt(pos));
+            if (index < 0) {
+                return NO_IDS;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, prefix, pos);
+            if (pos + common == prefix.length()) {
+                // Prefix ends on or inside this edge
+                return child.top;
+            }
+            if (common < child.label.length()) {
+                return NO_IDS;
+            }
+            pos += common;
+            node = child;
+        }
+        return node.top;
+    }
+
+    int nodeCount() {
+        return nodeCount;
+    }
+
+    private void offer(Node node, int id) {
+        int[] top = node.top;
+        for (int existing : top) {
+            if (existing == id) {
+                return;
+            }
+        }
+
+        double weight = weightOf.applyAsDouble(id);
+        int position = top.length;
+        while (position > 0 && weightOf.applyAsDouble(top[position - 1]) < weight) {
+            position--;
+        }
+        if (position >= topK) {
+            return;
+        }
+
+        int length = Math.min(top.length + 1, topK);
+        int[] updated = new int[length];
+        System.arraycopy(top, 0, updated, 0, position);
+        updated[position] = id;
+        System.arraycopy(top, position, updated, position + 1, length - position - 1);
+        node.top = updated;
+    }
+
+    private void addChild(Node node, int position, Node child) {
+        Node[] children = Arrays.copyOf(node.children, node.children.length + 1);
+        System.arraycopy(children, position, children, position + 1, node.children.length - position);
+        children[position] = child;
+        node.children = children;
+        nodeCount++;
+    }
+
+    /**
+     * Binary search children by first label character; returns -(insertion point) - 1 when absent
+     */
+    private static int findChild(Node node, char c) {
+        Node[] children = node.children;
+        int low = 0;
+        int high = children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midChar = children[mid].label.charAt(0);
+            if (midChar < c) {
+                low = mid + 1;
+            } else if (midChar > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private int[] top = NO_IDS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
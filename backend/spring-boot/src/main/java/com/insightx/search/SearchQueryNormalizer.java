@@ -0,0 +1,37 @@
+package com.insightx.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Search Query Normalizer - Canonical form for search queries and titles
+ *
+ * Applies Unicode compatibility decomposition (NFKD), strips combining marks (accents),
+ * lowercases, turns punctuation into spaces and collapses whitespace, so
+ * "Inception", " inception " and "INCEPTION" share one cache key and "Amélie" matches "amelie".
+ */
+public final class SearchQueryNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchQueryNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return NON_WORD.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Split normalized text into words
+     */
+    public static String[] tokens(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+}
@@ -0,0 +1,271 @@
+package com.insightx.search;
+
+import com.insightx.cache.CacheCodecRegistry;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.entities.MediaType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Search Result Cache - Redis cache for search results keyed by normalized query
+ *
+ * Lookup order for a query:
+ * 1. exact normalized query (all prefixes are fetched in the same MGET)
+ * 2. a cached shorter prefix of the query, filtered to titles matching every query word;
+ *    used only when the prefix result was complete (upstream returned fewer than fetch-size
+ *    items), since a truncated prefix result can miss matches of the longer query
+ * 3. an identical or prefix query already in flight on this node (waited on, then 1/2 again)
+ * 4. FastAPI
+ *
+ * Type-ahead sends one query per keystroke, so most requests after the first two or three
+ * characters are served from a cached prefix.
+ */
+@Component
+public class SearchResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResultCache.class);
+    private static final String KEY_PREFIX = "fastapi:search:";
+    private static final String ALL_TYPES = "all";
+
+    @Autowired
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Autowired
+    private CacheCodecRegistry codecRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.ttl.search-results:900}")
+    private long ttlSeconds;
+
+    @Value("${cache.search.fetch-size:50}")
+    private int fetchSize;
+
+    @Value("${cache.search.min-prefix-length:2}")
+    private int minPrefixLength;
+
+    private final Map<String, CompletableFuture<SearchResults>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter exactHits;
+    private Counter prefixHits;
+    private Counter sharedLoads;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        exactHits = meterRegistry.counter("cache.search.requests", "result", "hit");
+        prefixHits = meterRegistry.counter("cache.search.requests", "result", "prefix");
+        sharedLoads = meterRegistry.counter("cache.search.requests", "result", "shared");
+        misses = meterRegistry.counter("cache.search.requests", "result", "miss");
+    }
+
+    /**
+     * Search results for an already normalized query.
+     * The loader receives the number of items to fetch and returns null on failure.
+     */
+    public List<MediaMetadataDTO> get(String query, MediaType mediaType, int limit,
+                                      IntFunction<List<MediaMetadataDTO>> loader) {
+        int fetch = Math.max(fetchSize, limit);
+        List<String> keys = candidateKeys(query, mediaType);
+
+        List<MediaMetadataDTO> cached = fromCache(keys, query, limit);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<MediaMetadataDTO> shared = fromInFlight(keys, query, limit);
+        if (shared != null) {
+            sharedLoads.increment();
+            return shared;
+        }
+
+        misses.increment();
+        SearchResults results = load(keys.get(0), fetch, loader);
+        return results == null ? Collections.emptyList() : slice(results.items(), limit);
+    }
+
+    /**
+     * Serve from the exact key or the longest usable cached prefix
+     */
+    private List<MediaMetadataDTO> fromCache(List<String> keys, String query, int limit) {
+        List<byte[]> values;
+        try {
+            values = binaryRedisTemplate.opsForValue().multiGet(keys);
+        } catch (Exception e) {
+            log.error("Error reading cached search results for '{}': {}", query, e.getMessage());
+            return null;
+        }
+        if (values == null) {
+            return null;
+        }
+
+        for (int i = 0; i < values.size(); i++) {
+            SearchResults results = codecRegistry.decode(values.get(i), SearchResults.class);
+            if (results == null) {
+                continue;
+            }
+            if (i == 0) {
+                exactHits.increment();
+                return slice(results.items(), limit);
+            }
+            List<MediaMetadataDTO> filtered = filterByPrefix(results, query, limit);
+            if (filtered != null) {
+                prefixHits.increment();
+                return filtered;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Wait for an identical or prefix query already being fetched on this node
+     */
+    private List<MediaMetadataDTO> fromInFlight(List<String> keys, String query, int limit) {
+        for (int i = 0; i < keys.size(); i++) {
+            CompletableFuture<SearchResults> pending = inFlight.get(keys.get(i));
+            if (pending == null) {
+                continue;
+            }
+            SearchResults results = await(pending);
+            if (results == null) {
+                continue;
+            }
+            if (i == 0) {
+                return slice(results.items(), limit);
+            }
+            List<MediaMetadataDTO> filtered = filterByPrefix(results, query, limit);
+            if (filtered != null) {
+                return filtered;
+            }
+        }
+        return null;
+    }
+
+    private SearchResults load(String key, int fetch, IntFunction<List<MediaMetadataDTO>> loader) {
+        CompletableFuture<SearchResults> future = new CompletableFuture<>();
+        CompletableFuture<SearchResults> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            sharedLoads.increment();
+            return await(existing);
+        }
+
+        try {
+            List<MediaMetadataDTO> items = loader.apply(fetch);
+            SearchResults results = items == null ? null : new SearchResults(items, items.size() < fetch);
+            if (results != null) {
+                write(key, results);
+            }
+            future.complete(results);
+            return results;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Items of a prefix result whose title matches every query word, or null if the
+     * prefix result was truncated and so cannot answer this query
+     */
+    private List<MediaMetadataDTO> filterByPrefix(SearchResults results, String query, int limit) {
+        if (!results.complete()) {
+            return null;
+        }
+        String[] queryTokens = SearchQueryNormalizer.tokens(query);
+        List<MediaMetadataDTO> matches = new ArrayList<>(Math.min(limit, results.items().size()));
+        for (MediaMetadataDTO item : results.items()) {
+            if (titleMatches(item.getTitle(), queryTokens) || titleMatches(item.getOriginalTitle(), queryTokens)) {
+                matches.add(item);
+                if (matches.size() == limit) {
+                    return matches;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Every query word must start some title word (the last query word may be partially typed)
+     */
+    private static boolean titleMatches(String title, String[] queryTokens) {
+        if (title == null) {
+            return false;
+        }
+        String[] titleTokens = SearchQueryNormalizer.tokens(SearchQueryNormalizer.normalize(title));
+        for (String queryToken : queryTokens) {
+            boolean found = false;
+            for (String titleToken : titleTokens) {
+                if (titleToken.startsWith(queryToken)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Exact key first, then shorter prefixes down to min-prefix-length (longest first)
+     */
+    private List<String> candidateKeys(String query, MediaType mediaType) {
+        String base = KEY_PREFIX + (mediaType == null ? ALL_TYPES : mediaType.getValue()) + ":";
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(base + query);
+        for (int length = query.length() - 1; length >= minPrefixLength; length--) {
+            keys.add(base + query.substring(0, length).trim());
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private void write(String key, SearchResults results) {
+        try {
+            binaryRedisTemplate.opsForValue().set(key, codecRegistry.encode(key, results),
+                    Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            log.error("Error caching search results {}: {}", key, e.getMessage());
+        }
+    }
+
+    private static SearchResults await(CompletableFuture<SearchResults> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    private static List<MediaMetadataDTO> slice(List<MediaMetadataDTO> items, int limit) {
+        return items.size() <= limit ? items : items.subList(0, limit);
+    }
+
+    /**
+     * Cached upstream result; complete means upstream returned every match
+     */
+    public record SearchResults(List<MediaMetadataDTO> items, boolean complete) {
+    }
+}
@@ -0,0 +1,456 @@
+package com.insightx.search;
+
+import com.insightx.dto.AutocompleteSuggestionDTO;
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.entities.MediaType;
+import com.insightx.jobs.JobCoordinator;
+import com.insightx.repositories.BookmarkRepository;
+import com.insightx.repositories.MediaRatingStatsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Title Autocomplete Index - Per-node prefix index of media titles for type-ahead
+ *
+ * Titles are added as metadata passes through FastAPIService (lookups, searches, lists).
+ * Each title is indexed from the start of each of its first words, so "knig" finds
+ * "The Dark Knight". One radix trie per media type keeps the top-K titles per node,
+ * weighted by how often the item is rated and bookmarked (FastAPI popularity breaks ties).
+ *
+ * Once per refresh interval one node reads the rating counts (media_rating_stats) and bookmark
+ * counts and shares them through Redis; every node then rebuilds its tries off-lock over
+ * reweighted copies of the entries and swaps both in at once (entries are immutable, so the
+ * live tries never see a weight they were not built with). New titles are inserted in place
+ * with their last shared count. The index may grow a tenth past max-entries between
+ * refreshes; each refresh evicts the lowest-weight titles back down to max-entries. The entries
+ * are snapshotted to disk so a restarted node serves suggestions immediately.
+ */
+@Component
+public class TitleAutocompleteIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleAutocompleteIndex.class);
+    private static final int SNAPSHOT_MAGIC = 0x41434958; // "ACIX"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final MediaType[] MEDIA_TYPES = MediaType.values();
+    private static final String WEIGHTS_JOB = "autocomplete-weights";
+    private static final String WEIGHTS_KEY = "autocomplete:weights";
+
+    @Autowired
+    private MediaRatingStatsRepository mediaRatingStatsRepository;
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Autowired
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insightx.autocomplete.top-k:10}")
+    private int topK;
+
+    @Value("${insightx.autocomplete.max-entries:200000}")
+    private int maxEntries;
+
+    @Value("${insightx.autocomplete.max-word-starts:4}")
+    private int maxWordStarts;
+
+    @Value("${insightx.autocomplete.snapshot-path:${java.io.tmpdir}/insightx-autocomplete.bin}")
+    private String snapshotPath;
+
+    @Value("${insightx.autocomplete.weight-refresh-interval-ms:3600000}")
+    private long weightRefreshIntervalMs;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<MediaKey, Integer> ids = new ConcurrentHashMap<>();
+    // Replaced together with the tries on refresh; both are only accessed under the lock
+    private List<Entry> entries = new ArrayList<>();
+    private Map<MediaType, RadixTrie> tries;
+    // Rating + bookmark counts of the last refresh
+    private volatile Map<MediaKey, Long> interactions = Map.of();
+    private volatile boolean dirty;
+
+    @PostConstruct
+    public void init() {
+        tries = newTries(id -> entries.get(id).weight);
+        loadSnapshot();
+        Gauge.builder("autocomplete.entries", ids, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Index the title of a media item (no-op if already indexed or the index is full until
+     * the next refresh evicts low-weight titles)
+     */
+    public void add(MediaMetadataDTO metadata) {
+        if (metadata == null || metadata.getMediaType() == null || metadata.getMediaId() == null) {
+            return;
+        }
+        MediaKey key = new MediaKey(metadata.getMediaType(), metadata.getMediaId());
+        if (ids.containsKey(key)) {
+            return;
+        }
+        String normalized = SearchQueryNormalizer.normalize(metadata.getTitle());
+        if (normalized.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (ids.containsKey(key) || entries.size() >= maxEntries + maxEntries / 10) {
+                return;
+            }
+            double popularity = metadata.getPopularity() == null ? 0 : metadata.getPopularity();
+            Entry entry = new Entry(key, metadata.getTitle(), normalized, popularity,
+                    weight(interactions, key, popularity));
+            int id = entries.size();
+            entries.add(entry);
+            ids.put(key, id);
+            insert(tries, entry, id);
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(List<MediaMetadataDTO> items) {
+        if (items != null) {
+            items.forEach(this::add);
+        }
+    }
+
+    /**
+     * Top suggestions for a typed prefix (mediaType null = all types)
+     */
+    public List<AutocompleteSuggestionDTO> suggest(String prefix, MediaType mediaType, int limit) {
+        String normalized = SearchQueryNormalizer.normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<AutocompleteSuggestionDTO> suggestions = new ArrayList<>(limit);
+            if (mediaType != null) {
+                for (int id : tries.get(mediaType).top(normalized)) {
+                    if (suggestions.size() == limit) {
+                        break;
+                    }
+                    suggestions.add(toSuggestion(entries.get(id)));
+                }
+                return suggestions;
+            }
+
+            // Merge the per-type top lists by weight
+            int[][] lists = new int[MEDIA_TYPES.length][];
+            int[] positions = new int[MEDIA_TYPES.length];
+            for (int t = 0; t < MEDIA_TYPES.length; t++) {
+                lists[t] = tries.get(MEDIA_TYPES[t]).top(normalized);
+            }
+            while (suggestions.size() < limit) {
+                int best = -1;
+                for (int t = 0; t < lists.length; t++) {
+                    if (positions[t] < lists[t].length && (best < 0
+                            || entries.get(lists[t][positions[t]]).weight > entries.get(lists[best][positions[best]]).weight)) {
+                        best = t;
+                    }
+                }
+                if (best < 0) {
+                    break;
+                }
+                suggestions.add(toSuggestion(entries.get(lists[best][positions[best]++])));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Load the shared rating/bookmark counts (computing them if no node has in this interval)
+     * and rebuild the tries with the new weights
+     */
+    @Scheduled(fixedDelayString = "${insightx.autocomplete.weight-refresh-interval-ms:3600000}",
+               initialDelayString = "${insightx.autocomplete.weight-refresh-initial-delay-ms:60000}")
+    public void refreshWeights() {
+        jobCoordinator.runPeriodic(WEIGHTS_JOB, Duration.ofMillis(weightRefreshIntervalMs), this::publishWeights);
+        Map<MediaKey, Long> loaded = readWeights();
+        if (loaded == null) {
+            return;
+        }
+        interactions = loaded;
+        rebuild(loaded);
+    }
+
+    /**
+     * Count ratings and bookmarks per item and share them with the other nodes
+     */
+    private void publishWeights() {
+        Map<MediaKey, Long> counts = new HashMap<>();
+        accumulate(counts, mediaRatingStatsRepository.findMostRated(PageRequest.of(0, maxEntries)));
+        accumulate(counts, bookmarkRepository.findMostBookmarkedMedia(PageRequest.of(0, maxEntries)));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(counts.size());
+            for (Map.Entry<MediaKey, Long> count : counts.entrySet()) {
+                out.writeByte(count.getKey().mediaType().ordinal());
+                out.writeUTF(count.getKey().mediaId());
+                out.writeLong(count.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Outlives a missed refresh, so nodes keep the last counts if a run fails
+        binaryRedisTemplate.opsForValue().set(WEIGHTS_KEY, bytes.toByteArray(),
+                Duration.ofMillis(weightRefreshIntervalMs * 3));
+        log.debug("Published autocomplete weights for {} titles", counts.size());
+    }
+
+    private Map<MediaKey, Long> readWeights() {
+        try {
+            byte[] value = binaryRedisTemplate.opsForValue().get(WEIGHTS_KEY);
+            if (value == null) {
+                return null;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(value));
+            int size = in.readInt();
+            Map<MediaKey, Long> counts = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                MediaType mediaType = MEDIA_TYPES[in.readByte()];
+                counts.put(new MediaKey(mediaType, in.readUTF()), in.readLong());
+            }
+            return counts;
+        } catch (Exception e) {
+            log.error("Error reading autocomplete weights: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void rebuild(Map<MediaKey, Long> counts) {
+        List<Entry> snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = new ArrayList<>(entries);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // New entries carry the new weights; the live tries keep reading the old ones until the swap
+        List<Entry> reweighted = new ArrayList<>(snapshot.size());
+        for (Entry entry : snapshot) {
+            reweighted.add(entry.withWeight(weight(counts, entry.key, entry.popularity)));
+        }
+        int evicted = 0;
+        if (reweighted.size() > maxEntries) {
+            reweighted.sort((a, b) -> Double.compare(b.weight, a.weight));
+            evicted = reweighted.size() - maxEntries;
+            reweighted.subList(maxEntries, reweighted.size()).clear();
+        }
+        // Ids are reassigned, so the rebuilt tries index a new entry list
+        List<Entry> rebuiltEntries = new ArrayList<>(reweighted);
+        Map<MediaType, RadixTrie> rebuilt = newTries(id -> rebuiltEntries.get(id).weight);
+        for (int id = 0; id < rebuiltEntries.size(); id++) {
+            insert(rebuilt, rebuiltEntries.get(id), id);
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Titles added while rebuilding
+            for (int i = snapshot.size(); i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                int id = rebuiltEntries.size();
+                rebuiltEntries.add(entry.withWeight(weight(counts, entry.key, entry.popularity)));
+                insert(rebuilt, rebuiltEntries.get(id), id);
+            }
+            ids.clear();
+            for (int id = 0; id < rebuiltEntries.size(); id++) {
+                ids.put(rebuiltEntries.get(id).key, id);
+            }
+            entries = rebuiltEntries;
+            tries = rebuilt;
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Autocomplete index rebuilt ({} titles, {} evicted)", rebuiltEntries.size(), evicted);
+    }
+
+    @Scheduled(fixedDelayString = "${insightx.autocomplete.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        List<Entry> snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = new ArrayList<>(entries);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Path target = Path.of(snapshotPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(snapshot.size());
+                for (Entry entry : snapshot) {
+                    out.writeByte(entry.key.mediaType().ordinal());
+                    out.writeUTF(entry.key.mediaId());
+                    out.writeUTF(entry.title);
+                    out.writeDouble(entry.popularity);
+                    out.writeDouble(entry.weight);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.error("Error writing autocomplete snapshot {}: {}", target, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshot();
+    }
+
+    private void loadSnapshot() {
+        Path path = Path.of(snapshotPath);
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring autocomplete snapshot {} with unknown format", path);
+                return;
+            }
+            int count = Math.min(in.readInt(), maxEntries);
+            for (int i = 0; i < count; i++) {
+                MediaType mediaType = MEDIA_TYPES[in.readByte()];
+                MediaKey key = new MediaKey(mediaType, in.readUTF());
+                String title = in.readUTF();
+                Entry entry = new Entry(key, title, SearchQueryNormalizer.normalize(title), in.readDouble(),
+                        in.readDouble());
+                int id = entries.size();
+                entries.add(entry);
+                ids.put(key, id);
+                insert(tries, entry, id);
+            }
+            log.info("Loaded {} titles from autocomplete snapshot {}", count, path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Error reading autocomplete snapshot {}: {}", path, e.getMessage());
+            entries.clear();
+            ids.clear();
+            tries = newTries(id -> entries.get(id).weight);
+        }
+    }
+
+    private void insert(Map<MediaType, RadixTrie> target, Entry entry, int id) {
+        RadixTrie trie = target.get(entry.key.mediaType());
+        String title = entry.normalizedTitle;
+        int starts = 0;
+        int start = 0;
+        while (start >= 0 && starts < maxWordStarts) {
+            trie.insert(title.substring(start), id);
+            starts++;
+            int space = title.indexOf(' ', start);
+            start = space < 0 ? -1 : space + 1;
+        }
+    }
+
+    private Map<MediaType, RadixTrie> newTries(IntToDoubleFunction weightOf) {
+        Map<MediaType, RadixTrie> created = new EnumMap<>(MediaType.class);
+        for (MediaType mediaType : MEDIA_TYPES) {
+            created.put(mediaType, new RadixTrie(topK, weightOf));
+        }
+        return created;
+    }
+
+    private static void accumulate(Map<MediaKey, Long> counts, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            counts.merge(new MediaKey((MediaType) row[0], (String) row[1]), (Long) row[2], Long::sum);
+        }
+    }
+
+    private static double weight(Map<MediaKey, Long> counts, MediaKey key, double popularity) {
+        return counts.getOrDefault(key, 0L) + tieBreak(popularity);
+    }
+
+    /**
+     * Popularity contributes less than one interaction, so it only orders otherwise equal titles
+     */
+    private static double tieBreak(double popularity) {
+        return Math.min(0.99, Math.log1p(Math.max(0, popularity)) / 10);
+    }
+
+    private static AutocompleteSuggestionDTO toSuggestion(Entry entry) {
+        return AutocompleteSuggestionDTO.builder()
+                .mediaId(entry.key.mediaId())
+                .mediaType(entry.key.mediaType())
+                .title(entry.title)
+                .build();
+    }
+
+    private static final class Entry {
+        private final MediaKey key;
+        private final String title;
+        private final String normalizedTitle;
+        private final double popularity;
+        private final double weight;
+
+        private Entry(MediaKey key, String title, String normalizedTitle, double popularity, double weight) {
+            this.key = key;
+            this.title = title;
+            this.normalizedTitle = normalizedTitle;
+            this.popularity = popularity;
+            this.weight = weight;
+        }
+
+        private Entry withWeight(double newWeight) {
+            return new Entry(key, title, normalizedTitle, popularity, newWeight);
+        }
+    }
+}
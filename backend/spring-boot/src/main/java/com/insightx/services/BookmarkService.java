@@ -1,5 +1,99 @@
 package com.insightx.services;
 
+import com.insightx.dto.BookmarkDTO;
+import com.insightx.dto.BookmarkRequest;
+import com.insightx.entities.Bookmark;
+import com.insightx.entities.MediaType;
+import com.insightx.events.MediaStateChangedEvent;
+import com.insightx.exceptions.ResourceNotFoundException;
+import com.insightx.media.MediaState;
+import com.insightx.repositories.BookmarkRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Bookmark Service - Manages the user's saved media
+ *
+ * Adding and removing publish MediaStateChangedEvent, which keeps the per-user
+ * media state index current.
+ */
+@Service
+public class BookmarkService {
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Bookmark media; bookmarking it again only updates the notes and visibility
+     */
+    @Transactional
+    public BookmarkDTO addBookmark(UUID userId, BookmarkRequest request) {
+        Bookmark bookmark = bookmarkRepository.findByUserIdAndMediaIdAndMediaType(
+                        userId, request.getMediaId(), request.getMediaType())
+                .orElse(null);
+        boolean created = bookmark == null;
+        if (created) {
+            bookmark = Bookmark.builder()
+                    .userId(userId)
+                    .mediaId(request.getMediaId())
+                    .mediaType(request.getMediaType())
+                    .build();
+        }
+        bookmark.setNotes(request.getNotes());
+        if (request.getVisibility() != null) {
+            bookmark.setVisibility(request.getVisibility());
+        }
+        Bookmark saved = bookmarkRepository.saveAndFlush(bookmark);
+
+        if (created) {
+            eventPublisher.publishEvent(new MediaStateChangedEvent(userId, saved.getMediaType(), saved.getMediaId(),
+                    MediaState.BOOKMARKED, true));
+        }
+        return toDTO(saved);
+    }
+
+    @Transactional
+    public void removeBookmark(UUID userId, String mediaId, MediaType mediaType) {
+        Bookmark bookmark = bookmarkRepository.findByUserIdAndMediaIdAndMediaType(userId, mediaId, mediaType)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Bookmark not found: " + mediaType.getValue() + "/" + mediaId));
+        bookmarkRepository.delete(bookmark);
+
+        eventPublisher.publishEvent(new MediaStateChangedEvent(userId, mediaType, mediaId, MediaState.BOOKMARKED, false));
+    }
+
+    /**
+     * User's bookmarks (mediaType null = all types)
+     */
+    @Transactional(readOnly = true)
+    public Page<BookmarkDTO> getUserBookmarks(UUID userId, MediaType mediaType, Pageable pageable) {
+        Page<Bookmark> bookmarks = mediaType == null
+                ? bookmarkRepository.findByUserId(userId, pageable)
+                : bookmarkRepository.findByUserIdAndMediaType(userId, mediaType, pageable);
+        return bookmarks.map(this::toDTO);
+    }
+
+    private BookmarkDTO toDTO(Bookmark bookmark) {
+        return BookmarkDTO.builder()
+                .mediaId(bookmark.getMediaId())
+                .mediaType(bookmark.getMediaType())
+                .notes(bookmark.getNotes())
+                .visibility(bookmark.getVisibility())
+                .savedAt(bookmark.getSavedAt())
+                .build();
+    }
+}
+
+
 // BookmarkService - Manages user's saved/bookmarked media
 //
 // Responsibilities:
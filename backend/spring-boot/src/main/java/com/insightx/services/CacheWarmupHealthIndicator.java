@@ -0,0 +1,37 @@
+package com.insightx.services;
+
+import com.insightx.cache.CacheWarmupProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports OUT_OF_SERVICE until the startup cache warm-up has finished
+ * (exposed as the "cacheWarmup" component of /actuator/health)
+ */
+@Component("cacheWarmup")
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private CacheWarmupProperties properties;
+
+    @Override
+    public Health health() {
+        if (!properties.isEnabled()) {
+            return Health.up().withDetail("enabled", false).build();
+        }
+        if (!cacheWarmupService.isWarm()) {
+            return Health.outOfService().withDetail("state", "warming").build();
+        }
+
+        Health.Builder builder = Health.up().withDetail("warmedEntries", cacheWarmupService.getLastWarmedKeys());
+        if (cacheWarmupService.getLastCompletedAt() != null) {
+            builder.withDetail("lastCompletedAt", cacheWarmupService.getLastCompletedAt().toString());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,258 @@
+package com.insightx.services;
+
+import com.insightx.cache.CacheWarmupProperties;
+import com.insightx.cache.HotKeyTracker;
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.entities.MediaType;
+import com.insightx.jobs.JobCoordinator;
+import com.insightx.popularity.PopularityTracker;
+import com.insightx.repositories.BookmarkRepository;
+import com.insightx.repositories.RatingRepository;
+import com.insightx.repositories.UserRepository;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Cache Warmup Service - Pre-warms hot media metadata, trending and new-release caches
+ *
+ * Hot keys come from the shared access-frequency counters (HotKeyTracker), topped up with the
+ * most rated and bookmarked media when the counters are empty (fresh deploy, flushed Redis).
+ * FastAPI calls are rate limited and run with bounded concurrency; keys already cached in
+ * Redis are only copied into the local tier.
+ *
+ * The node reports OUT_OF_SERVICE on /actuator/health until the startup warm-up finishes
+ * or cache.warmup.max-duration-ms elapses, whichever comes first.
+ */
+@Service
+public class CacheWarmupService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    private PopularityTracker popularityTracker;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheWarmupProperties properties;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Value("${cache.warmup.interval-ms:600000}")
+    private long refreshIntervalMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean warm;
+    private volatile LocalDateTime lastCompletedAt;
+    private volatile int lastWarmedKeys;
+
+    /**
+     * Startup warm-up: fill missing entries only, then mark the node ready
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        if (!properties.isEnabled()) {
+            warm = true;
+            return;
+        }
+        try {
+            warm(false);
+        } finally {
+            warm = true;
+        }
+    }
+
+    /**
+     * Periodic refresh: trending and new-release lists are re-fetched before they expire.
+     * One node per interval does the refresh (JobCoordinator).
+     */
+    @Scheduled(fixedDelayString = "${cache.warmup.interval-ms:600000}",
+               initialDelayString = "${cache.warmup.interval-ms:600000}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        jobCoordinator.runPeriodic("cache-warmup-refresh", Duration.ofMillis(refreshIntervalMs), () -> warm(true));
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public LocalDateTime getLastCompletedAt() {
+        return lastCompletedAt;
+    }
+
+    public int getLastWarmedKeys() {
+        return lastWarmedKeys;
+    }
+
+    /**
+     * Run one warm-up pass. Lists are re-fetched when forceLists is set, otherwise only filled if missing.
+     */
+    void warm(boolean forceLists) {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Cache warm-up already running");
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Bucket bucket = Bucket.builder()
+                    .addLimit(Bandwidth.builder()
+                            .capacity(properties.getRatePerSecond())
+                            .refillGreedy(properties.getRatePerSecond(), Duration.ofSeconds(1))
+                            .build())
+                    .build();
+            Runnable acquire = () -> {
+                try {
+                    bucket.asBlocking().consume(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for warm-up rate limit", e);
+                }
+            };
+
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (String region : warmRegions()) {
+                for (MediaType mediaType : MediaType.values()) {
+                    tasks.add(() -> warmList(forceLists, acquire,
+                            () -> fastAPIService.refreshTrending(mediaType, region),
+                            () -> fastAPIService.getCachedTrending(mediaType, region, 1)));
+                    tasks.add(() -> warmList(forceLists, acquire,
+                            () -> fastAPIService.refreshNewReleases(mediaType, region),
+                            () -> fastAPIService.getCachedNewReleases(mediaType, region, 1)));
+                }
+            }
+            for (MediaKey key : hotKeys()) {
+                tasks.add(() -> fastAPIService.warmMediaMetadata(key.mediaId(), key.mediaType(), acquire));
+            }
+
+            long warmed = Flux.fromIterable(tasks)
+                    .flatMap(task -> Mono.fromCallable(task)
+                                    .subscribeOn(Schedulers.boundedElastic())
+                                    .onErrorReturn(false),
+                            properties.getConcurrency())
+                    .take(Duration.ofMillis(properties.getMaxDurationMs()))
+                    .filter(Boolean::booleanValue)
+                    .count()
+                    .blockOptional()
+                    .orElse(0L);
+
+            lastWarmedKeys = (int) warmed;
+            lastCompletedAt = LocalDateTime.now();
+            log.info("Cache warm-up finished: {}/{} entries warm", warmed, tasks.size());
+        } catch (Exception e) {
+            log.error("Cache warm-up failed: {}", e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("cache.warmup.duration"));
+            running.set(false);
+        }
+    }
+
+    private boolean warmList(boolean force, Runnable acquire, Callable<Boolean> refresh,
+                             Supplier<Optional<List<MediaMetadataDTO>>> cached) throws Exception {
+        if (!force) {
+            Optional<List<MediaMetadataDTO>> list = cached.get();
+            if (list.isPresent()) {
+                return !list.get().isEmpty();
+            }
+        }
+        // Only upstream fetches take from the rate limit
+        acquire.run();
+        return refresh.call();
+    }
+
+    /**
+     * Hottest media from access counters, topped up with the most popular media from the
+     * popularity sketches, then (before those have data) the most rated and bookmarked media
+     */
+    private Set<MediaKey> hotKeys() {
+        int limit = properties.getHotKeys();
+        Set<MediaKey> keys = new LinkedHashSet<>(hotKeyTracker.topKeys(limit));
+        for (MediaKey key : popularityTracker.top(limit)) {
+            if (keys.size() >= limit) {
+                break;
+            }
+            keys.add(key);
+        }
+        if (keys.size() < limit) {
+            try {
+                addRows(keys, ratingRepository.findMostRatedMedia(PageRequest.of(0, limit)), limit);
+                addRows(keys, bookmarkRepository.findMostBookmarkedMedia(PageRequest.of(0, limit)), limit);
+            } catch (Exception e) {
+                log.error("Error loading most rated/bookmarked media: {}", e.getMessage());
+            }
+        }
+        return keys;
+    }
+
+    private void addRows(Set<MediaKey> keys, List<Object[]> rows, int limit) {
+        for (Object[] row : rows) {
+            if (keys.size() >= limit) {
+                return;
+            }
+            keys.add(new MediaKey((MediaType) row[0], (String) row[1]));
+        }
+    }
+
+    private List<String> warmRegions() {
+        List<String> regions = new ArrayList<>();
+        try {
+            for (Object[] row : userRepository.countActiveUsersByRegion(PageRequest.of(0, properties.getRegions()))) {
+                regions.add((String) row[0]);
+            }
+        } catch (Exception e) {
+            log.error("Error loading user regions: {}", e.getMessage());
+        }
+        if (regions.isEmpty()) {
+            regions.add("US");
+        }
+        return regions;
+    }
+}
@@ -1,5 +1,582 @@
 package com.insightx.services;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.insightx.cache.CacheCodecRegistry;
+import com.insightx.cache.HotKeyTracker;
+import com.insightx.cache.MediaMetadataNearCache;
+import com.insightx.cache.WatchProviderCache;
+import com.insightx.dto.AutocompleteSuggestionDTO;
+import com.insightx.dto.ExplanationDTO;
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.dto.RecommendationDTO;
+import com.insightx.dto.WatchProviderDTO;
+import com.insightx.entities.MediaType;
+import com.insightx.search.SearchQueryNormalizer;
+import com.insightx.search.SearchResultCache;
+import com.insightx.search.TitleAutocompleteIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * FastAPI Service - Integration with the FastAPI intelligence layer
+ * Calls go through FastApiRequestExecutor (adaptive timeouts, hedging for idempotent GETs).
+ * Errors are logged and mapped to empty results; they never reach controllers.
+ */
+@Service
+public class FastAPIService {
+
+    private static final Logger log = LoggerFactory.getLogger(FastAPIService.class);
+    private static final String EXPLANATION_KEY_PREFIX = "fastapi:explain:";
+    private static final String STREAM_DONE_EVENT = "done";
+    private static final String DEFAULT_REGION = "US";
+    // Lists are fetched and cached at this size; requests for fewer items are sliced from the cached list
+    private static final int LIST_FETCH_SIZE = 50;
+    private static final TypeReference<List<MediaMetadataDTO>> MEDIA_LIST_TYPE = new TypeReference<>() { };
+    private static final int PROVIDER_BATCH_SIZE = 100;
+    private static final TypeReference<List<RecommendationDTO>> RECOMMENDATION_LIST_TYPE = new TypeReference<>() { };
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<List<MediaMetadataDTO>> MEDIA_LIST_TYPE_REF =
+            new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<List<WatchProviderDTO>> PROVIDER_LIST_TYPE_REF =
+            new ParameterizedTypeReference<>() { };
+    private static final ParameterizedTypeReference<List<RecommendationDTO>> RECOMMENDATION_LIST_TYPE_REF =
+            new ParameterizedTypeReference<>() { };
+
+    @Autowired
+    private WebClient fastApiWebClient;
+
+    @Autowired
+    private FastApiRequestExecutor requestExecutor;
+
+    @Autowired
+    private MediaMetadataNearCache mediaMetadataCache;
+
+    @Autowired
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Autowired
+    private CacheCodecRegistry codecRegistry;
+
+    @Autowired
+    private HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private TitleAutocompleteIndex autocompleteIndex;
+
+    @Autowired
+    private WatchProviderCache watchProviderCache;
+
+    @Value("${cache.ttl.ai-explanations:3600}")
+    private long explanationTtlSeconds;
+
+    @Value("${cache.ttl.recommendations:1800}")
+    private long recommendationsTtlSeconds;
+
+    @Value("${cache.ttl.trending:1800}")
+    private long trendingTtlSeconds;
+
+    @Value("${cache.ttl.new-releases:3600}")
+    private long newReleasesTtlSeconds;
+
+    @Value("${cache.ttl.similar-media:3600}")
+    private long similarMediaTtlSeconds;
+
+    /**
+     * Get media metadata, served from the near cache when possible
+     */
+    public Optional<MediaMetadataDTO> getMediaMetadata(String mediaId, MediaType mediaType) {
+        hotKeyTracker.record(mediaType, mediaId);
+        MediaMetadataDTO metadata =
+                mediaMetadataCache.get(mediaType, mediaId, () -> fetchMediaMetadata(mediaId, mediaType).block());
+        autocompleteIndex.add(metadata);
+        return Optional.ofNullable(metadata);
+    }
+
+    /**
+     * Load media metadata into the near cache without counting it as an access.
+     * beforeFetch runs only when the value is in neither cache tier and FastAPI must be called.
+     */
+    public boolean warmMediaMetadata(String mediaId, MediaType mediaType, Runnable beforeFetch) {
+        MediaMetadataDTO metadata = mediaMetadataCache.get(mediaType, mediaId, () -> {
+            beforeFetch.run();
+            return fetchMediaMetadata(mediaId, mediaType).block();
+        });
+        autocompleteIndex.add(metadata);
+        return metadata != null;
+    }
+
+    /**
+     * Genres of a media item, served from the metadata caches without counting an access
+     * (empty when the metadata is unavailable)
+     */
+    public Optional<List<String>> getMediaGenres(String mediaId, MediaType mediaType) {
+        return lookupMediaMetadata(mediaId, mediaType)
+                .map(metadata -> metadata.getGenres() != null ? metadata.getGenres() : List.of());
+    }
+
+    /**
+     * Media metadata for internal use (scoring, explanations), served from the metadata caches
+     * without counting an access
+     */
+    public Optional<MediaMetadataDTO> lookupMediaMetadata(String mediaId, MediaType mediaType) {
+        return Optional.ofNullable(
+                mediaMetadataCache.get(mediaType, mediaId, () -> fetchMediaMetadata(mediaId, mediaType).block()));
+    }
+
+    /**
+     * Media metadata of many items for internal use, from the metadata caches only (never
+     * calls FastAPI, counts no access); uncached items are absent from the result
+     */
+    public Map<MediaKey, MediaMetadataDTO> lookupCachedMediaMetadata(Collection<MediaKey> items) {
+        return items.isEmpty() ? Map.of() : mediaMetadataCache.getAllCached(items);
+    }
+
+    /**
+     * Search media across types (mediaType null = all types).
+     * Queries are normalized before caching and before being sent to FastAPI.
+     */
+    public List<MediaMetadataDTO> searchMedia(String query, MediaType mediaType, int limit) {
+        String normalized = SearchQueryNormalizer.normalize(query);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        List<MediaMetadataDTO> results = searchResultCache.get(normalized, mediaType, limit,
+                fetchSize -> fetchSearchResults(normalized, mediaType, fetchSize));
+        autocompleteIndex.addAll(results);
+        return results;
+    }
+
+    /**
+     * Get personalized recommendations for a user (mediaType null = all types, cached 30 minutes)
+     */
+    public List<RecommendationDTO> getRecommendations(UUID userId, MediaType mediaType, int limit) {
+        String key = recommendationsKey(userId, mediaType);
+        List<RecommendationDTO> recommendations = readCached(key, RECOMMENDATION_LIST_TYPE);
+        if (recommendations == null) {
+            recommendations = fetchRecommendations(userId, mediaType);
+            if (recommendations == null) {
+                return List.of();
+            }
+            writeCached(key, recommendations, recommendationsTtlSeconds);
+        }
+        return recommendations.subList(0, Math.min(limit, recommendations.size()));
+    }
+
+    /**
+     * Cached recommendations only (never calls FastAPI); used as a fallback when a fetch is too slow
+     */
+    public Optional<List<RecommendationDTO>> getCachedRecommendations(UUID userId, MediaType mediaType, int limit) {
+        List<RecommendationDTO> recommendations = readCached(recommendationsKey(userId, mediaType), RECOMMENDATION_LIST_TYPE);
+        return Optional.ofNullable(recommendations)
+                .map(list -> list.subList(0, Math.min(limit, list.size())));
+    }
+
+    /**
+     * Get media similar to an item, by genre, themes and creators (cached 1 hour)
+     */
+    public List<MediaMetadataDTO> getSimilarMedia(String mediaId, MediaType mediaType, int limit) {
+        String key = "fastapi:similar:" + mediaType.getValue() + ":" + mediaId;
+        List<MediaMetadataDTO> items = readCached(key, MEDIA_LIST_TYPE);
+        if (items == null) {
+            items = fetchSimilarMedia(mediaId, mediaType);
+            if (items == null) {
+                return List.of();
+            }
+            writeCached(key, items, similarMediaTtlSeconds);
+        }
+        return items.subList(0, Math.min(limit, items.size()));
+    }
+
+    /**
+     * Title suggestions for type-ahead, served from the local autocomplete index (no FastAPI call)
+     */
+    public List<AutocompleteSuggestionDTO> autocomplete(String prefix, MediaType mediaType, int limit) {
+        return autocompleteIndex.suggest(prefix, mediaType, limit);
+    }
+
+    /**
+     * Get trending media for a region (cached 30 minutes)
+     */
+    public List<MediaMetadataDTO> getTrending(MediaType mediaType, String region, int limit) {
+        return getMediaList(FastApiEndpoint.TRENDING, mediaType, region, trendingTtlSeconds, limit);
+    }
+
+    /**
+     * Get newly released media for a region (cached 1 hour)
+     */
+    public List<MediaMetadataDTO> getNewReleases(MediaType mediaType, String region, int limit) {
+        return getMediaList(FastApiEndpoint.NEW_RELEASES, mediaType, region, newReleasesTtlSeconds, limit);
+    }
+
+    /**
+     * Cached trending media only (never calls FastAPI)
+     */
+    public Optional<List<MediaMetadataDTO>> getCachedTrending(MediaType mediaType, String region, int limit) {
+        return getCachedMediaList(FastApiEndpoint.TRENDING, mediaType, region, limit);
+    }
+
+    /**
+     * Cached new releases only (never calls FastAPI)
+     */
+    public Optional<List<MediaMetadataDTO>> getCachedNewReleases(MediaType mediaType, String region, int limit) {
+        return getCachedMediaList(FastApiEndpoint.NEW_RELEASES, mediaType, region, limit);
+    }
+
+    /**
+     * Re-fetch trending media and overwrite the cached list. Returns false if FastAPI failed.
+     */
+    public boolean refreshTrending(MediaType mediaType, String region) {
+        return refreshMediaList(FastApiEndpoint.TRENDING, mediaType, region, trendingTtlSeconds) != null;
+    }
+
+    /**
+     * Re-fetch new releases and overwrite the cached list. Returns false if FastAPI failed.
+     */
+    public boolean refreshNewReleases(MediaType mediaType, String region) {
+        return refreshMediaList(FastApiEndpoint.NEW_RELEASES, mediaType, region, newReleasesTtlSeconds) != null;
+    }
+
+    /**
+     * Get watch providers for one media item in a region
+     */
+    public Optional<WatchProviderDTO> getWatchProviders(String mediaId, MediaType mediaType, String region) {
+        MediaKey key = new MediaKey(mediaType, mediaId);
+        return Optional.ofNullable(getWatchProviders(List.of(key), region).get(key));
+    }
+
+    /**
+     * Get watch providers for many media items in one region (cached 1 hour).
+     * Cached entries are read with one MGET; misses are fetched with one batched FastAPI call
+     * per 100 items. Items FastAPI could not resolve are absent from the result.
+     */
+    public Map<MediaKey, WatchProviderDTO> getWatchProviders(Collection<MediaKey> items, String region) {
+        String normalizedRegion = normalizeRegion(region);
+        Map<MediaKey, WatchProviderDTO> providers = new LinkedHashMap<>(watchProviderCache.getAll(normalizedRegion, items));
+
+        List<MediaKey> missing = new ArrayList<>();
+        for (MediaKey item : new LinkedHashSet<>(items)) {
+            if (!providers.containsKey(item)) {
+                missing.add(item);
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += PROVIDER_BATCH_SIZE) {
+            List<MediaKey> batch = missing.subList(from, Math.min(from + PROVIDER_BATCH_SIZE, missing.size()));
+            Map<MediaKey, WatchProviderDTO> fetched = fetchWatchProviders(batch, normalizedRegion);
+            if (fetched != null) {
+                watchProviderCache.putAll(normalizedRegion, fetched);
+                providers.putAll(fetched);
+            }
+        }
+        return providers;
+    }
+
+    /**
+     * Get the AI explanation for why a media item is recommended to a user (cached 1 hour)
+     */
+    public Optional<String> getAIExplanation(String mediaId, MediaType mediaType, UUID userId) {
+        String key = explanationKey(userId, mediaType, mediaId);
+        String cached = readCached(key, String.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        String explanation = requestExecutor.execute(FastApiEndpoint.AI_EXPLAIN, () -> fastApiWebClient.post()
+                        .uri("/api/ai/explain")
+                        .bodyValue(explainRequestBody(mediaId, mediaType, userId, false))
+                        .retrieve()
+                        .bodyToMono(ExplanationDTO.class))
+                .mapNotNull(ExplanationDTO::getExplanation)
+                .onErrorResume(e -> {
+                    log.error("Error fetching AI explanation {}:{} for user {}: {}",
+                            mediaType.getValue(), mediaId, userId, e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+
+        if (explanation != null && !explanation.isBlank()) {
+            writeCached(key, explanation, explanationTtlSeconds);
+        }
+        return Optional.ofNullable(explanation);
+    }
+
+    /**
+     * Stream the AI explanation token by token.
+     * A cached explanation is emitted as a single chunk; otherwise tokens are proxied from
+     * FastAPI as they arrive and the full text is cached once the stream completes.
+     */
+    public Flux<String> streamAIExplanation(String mediaId, MediaType mediaType, UUID userId) {
+        String key = explanationKey(userId, mediaType, mediaId);
+        return Mono.fromCallable(() -> readCached(key, String.class))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flux()
+                .switchIfEmpty(Flux.defer(() -> streamExplanationFromFastApi(key, mediaId, mediaType, userId)));
+    }
+
+    private Flux<String> streamExplanationFromFastApi(String key, String mediaId, MediaType mediaType, UUID userId) {
+        StringBuilder text = new StringBuilder();
+        // The adaptive timeout bounds the gap between tokens, not the whole stream
+        Duration idleTimeout = requestExecutor.timeoutFor(FastApiEndpoint.AI_EXPLAIN);
+
+        return fastApiWebClient.post()
+                .uri("/api/ai/explain")
+                .accept(org.springframework.http.MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(explainRequestBody(mediaId, mediaType, userId, true))
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .takeWhile(event -> !STREAM_DONE_EVENT.equals(event.event()))
+                .mapNotNull(ServerSentEvent::data)
+                .timeout(idleTimeout)
+                .doOnNext(text::append)
+                .doOnComplete(() -> {
+                    if (text.length() > 0) {
+                        Schedulers.boundedElastic().schedule(() ->
+                                writeCached(key, text.toString(), explanationTtlSeconds));
+                    }
+                })
+                .doOnError(e -> log.error("Error streaming AI explanation {}:{} for user {}: {}",
+                        mediaType.getValue(), mediaId, userId, e.getMessage()));
+    }
+
+    /**
+     * One FastAPI call for a batch of items; items missing from the response get an empty entry
+     * (no providers in this region). Returns null if the call failed.
+     */
+    private Map<MediaKey, WatchProviderDTO> fetchWatchProviders(List<MediaKey> batch, String region) {
+        List<Map<String, String>> requestItems = new ArrayList<>(batch.size());
+        for (MediaKey item : batch) {
+            requestItems.add(Map.of("mediaId", item.mediaId(), "mediaType", item.mediaType().getValue()));
+        }
+
+        List<WatchProviderDTO> response = requestExecutor.execute(FastApiEndpoint.WATCH_PROVIDERS, () -> fastApiWebClient.post()
+                        .uri("/api/providers/{region}/batch", region)
+                        .bodyValue(Map.of("items", requestItems))
+                        .retrieve()
+                        .bodyToMono(PROVIDER_LIST_TYPE_REF))
+                .onErrorResume(e -> {
+                    log.error("Error fetching watch providers for {} items in region {}: {}",
+                            batch.size(), region, e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+        if (response == null) {
+            return null;
+        }
+
+        Map<MediaKey, WatchProviderDTO> fetched = new HashMap<>();
+        for (WatchProviderDTO providers : response) {
+            if (providers.getMediaType() != null && providers.getMediaId() != null) {
+                fetched.put(new MediaKey(providers.getMediaType(), providers.getMediaId()), providers);
+            }
+        }
+        for (MediaKey item : batch) {
+            fetched.computeIfAbsent(item, key -> WatchProviderDTO.builder()
+                    .mediaId(key.mediaId())
+                    .mediaType(key.mediaType())
+                    .region(region)
+                    .flatrate(List.of())
+                    .rent(List.of())
+                    .buy(List.of())
+                    .build());
+        }
+        return fetched;
+    }
+
+    private List<MediaMetadataDTO> fetchSearchResults(String query, MediaType mediaType, int limit) {
+        return requestExecutor.execute(FastApiEndpoint.SEARCH, () -> fastApiWebClient.get()
+                        .uri(uriBuilder -> {
+                            uriBuilder.path("/api/search")
+                                    .queryParam("q", query)
+                                    .queryParam("limit", limit);
+                            if (mediaType != null) {
+                                uriBuilder.queryParam("type", mediaType.getValue());
+                            }
+                            return uriBuilder.build();
+                        })
+                        .retrieve()
+                        .bodyToMono(MEDIA_LIST_TYPE_REF))
+                .onErrorResume(e -> {
+                    log.error("Error searching '{}': {}", query, e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+    }
+
+    private List<RecommendationDTO> fetchRecommendations(UUID userId, MediaType mediaType) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("limit", LIST_FETCH_SIZE);
+        if (mediaType != null) {
+            body.put("mediaType", mediaType.getValue());
+        }
+
+        return requestExecutor.execute(FastApiEndpoint.RECOMMENDATIONS, () -> fastApiWebClient.post()
+                        .uri("/api/recommendations/user/{userId}", userId)
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(RECOMMENDATION_LIST_TYPE_REF))
+                .onErrorResume(e -> {
+                    log.error("Error fetching recommendations for user {}: {}", userId, e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+    }
+
+    private List<MediaMetadataDTO> fetchSimilarMedia(String mediaId, MediaType mediaType) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("mediaId", mediaId);
+        body.put("mediaType", mediaType.getValue());
+        body.put("limit", LIST_FETCH_SIZE);
+
+        return requestExecutor.execute(FastApiEndpoint.SIMILAR, () -> fastApiWebClient.post()
+                        .uri("/api/recommendations/similar")
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(MEDIA_LIST_TYPE_REF))
+                .onErrorResume(e -> {
+                    log.error("Error fetching media similar to {} {}: {}", mediaType.getValue(), mediaId, e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+    }
+
+    private String recommendationsKey(UUID userId, MediaType mediaType) {
+        return "fastapi:recommendations:" + userId + ":" + (mediaType == null ? "all" : mediaType.getValue());
+    }
+
+    private Optional<List<MediaMetadataDTO>> getCachedMediaList(FastApiEndpoint endpoint, MediaType mediaType,
+                                                                String region, int limit) {
+        List<MediaMetadataDTO> items = readCached(mediaListKey(endpoint, mediaType, region), MEDIA_LIST_TYPE);
+        return Optional.ofNullable(items).map(list -> list.subList(0, Math.min(limit, list.size())));
+    }
+
+    private List<MediaMetadataDTO> getMediaList(FastApiEndpoint endpoint, MediaType mediaType, String region,
+                                                long ttlSeconds, int limit) {
+        List<MediaMetadataDTO> items = readCached(mediaListKey(endpoint, mediaType, region), MEDIA_LIST_TYPE);
+        if (items == null) {
+            items = refreshMediaList(endpoint, mediaType, region, ttlSeconds);
+        }
+        if (items == null) {
+            return List.of();
+        }
+        return items.subList(0, Math.min(limit, items.size()));
+    }
+
+    private List<MediaMetadataDTO> refreshMediaList(FastApiEndpoint endpoint, MediaType mediaType, String region,
+                                                    long ttlSeconds) {
+        String normalizedRegion = normalizeRegion(region);
+        List<MediaMetadataDTO> items = requestExecutor.execute(endpoint, () -> fastApiWebClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/api/media/" + endpoint.getKey() + "/{type}")
+                                .queryParam("region", normalizedRegion)
+                                .queryParam("limit", LIST_FETCH_SIZE)
+                                .build(mediaType.getValue()))
+                        .retrieve()
+                        .bodyToMono(MEDIA_LIST_TYPE_REF))
+                .onErrorResume(e -> {
+                    log.error("Error fetching {} {} for region {}: {}",
+                            endpoint.getKey(), mediaType.getValue(), normalizedRegion, e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+
+        if (items != null) {
+            writeCached(mediaListKey(endpoint, mediaType, normalizedRegion), items, ttlSeconds);
+            autocompleteIndex.addAll(items);
+        }
+        return items;
+    }
+
+    private String mediaListKey(FastApiEndpoint endpoint, MediaType mediaType, String region) {
+        return "fastapi:" + endpoint.getKey() + ":" + mediaType.getValue() + ":" + normalizeRegion(region);
+    }
+
+    private String normalizeRegion(String region) {
+        return region == null || region.isBlank() ? DEFAULT_REGION : region.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private Map<String, Object> explainRequestBody(String mediaId, MediaType mediaType, UUID userId, boolean stream) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("userId", userId);
+        body.put("mediaId", mediaId);
+        body.put("mediaType", mediaType.getValue());
+        body.put("stream", stream);
+        return body;
+    }
+
+    private String explanationKey(UUID userId, MediaType mediaType, String mediaId) {
+        return EXPLANATION_KEY_PREFIX + userId + ":" + mediaType.getValue() + ":" + mediaId;
+    }
+
+    private <T> T readCached(String key, Class<T> type) {
+        try {
+            return codecRegistry.decode(binaryRedisTemplate.opsForValue().get(key), type);
+        } catch (Exception e) {
+            log.error("Error reading cache {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> T readCached(String key, TypeReference<T> type) {
+        try {
+            return codecRegistry.decode(binaryRedisTemplate.opsForValue().get(key), type);
+        } catch (Exception e) {
+            log.error("Error reading cache {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeCached(String key, Object value, long ttlSeconds) {
+        try {
+            binaryRedisTemplate.opsForValue().set(key, codecRegistry.encode(key, value), Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            log.error("Error writing cache {}: {}", key, e.getMessage());
+        }
+    }
+
+    private Mono<MediaMetadataDTO> fetchMediaMetadata(String mediaId, MediaType mediaType) {
+        long start = System.currentTimeMillis();
+        return requestExecutor.execute(FastApiEndpoint.MEDIA_METADATA, () -> fastApiWebClient.get()
+                        .uri("/api/media/{type}/{id}", mediaType.getValue(), mediaId)
+                        .retrieve()
+                        .bodyToMono(MediaMetadataDTO.class))
+                .doOnSuccess(metadata -> log.debug("Fetched metadata {}:{} in {} ms",
+                        mediaType.getValue(), mediaId, System.currentTimeMillis() - start))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())
+                .onErrorResume(e -> {
+                    log.error("Error fetching metadata {}:{}: {}", mediaType.getValue(), mediaId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
+
 // FastAPIService - Integration service for FastAPI Intelligence Layer
 // Handles all communication with the Python FastAPI backend
 //
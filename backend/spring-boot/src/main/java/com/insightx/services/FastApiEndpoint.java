@@ -0,0 +1,39 @@
+package com.insightx.services;
+
+/**
+ * FastAPI endpoints called by FastAPIService
+ * Each endpoint gets its own latency histogram, adaptive timeout and hedging policy.
+ */
+public enum FastApiEndpoint {
+    MEDIA_METADATA("media-metadata", true),
+    WATCH_PROVIDERS("watch-providers", true),
+    SEARCH("search", true),
+    TRENDING("trending", true),
+    NEW_RELEASES("new-releases", true),
+    RECOMMENDATIONS("recommendations", false),
+    SIMILAR("similar", false),
+    AI_EXPLAIN("ai-explain", false),
+    THEMES("themes", false);
+
+    private final String key;
+    private final boolean idempotent;
+
+    FastApiEndpoint(String key, boolean idempotent) {
+        this.key = key;
+        this.idempotent = idempotent;
+    }
+
+    /**
+     * Name used in configuration and metric tags
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Idempotent reads may be hedged with a second request
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+}
@@ -0,0 +1,260 @@
+package com.insightx.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * FastAPI Request Executor - Adaptive timeouts and hedged requests for FastAPI calls
+ *
+ * Every endpoint has its own latency histogram over a 2-minute window. Timeouts, 5xx and I/O
+ * failures count as samples at the timeout; 4xx responses (e.g. not found) are answers and
+ * count at their real latency. Once the window holds enough samples:
+ * - timeout = clamp(p99.9 x factor, floor, endpoint ceiling)
+ * - idempotent GETs send a hedged second request when the p95 has elapsed without
+ *   a response; the first answer wins and the other request is cancelled. A failure of one
+ *   request while the other is still running does not count as an answer.
+ *
+ * Hedges are capped at a fixed share of requests per window, so a slow FastAPI
+ * worker costs a few percent of extra load instead of doubling it.
+ */
+@Component
+public class FastApiRequestExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(FastApiRequestExecutor.class);
+    private static final String METRIC_PREFIX = "fastapi.client";
+    private static final long POLICY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long HEDGE_WINDOW_MS = 10_000;
+    private static final Duration STATISTIC_EXPIRY = Duration.ofMinutes(2);
+    private static final int SAMPLE_BUCKETS = 3;
+
+    @Autowired
+    private FastApiTimeoutProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<FastApiEndpoint, EndpointStats> stats = new EnumMap<>(FastApiEndpoint.class);
+
+    @PostConstruct
+    public void init() {
+        for (FastApiEndpoint endpoint : FastApiEndpoint.values()) {
+            EndpointStats endpointStats = new EndpointStats(endpoint);
+            stats.put(endpoint, endpointStats);
+            Gauge.builder(METRIC_PREFIX + ".timeout", endpointStats, s -> s.policy().timeout.toMillis())
+                    .tag("endpoint", endpoint.getKey())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Execute a FastAPI call with the endpoint's adaptive timeout (and hedging when allowed).
+     * The supplier must build a fresh cold Mono on every invocation.
+     */
+    public <T> Mono<T> execute(FastApiEndpoint endpoint, Supplier<Mono<T>> request) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        Policy policy = endpointStats.policy();
+        endpointStats.windowRequests.incrementAndGet();
+
+        // Attempts still running; a failed attempt yields to a running one instead of ending the call
+        AtomicInteger running = new AtomicInteger(1);
+        Mono<T> call = attempt(endpointStats, request, policy.timeout, running);
+        if (endpoint.isIdempotent() && policy.hedgeDelay != null) {
+            Mono<T> hedge = Mono.delay(policy.hedgeDelay)
+                    .flatMap(tick -> tryAcquireHedge(endpointStats)
+                            ? Mono.defer(() -> {
+                                running.incrementAndGet();
+                                endpointStats.hedges.increment();
+                                return attempt(endpointStats, request, policy.timeout, running);
+                            })
+                            : Mono.<T>never());
+            call = Mono.firstWithSignal(call, hedge);
+        }
+
+        return call.timeout(policy.timeout)
+                .doOnError(TimeoutException.class, e -> {
+                    endpointStats.timeouts.increment();
+                    // A timeout is a sample too, or a too-low timeout could never learn better
+                    endpointStats.record(policy.timeout.toNanos());
+                    log.warn("FastAPI {} timed out after {} ms", endpoint.getKey(), policy.timeout.toMillis());
+                });
+    }
+
+    /**
+     * Current timeout for an endpoint (for callers that budget their own work)
+     */
+    public Duration timeoutFor(FastApiEndpoint endpoint) {
+        return stats.get(endpoint).policy().timeout;
+    }
+
+    private <T> Mono<T> attempt(EndpointStats endpointStats, Supplier<Mono<T>> request, Duration timeout,
+                                AtomicInteger running) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return request.get()
+                    .doOnSuccess(value -> endpointStats.record(System.nanoTime() - start))
+                    .onErrorResume(e -> {
+                        boolean answer = isClientError(e);
+                        if (answer) {
+                            endpointStats.record(System.nanoTime() - start);
+                        } else {
+                            endpointStats.errors.increment();
+                            // Failures count as slow as the timeout, so they push the policy up, not down
+                            endpointStats.record(timeout.toNanos());
+                        }
+                        // A 4xx is final; any other failure waits for the other attempt if one is running
+                        return running.decrementAndGet() > 0 && !answer ? Mono.never() : Mono.error(e);
+                    });
+        });
+    }
+
+    /**
+     * A 4xx is FastAPI's answer (the same on a retry), not a sign of a slow or failing server
+     */
+    private static boolean isClientError(Throwable e) {
+        return e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError();
+    }
+
+    private boolean tryAcquireHedge(EndpointStats endpointStats) {
+        long now = System.currentTimeMillis();
+        long windowStart = endpointStats.windowStart.get();
+        if (now - windowStart > HEDGE_WINDOW_MS && endpointStats.windowStart.compareAndSet(windowStart, now)) {
+            endpointStats.windowRequests.set(1);
+            endpointStats.windowHedges.set(0);
+        }
+
+        long allowed = (long) Math.floor(endpointStats.windowRequests.get() * properties.getHedgeMaxRatio());
+        if (endpointStats.windowHedges.incrementAndGet() > Math.max(1, allowed)) {
+            endpointStats.windowHedges.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Per-endpoint latency histogram, counters and the cached timeout/hedge policy
+     */
+    private class EndpointStats {
+        private final FastApiEndpoint endpoint;
+        private final Timer latency;
+        private final Counter errors;
+        private final Counter timeouts;
+        private final Counter hedges;
+        private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+        private final AtomicLong windowRequests = new AtomicLong();
+        private final AtomicLong windowHedges = new AtomicLong();
+        private final long[] sampleBuckets = new long[SAMPLE_BUCKETS];
+        private final long[] sampleBucketIds = new long[SAMPLE_BUCKETS];
+        private volatile Policy cachedPolicy;
+
+        EndpointStats(FastApiEndpoint endpoint) {
+            this.endpoint = endpoint;
+            String tag = endpoint.getKey();
+            this.latency = Timer.builder(METRIC_PREFIX + ".latency")
+                    .tag("endpoint", tag)
+                    .publishPercentiles(0.5, 0.95, 0.999)
+                    .distributionStatisticExpiry(STATISTIC_EXPIRY)
+                    .distributionStatisticBufferLength(SAMPLE_BUCKETS)
+                    .register(meterRegistry);
+            this.errors = Counter.builder(METRIC_PREFIX + ".errors").tag("endpoint", tag).register(meterRegistry);
+            this.timeouts = Counter.builder(METRIC_PREFIX + ".timeouts").tag("endpoint", tag).register(meterRegistry);
+            this.hedges = Counter.builder(METRIC_PREFIX + ".hedges").tag("endpoint", tag).register(meterRegistry);
+        }
+
+        void record(long nanos) {
+            latency.record(nanos, TimeUnit.NANOSECONDS);
+            synchronized (sampleBuckets) {
+                long bucketId = bucketId();
+                int slot = (int) (bucketId % SAMPLE_BUCKETS);
+                if (sampleBucketIds[slot] != bucketId) {
+                    sampleBucketIds[slot] = bucketId;
+                    sampleBuckets[slot] = 0;
+                }
+                sampleBuckets[slot]++;
+            }
+        }
+
+        /**
+         * Samples behind the current percentiles: same window as the histogram's rotating buffers
+         */
+        long windowSamples() {
+            synchronized (sampleBuckets) {
+                long bucketId = bucketId();
+                long samples = 0;
+                for (int slot = 0; slot < SAMPLE_BUCKETS; slot++) {
+                    if (bucketId - sampleBucketIds[slot] < SAMPLE_BUCKETS) {
+                        samples += sampleBuckets[slot];
+                    }
+                }
+                return samples;
+            }
+        }
+
+        private long bucketId() {
+            // The registry clock, so the window turns over together with the histogram's buffers
+            return meterRegistry.config().clock().monotonicTime() / (STATISTIC_EXPIRY.toNanos() / SAMPLE_BUCKETS);
+        }
+
+        Policy policy() {
+            Policy policy = cachedPolicy;
+            long now = System.nanoTime();
+            if (policy != null && now - policy.computedAt < POLICY_REFRESH_NANOS) {
+                return policy;
+            }
+            policy = computePolicy(now);
+            cachedPolicy = policy;
+            return policy;
+        }
+
+        private Policy computePolicy(long now) {
+            long ceilingMs = properties.ceilingFor(endpoint);
+            Policy fallback = new Policy(Duration.ofMillis(ceilingMs), null, now);
+            // Percentiles decay with the window, so an idle endpoint must not be judged on its old count
+            if (!properties.isEnabled() || windowSamples() < properties.getMinSamples()) {
+                return fallback;
+            }
+
+            double p95 = 0;
+            double p999 = 0;
+            for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+                if (value.percentile() == 0.95) {
+                    p95 = value.value(TimeUnit.MILLISECONDS);
+                } else if (value.percentile() == 0.999) {
+                    p999 = value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+
+            if (p95 <= 0 || p999 <= 0) {
+                return fallback;
+            }
+
+            long timeoutMs = Math.max(properties.getFloorMs(),
+                    Math.min(ceilingMs, (long) Math.ceil(p999 * properties.getFactor())));
+            long hedgeDelayMs = Math.max(properties.getMinHedgeDelayMs(), (long) Math.ceil(p95));
+            Duration hedgeDelay = hedgeDelayMs < timeoutMs ? Duration.ofMillis(hedgeDelayMs) : null;
+            return new Policy(Duration.ofMillis(timeoutMs), hedgeDelay, now);
+        }
+    }
+
+    private record Policy(Duration timeout, Duration hedgeDelay, long computedAt) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.insightx.services;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adaptive timeout and hedging settings for FastAPI calls (fastapi.adaptive.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "fastapi.adaptive")
+public class FastApiTimeoutProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Adaptive timeout = p99.9 latency x factor
+     */
+    private double factor = 2.0;
+
+    /**
+     * Successful calls needed before the histogram drives timeouts and hedging
+     */
+    private long minSamples = 200;
+
+    /**
+     * Lower bound for adaptive timeouts
+     */
+    private long floorMs = 250;
+
+    /**
+     * Lower bound for the hedge delay
+     */
+    private long minHedgeDelayMs = 20;
+
+    /**
+     * Maximum share of requests that may send a hedge (caps extra load)
+     */
+    private double hedgeMaxRatio = 0.05;
+
+    /**
+     * Per-endpoint timeout used before enough samples exist and as the upper bound afterwards
+     */
+    private Map<String, Long> endpoints = new HashMap<>();
+
+    private long defaultTimeoutMs = 10000;
+
+    public long ceilingFor(FastApiEndpoint endpoint) {
+        return endpoints.getOrDefault(endpoint.getKey(), defaultTimeoutMs);
+    }
+}
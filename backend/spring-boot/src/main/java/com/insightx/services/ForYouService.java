@@ -0,0 +1,122 @@
+package com.insightx.services;
+
+import com.insightx.dto.ForYouDTO;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.dto.RecommendationDTO;
+import com.insightx.entities.MediaType;
+import com.insightx.entities.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * For You Service - Assembles the "For You" page from concurrently fetched sections
+ *
+ * Sections (personalized, trending, new releases) are fetched in parallel and joined with
+ * Mono.zip, so page latency is the slowest section rather than the sum. Each section has
+ * its own deadline; a section that misses it falls back to its cached value (or empty) and
+ * the page is returned with whatever completed in time.
+ *
+ * A section that misses its deadline is not cancelled: the FastAPI call keeps running and
+ * fills the cache, so the next request gets the fresh section.
+ */
+@Service
+public class ForYouService {
+
+    private static final Logger log = LoggerFactory.getLogger(ForYouService.class);
+    private static final String STATUS_OK = "ok";
+    private static final String STATUS_CACHED = "cached";
+    private static final String STATUS_UNAVAILABLE = "unavailable";
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insightx.for-you.deadline-ms.recommended:3000}")
+    private long recommendedDeadlineMs;
+
+    @Value("${insightx.for-you.deadline-ms.trending:1500}")
+    private long trendingDeadlineMs;
+
+    @Value("${insightx.for-you.deadline-ms.new-releases:1500}")
+    private long newReleasesDeadlineMs;
+
+    public ForYouDTO getForYou(User user, MediaType mediaType, int limit) {
+        String region = user.getRegion();
+
+        Mono<Section<RecommendationDTO>> recommended = section("recommended", recommendedDeadlineMs,
+                () -> fastAPIService.getRecommendations(user.getId(), mediaType, limit),
+                () -> fastAPIService.getCachedRecommendations(user.getId(), mediaType, limit));
+        Mono<Section<MediaMetadataDTO>> trending = section("trending", trendingDeadlineMs,
+                () -> trendingService.getTrending(mediaType, region, limit),
+                () -> fastAPIService.getCachedTrending(mediaType, region, limit));
+        Mono<Section<MediaMetadataDTO>> newReleases = section("new-releases", newReleasesDeadlineMs,
+                () -> fastAPIService.getNewReleases(mediaType, region, limit),
+                () -> fastAPIService.getCachedNewReleases(mediaType, region, limit));
+
+        return Mono.zip(recommended, trending, newReleases)
+                .map(sections -> {
+                    Map<String, String> status = new LinkedHashMap<>();
+                    status.put("recommended", sections.getT1().status());
+                    status.put("trending", sections.getT2().status());
+                    status.put("newReleases", sections.getT3().status());
+                    return ForYouDTO.builder()
+                            .recommended(sections.getT1().items())
+                            .trending(sections.getT2().items())
+                            .newReleases(sections.getT3().items())
+                            .sectionStatus(status)
+                            .build();
+                })
+                .block();
+    }
+
+    /**
+     * Fetch one section on a worker thread, bounded by its deadline.
+     * Never errors: timeouts and failures resolve to the cached value or an empty list.
+     */
+    private <T> Mono<Section<T>> section(String name, long deadlineMs, Supplier<List<T>> fetch,
+                                         Supplier<Optional<List<T>>> cached) {
+        CompletableFuture<List<T>> future = CompletableFuture.supplyAsync(fetch,
+                task -> Schedulers.boundedElastic().schedule(task));
+
+        // suppressCancel: a timed-out fetch still completes in the background and populates the cache
+        return Mono.fromFuture(future, true)
+                .map(items -> new Section<>(items, STATUS_OK))
+                .timeout(Duration.ofMillis(deadlineMs))
+                .onErrorResume(e -> {
+                    boolean timedOut = e instanceof TimeoutException;
+                    meterRegistry.counter("recommendations.for_you.fallbacks",
+                            "section", name, "reason", timedOut ? "timeout" : "error").increment();
+                    if (!timedOut) {
+                        log.error("For You section {} failed: {}", name, e.getMessage());
+                    }
+                    return Mono.fromCallable(() -> cached.get()
+                                    .map(items -> new Section<>(items, STATUS_CACHED))
+                                    .orElseGet(() -> new Section<>(List.of(), STATUS_UNAVAILABLE)))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .onErrorReturn(new Section<>(List.of(), STATUS_UNAVAILABLE));
+                });
+    }
+
+    private record Section<T>(List<T> items, String status) {
+    }
+}
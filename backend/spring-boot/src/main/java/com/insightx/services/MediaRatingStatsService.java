@@ -0,0 +1,233 @@
+package com.insightx.services;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.entities.MediaGenre;
+import com.insightx.entities.MediaRatingStats;
+import com.insightx.entities.MediaType;
+import com.insightx.events.RatingChangedEvent;
+import com.insightx.jobs.JobCoordinator;
+import com.insightx.repositories.MediaGenreRepository;
+import com.insightx.repositories.MediaRatingStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Media Rating Stats Service - Pre-aggregated rating statistics and genre top-N
+ *
+ * RatingService applies every rating change to media_rating_stats (count, sum, sum of squares,
+ * Bayesian average) inside the rating's transaction, so the statistics never drift from the
+ * ratings table. The genres of a newly rated item are fetched from the metadata caches after
+ * commit and written to media_genres with a copy of the average; items whose metadata was
+ * unavailable are retried by a backfill job, each at most once per retry interval. Genre top-N is then a range scan of
+ * (genre, bayesian_average DESC) instead of a GROUP BY over ratings.
+ *
+ * Bayesian average = (priorWeight * priorMean + sum) / (priorWeight + count): an item with
+ * few ratings is pulled towards priorMean, so one 10/10 does not top a genre.
+ */
+@Service
+public class MediaRatingStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(MediaRatingStatsService.class);
+    private static final int METADATA_CONCURRENCY = 8;
+
+    @Autowired
+    private MediaRatingStatsRepository statsRepository;
+
+    @Autowired
+    private MediaGenreRepository genreRepository;
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Changing the prior takes effect for all items at the next reconcile run
+    @Value("${insightx.rating-stats.prior-mean:6.0}")
+    private double priorMean;
+
+    @Value("${insightx.rating-stats.prior-weight:10}")
+    private double priorWeight;
+
+    @Value("${insightx.rating-stats.genre-backfill-batch:200}")
+    private int genreBackfillBatch;
+
+    @Value("${insightx.rating-stats.genre-backfill-interval-ms:300000}")
+    private long genreBackfillIntervalMs;
+
+    @Value("${insightx.rating-stats.genre-backfill-retry-ms:3600000}")
+    private long genreBackfillRetryMs;
+
+    @Value("${insightx.rating-stats.reconcile-interval-ms:86400000}")
+    private long reconcileIntervalMs;
+
+    /**
+     * Apply one rating change (previous null = new rating, current null = deleted rating);
+     * joins the caller's transaction
+     */
+    @Transactional
+    public void applyRatingChange(MediaType mediaType, String mediaId, Integer previous, Integer current) {
+        long countDelta = (current != null ? 1 : 0) - (previous != null ? 1 : 0);
+        long sumDelta = value(current) - value(previous);
+        long squaresDelta = value(current) * value(current) - value(previous) * value(previous);
+        if (countDelta == 0 && sumDelta == 0) {
+            return;
+        }
+        statsRepository.applyDelta(mediaType.name(), mediaId, countDelta, sumDelta, squaresDelta,
+                priorMean, priorWeight);
+    }
+
+    /**
+     * Load genres for an item's first rating, off the request thread
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        if (event.previousRating() != null || event.rating() == null) {
+            return;
+        }
+        try {
+            Optional<MediaRatingStats> stats = statsRepository.findById(
+                    new MediaRatingStats.Key(event.mediaType(), event.mediaId()));
+            if (stats.isPresent() && stats.get().getGenresLoadedAt() == null) {
+                loadGenres(new MediaKey(event.mediaType(), event.mediaId()));
+            }
+        } catch (Exception e) {
+            log.error("Error loading genres for {}:{}: {}", event.mediaType(), event.mediaId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Best rated media of a genre (mediaType null = all types), with metadata from the near cache
+     * looked up in parallel (a listing is not an access to each item)
+     */
+    public List<MediaMetadataDTO> getTopRated(String genre, MediaType mediaType, int limit) {
+        String normalized = normalizeGenre(genre);
+        PageRequest page = PageRequest.of(0, limit);
+        List<MediaGenre> top = mediaType == null
+                ? genreRepository.findTopByGenre(normalized, page)
+                : genreRepository.findTopByGenreAndMediaType(normalized, mediaType, page);
+
+        List<MediaMetadataDTO> result = Flux.fromIterable(top)
+                .flatMapSequential(item -> Mono.fromCallable(() ->
+                                        fastAPIService.lookupMediaMetadata(item.getMediaId(), item.getMediaType()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMap(Mono::justOrEmpty)
+                        .onErrorResume(e -> Mono.empty()), METADATA_CONCURRENCY)
+                .collectList()
+                .block();
+        return result != null ? result : List.of();
+    }
+
+    /**
+     * Load genres of rated items that have none yet; runs on one node per interval (JobCoordinator)
+     */
+    @Scheduled(fixedDelayString = "${insightx.rating-stats.genre-backfill-interval-ms:300000}")
+    public void backfillGenres() {
+        jobCoordinator.runPeriodic("rating-stats-genres", Duration.ofMillis(genreBackfillIntervalMs), () -> {
+            int loaded = 0;
+            LocalDateTime now = LocalDateTime.now();
+            List<MediaRatingStats> pending = statsRepository.findGenresPending(
+                    now.minus(Duration.ofMillis(genreBackfillRetryMs)), PageRequest.of(0, genreBackfillBatch));
+            for (MediaRatingStats stats : pending) {
+                MediaKey key = new MediaKey(stats.getMediaType(), stats.getMediaId());
+                boolean ok;
+                try {
+                    ok = loadGenres(key);
+                } catch (Exception e) {
+                    log.error("Error loading genres for {}: {}", key, e.getMessage());
+                    ok = false;
+                }
+                if (ok) {
+                    loaded++;
+                } else {
+                    // Moves the item behind the rest of the queue until the retry interval has passed
+                    transactionTemplate.executeWithoutResult(status ->
+                            statsRepository.markGenresAttempted(key.mediaType(), key.mediaId(), now));
+                }
+            }
+            if (!pending.isEmpty()) {
+                log.info("Loaded genres for {}/{} rated media items", loaded, pending.size());
+            }
+        });
+    }
+
+    /**
+     * Apply the configured prior to all averages and re-copy averages that drifted into
+     * media_genres; runs on one node per interval (JobCoordinator)
+     */
+    @Scheduled(fixedDelayString = "${insightx.rating-stats.reconcile-interval-ms:86400000}",
+               initialDelayString = "${insightx.rating-stats.reconcile-initial-delay-ms:600000}")
+    public void reconcile() {
+        jobCoordinator.runPeriodic("rating-stats-reconcile", Duration.ofMillis(reconcileIntervalMs), () -> {
+            Integer[] updated = transactionTemplate.execute(status -> new Integer[]{
+                    statsRepository.reapplyPrior(priorMean, priorWeight),
+                    genreRepository.syncFromStats()});
+            log.info("Reconciled rating stats: {} averages recomputed, {} genre rows re-synced",
+                    updated[0], updated[1]);
+        });
+    }
+
+    /**
+     * Canonical genre form shared by stored genres and path variables ("Sci-Fi" and
+     * " sci fi " both become "sci-fi")
+     */
+    public static String normalizeGenre(String genre) {
+        String normalized = genre.trim().toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", "-");
+        return normalized.replaceAll("^-+|-+$", "");
+    }
+
+    /**
+     * Replace an item's genre rows from its metadata; false if the metadata is unavailable
+     */
+    private boolean loadGenres(MediaKey key) {
+        Optional<List<String>> genres = fastAPIService.getMediaGenres(key.mediaId(), key.mediaType());
+        if (genres.isEmpty()) {
+            return false;
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String genre : genres.get()) {
+            String value = genre == null ? "" : normalizeGenre(genre);
+            if (!value.isEmpty() && value.length() <= 100) {
+                normalized.add(value);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            genreRepository.deleteByMedia(key.mediaType(), key.mediaId());
+            for (String genre : normalized) {
+                genreRepository.insertFromStats(key.mediaType().name(), key.mediaId(), genre);
+            }
+            statsRepository.markGenresLoaded(key.mediaType(), key.mediaId(), LocalDateTime.now());
+        });
+        return true;
+    }
+
+    private static long value(Integer rating) {
+        return rating == null ? 0 : rating;
+    }
+}
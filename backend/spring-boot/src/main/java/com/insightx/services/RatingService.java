@@ -1,5 +1,122 @@
 package com.insightx.services;
 
+import com.insightx.dto.RatingDTO;
+import com.insightx.dto.RatingRequest;
+import com.insightx.entities.MediaType;
+import com.insightx.entities.Rating;
+import com.insightx.events.RatingChangedEvent;
+import com.insightx.exceptions.ResourceNotFoundException;
+import com.insightx.repositories.RatingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Rating Service - Manages user ratings for media content
+ *
+ * Every change of a rating value publishes RatingChangedEvent; the taste profile applies
+ * it as an incremental delta after the transaction commits. The item's pre-aggregated
+ * rating statistics are updated in the same transaction as the rating. The existing rating row
+ * is locked while it changes, so concurrent changes of one rating apply their deltas in turn.
+ */
+@Service
+public class RatingService {
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private MediaRatingStatsService mediaRatingStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Create or update the user's rating for a media item
+     */
+    @Transactional
+    public RatingDTO submitRating(UUID userId, RatingRequest request) {
+        Optional<Rating> existing = ratingRepository.findForUpdate(
+                userId, request.getMediaId(), request.getMediaType());
+
+        Integer previousRating = existing.map(Rating::getRating).orElse(null);
+        LocalDateTime previousRatedAt = existing.map(Rating::getUpdatedAt).orElse(null);
+
+        Rating rating = existing.orElseGet(() -> Rating.builder()
+                .userId(userId)
+                .mediaId(request.getMediaId())
+                .mediaType(request.getMediaType())
+                .build());
+        rating.setRating(request.getRating());
+        if (request.getVisibility() != null) {
+            rating.setVisibility(request.getVisibility());
+        }
+        // Flush so the timestamps are populated for the event
+        Rating saved = ratingRepository.saveAndFlush(rating);
+
+        if (!Objects.equals(previousRating, saved.getRating())) {
+            mediaRatingStatsService.applyRatingChange(saved.getMediaType(), saved.getMediaId(),
+                    previousRating, saved.getRating());
+            eventPublisher.publishEvent(new RatingChangedEvent(userId, saved.getMediaType(), saved.getMediaId(),
+                    previousRating, previousRatedAt, saved.getRating(), saved.getUpdatedAt(),
+                    ratingRepository.databaseNow()));
+        }
+        return toDTO(saved);
+    }
+
+    /**
+     * Delete the user's rating for a media item
+     */
+    @Transactional
+    public void deleteRating(UUID userId, String mediaId, MediaType mediaType) {
+        Rating rating = ratingRepository.findForUpdate(userId, mediaId, mediaType)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Rating not found: " + mediaType.getValue() + "/" + mediaId));
+        ratingRepository.delete(rating);
+        mediaRatingStatsService.applyRatingChange(mediaType, mediaId, rating.getRating(), null);
+
+        eventPublisher.publishEvent(new RatingChangedEvent(userId, mediaType, mediaId,
+                rating.getRating(), rating.getUpdatedAt(), null, null, ratingRepository.databaseNow()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RatingDTO> getRatingForMedia(UUID userId, String mediaId, MediaType mediaType) {
+        return ratingRepository.findByUserIdAndMediaIdAndMediaType(userId, mediaId, mediaType)
+                .map(this::toDTO);
+    }
+
+    /**
+     * User's ratings, newest first (mediaType null = all types)
+     */
+    @Transactional(readOnly = true)
+    public Page<RatingDTO> getUserRatings(UUID userId, MediaType mediaType, Pageable pageable) {
+        Page<Rating> ratings = mediaType == null
+                ? ratingRepository.findByUserId(userId, pageable)
+                : ratingRepository.findByUserIdAndMediaType(userId, mediaType, pageable);
+        return ratings.map(this::toDTO);
+    }
+
+    private RatingDTO toDTO(Rating rating) {
+        return RatingDTO.builder()
+                .mediaId(rating.getMediaId())
+                .mediaType(rating.getMediaType())
+                .rating(rating.getRating())
+                .visibility(rating.getVisibility())
+                .createdAt(rating.getCreatedAt())
+                .updatedAt(rating.getUpdatedAt())
+                .build();
+    }
+}
+
+
 // RatingService - Manages user ratings for media content
 //
 // Responsibilities:
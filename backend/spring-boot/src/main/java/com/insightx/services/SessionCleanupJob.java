@@ -0,0 +1,61 @@
+package com.insightx.services;
+
+import com.insightx.jobs.JobCoordinator;
+import com.insightx.repositories.UserSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Session Cleanup Job - Deletes expired user sessions
+ *
+ * Runs on one node per interval (JobCoordinator) and deletes in small batches, each in its
+ * own transaction, so the job never holds long locks on user_sessions.
+ */
+@Component
+public class SessionCleanupJob {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionCleanupJob.class);
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${insightx.jobs.session-cleanup.interval-ms:3600000}")
+    private long intervalMs;
+
+    @Value("${insightx.jobs.session-cleanup.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${insightx.jobs.session-cleanup.interval-ms:3600000}",
+               initialDelayString = "${insightx.jobs.session-cleanup.initial-delay-ms:300000}")
+    public void cleanup() {
+        jobCoordinator.runPeriodic("session-cleanup", Duration.ofMillis(intervalMs), this::deleteExpired);
+    }
+
+    private void deleteExpired() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        long deleted = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> userSessionRepository.deleteExpiredBatch(cutoff, batchSize));
+            deleted += batch;
+        } while (batch == batchSize);
+
+        if (deleted > 0) {
+            log.info("Deleted {} expired user sessions", deleted);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.insightx.services;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.similarity.ItemSimilarityIndex;
+import com.insightx.similarity.ItemSimilarityModel;
+import com.insightx.similarity.ItemSimilarityProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Similar Media Service - "More like this" for a media item
+ *
+ * Served from the local item-item similarity model (what users who liked this also liked),
+ * with metadata from the near cache. Cold items with too few local neighbours fall back to
+ * FastAPI's content-based similarity.
+ */
+@Service
+public class SimilarMediaService {
+
+    @Autowired
+    private ItemSimilarityIndex itemSimilarityIndex;
+
+    @Autowired
+    private ItemSimilarityProperties properties;
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public List<MediaMetadataDTO> getSimilarMedia(MediaKey item, int limit) {
+        List<ItemSimilarityModel.SimilarItem> neighbors = itemSimilarityIndex.findSimilar(item, limit);
+        if (neighbors.size() < Math.min(limit, properties.getMinNeighbors())) {
+            meterRegistry.counter("similar_media.requests", "source", "fastapi").increment();
+            return fastAPIService.getSimilarMedia(item.mediaId(), item.mediaType(), limit);
+        }
+
+        meterRegistry.counter("similar_media.requests", "source", "local").increment();
+        List<MediaMetadataDTO> similar = new ArrayList<>(neighbors.size());
+        for (ItemSimilarityModel.SimilarItem neighbor : neighbors) {
+            fastAPIService.getMediaMetadata(neighbor.mediaKey().mediaId(), neighbor.mediaKey().mediaType())
+                    .ifPresent(similar::add);
+        }
+        return similar;
+    }
+}
@@ -0,0 +1,39 @@
+package com.insightx.services;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Taste profile update queue settings (insightx.taste-profile.queue.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "insightx.taste-profile.queue")
+public class TasteProfileQueueProperties {
+
+    /**
+     * A user's changes are processed once no new change arrived for this long
+     */
+    private long quietMs = 2000;
+
+    /**
+     * Upper bound on how long a user's first pending change may wait (continuous raters)
+     */
+    private long maxDelayMs = 30000;
+
+    /**
+     * Worker threads applying profile updates
+     */
+    private int workers = 4;
+
+    /**
+     * How often due users are handed to the workers
+     */
+    private long tickMs = 200;
+
+    /**
+     * Pending changes per user above which the profile is rebuilt instead (bulk imports)
+     */
+    private int rebuildThreshold = 50;
+}
@@ -1,5 +1,284 @@
 package com.insightx.services;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.TasteProfileDTO;
+import com.insightx.entities.Rating;
+import com.insightx.entities.TasteProfile;
+import com.insightx.events.RatingChangedEvent;
+import com.insightx.events.TasteProfileUpdatedEvent;
+import com.insightx.repositories.RatingRepository;
+import com.insightx.repositories.TasteProfileRepository;
+import com.insightx.vectors.TasteVectorizer;
+import com.insightx.vectors.TasteVectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Taste Profile Service - Maintains user taste profiles from rating changes
+ *
+ * Profiles keep running statistics (TasteProfileStats) in profile_data.stats, so each
+ * rating change is applied as a small delta under the profile's row lock instead of
+ * re-reading every rating. Profiles without stats (schema version 1) are rebuilt in full
+ * once, then updated incrementally. The derived fields (genrePreferences, averageRating, ...)
+ * are written next to the stats so readers never need to recompute them, together with the
+ * profile's taste vector (TasteVectorizer) for similarity computations.
+ *
+ * Rating changes arrive in debounced per-user batches from TasteProfileUpdateQueue.
+ */
+@Service
+public class TasteProfileService {
+
+    private static final Logger log = LoggerFactory.getLogger(TasteProfileService.class);
+    private static final int STATS_VERSION = 2;
+    private static final String STATS_FIELD = "stats";
+    private static final double HARSH_CRITIC_AVERAGE = 6.0;
+    private static final double GENEROUS_RATER_AVERAGE = 8.0;
+    private static final TypeReference<Map<String, Object>> PROFILE_DATA_TYPE = new TypeReference<>() { };
+
+    @Autowired
+    private TasteProfileRepository tasteProfileRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TasteVectorizer tasteVectorizer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${insightx.taste-profile.min-ratings:5}")
+    private int minRatings;
+
+    @Value("${insightx.taste-profile.half-life-days:180}")
+    private double halfLifeDays;
+
+    /**
+     * Apply a user's rating changes, in order, as deltas in one transaction
+     * (falls back to a full rebuild for profiles without stats, or when a removal cannot be
+     * undone exactly because the item's genres are unavailable)
+     */
+    public void applyRatingChanges(UUID userId, List<RatingChangedEvent> events) {
+        // Metadata is fetched before taking the row lock, so FastAPI latency never holds it
+        Map<MediaKey, List<String>> genres = new HashMap<>();
+        for (RatingChangedEvent event : events) {
+            MediaKey key = new MediaKey(event.mediaType(), event.mediaId());
+            if (genresFor(genres, key) == null) {
+                log.warn("No metadata for {}; applying rating change without genres", key);
+            }
+        }
+
+        Boolean rebuild = transactionTemplate.execute(status -> {
+            TasteProfile profile = lockProfile(userId);
+            TasteProfileStats stats = readStats(profile);
+            if (stats == null) {
+                return true;
+            }
+
+            long now = System.currentTimeMillis();
+            double decay = decayPerMilli();
+            boolean exact = true;
+            for (RatingChangedEvent event : events) {
+                long changedAt = toMillis(event.changedAt());
+                if (changedAt > 0 && changedAt <= stats.getRebuiltAt()) {
+                    // Committed before the rebuild read the ratings, so already counted
+                    continue;
+                }
+                List<String> eventGenres = genres.get(new MediaKey(event.mediaType(), event.mediaId()));
+                if (event.previousRating() != null) {
+                    exact &= stats.remove(event.mediaType(), event.mediaId(), eventGenres, event.previousRating(),
+                            toMillis(event.previousRatedAt()), decay, now);
+                }
+                if (event.rating() != null) {
+                    stats.add(event.mediaType(), event.mediaId(), eventGenres, event.rating(),
+                            toMillis(event.ratedAt()), decay, now);
+                }
+            }
+            writeProfile(profile, stats);
+            return !exact;
+        });
+
+        if (!Boolean.FALSE.equals(rebuild)) {
+            rebuildProfile(userId);
+        }
+    }
+
+    /**
+     * Recompute a profile from all of the user's ratings
+     */
+    public TasteProfileDTO rebuildProfile(UUID userId) {
+        // Warm genres outside the transaction; ratings added meanwhile are looked up under the lock
+        Map<MediaKey, List<String>> genres = new HashMap<>();
+        for (Rating rating : ratingRepository.findByUserId(userId)) {
+            genresFor(genres, new MediaKey(rating.getMediaType(), rating.getMediaId()));
+        }
+
+        return transactionTemplate.execute(status -> {
+            TasteProfile profile = lockProfile(userId);
+            long now = System.currentTimeMillis();
+            double decay = decayPerMilli();
+
+            TasteProfileStats stats = new TasteProfileStats();
+            for (Rating rating : ratingRepository.findByUserId(userId)) {
+                List<String> ratingGenres = genresFor(genres, new MediaKey(rating.getMediaType(), rating.getMediaId()));
+                stats.add(rating.getMediaType(), rating.getMediaId(), ratingGenres, rating.getRating(),
+                        toMillis(rating.getUpdatedAt()), decay, now);
+            }
+            // Database clock, taken after the read: changes stamped at or before it were read above
+            stats.setRebuiltAt(toMillis(ratingRepository.databaseNow()));
+            writeProfile(profile, stats);
+            log.debug("Rebuilt taste profile for user {} from {} ratings", userId, stats.getRating().getCount());
+            return toDTO(stats, profile.getLastCalculated());
+        });
+    }
+
+    /**
+     * Current taste profile of a user (rebuilt first if it has no stats yet)
+     */
+    public TasteProfileDTO getTasteProfile(UUID userId) {
+        Optional<TasteProfile> profile = tasteProfileRepository.findByUserId(userId);
+        TasteProfileStats stats = profile.map(this::readStats).orElse(null);
+        if (stats != null) {
+            return toDTO(stats, profile.get().getLastCalculated());
+        }
+        if (ratingRepository.countByUserId(userId) == 0) {
+            return toDTO(new TasteProfileStats(), null);
+        }
+        return rebuildProfile(userId);
+    }
+
+    /**
+     * The user's L2-normalized taste vector (empty until the profile has ratings)
+     */
+    public Optional<float[]> getTasteVector(UUID userId) {
+        return tasteProfileRepository.findByUserId(userId)
+                .map(TasteProfile::getTasteVector)
+                .map(TasteVectors::decode);
+    }
+
+    /**
+     * Raw statistics behind the user's profile (empty until the profile has been built)
+     */
+    public Optional<TasteProfileStats> getStats(UUID userId) {
+        return tasteProfileRepository.findByUserId(userId).map(this::readStats);
+    }
+
+    private TasteProfile lockProfile(UUID userId) {
+        tasteProfileRepository.insertIfAbsent(userId);
+        return tasteProfileRepository.findByUserIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Taste profile row missing for user " + userId));
+    }
+
+    private TasteProfileStats readStats(TasteProfile profile) {
+        if (profile.getVersion() == null || profile.getVersion() < STATS_VERSION || profile.getProfileData() == null) {
+            return null;
+        }
+        Object stats = profile.getProfileData().get(STATS_FIELD);
+        if (stats == null) {
+            return null;
+        }
+        try {
+            return objectMapper.convertValue(stats, TasteProfileStats.class);
+        } catch (IllegalArgumentException e) {
+            log.warn("Unreadable taste profile stats for user {}: {}", profile.getUserId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeProfile(TasteProfile profile, TasteProfileStats stats) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> data = new LinkedHashMap<>(objectMapper.convertValue(toDTO(stats, null), PROFILE_DATA_TYPE));
+        data.remove("lastCalculated");
+        data.put(STATS_FIELD, objectMapper.convertValue(stats, PROFILE_DATA_TYPE));
+
+        float[] vector = tasteVectorizer.toVector(stats);
+        profile.setProfileData(data);
+        profile.setTasteVector(vector != null ? TasteVectors.encode(vector) : null);
+        profile.setVersion(STATS_VERSION);
+        profile.setLastCalculated(now);
+        tasteProfileRepository.save(profile);
+        eventPublisher.publishEvent(new TasteProfileUpdatedEvent(profile.getUserId()));
+    }
+
+    private TasteProfileDTO toDTO(TasteProfileStats stats, LocalDateTime lastCalculated) {
+        Map<String, Double> genrePreferences = new LinkedHashMap<>();
+        stats.getGenres().entrySet().stream()
+                .sorted(Map.Entry.<String, TasteProfileStats.GenreStats>comparingByValue(
+                        (a, b) -> Double.compare(b.decayedAverage(), a.decayedAverage())))
+                .forEach(entry -> genrePreferences.put(entry.getKey(),
+                        round(Math.max(0, Math.min(1, (entry.getValue().decayedAverage() - 1) / 9)))));
+
+        long total = stats.getRating().getCount();
+        Map<String, Integer> distribution = new LinkedHashMap<>();
+        stats.getMediaTypes().forEach((type, count) ->
+                distribution.put(type, (int) Math.round(100.0 * count / Math.max(1, total))));
+
+        double average = stats.getRating().getMean();
+        String raterType = total == 0 ? null
+                : average < HARSH_CRITIC_AVERAGE ? "harsh"
+                : average > GENEROUS_RATER_AVERAGE ? "generous"
+                : "balanced";
+
+        return TasteProfileDTO.builder()
+                .genrePreferences(genrePreferences)
+                .averageRating(round(average))
+                .ratingVariance(round(stats.getRating().variance()))
+                .totalRatings(total)
+                .raterType(raterType)
+                .mediaTypeDistribution(distribution)
+                .personalized(total >= minRatings)
+                .lastCalculated(lastCalculated)
+                .build();
+    }
+
+    private List<String> genresFor(Map<MediaKey, List<String>> cache, MediaKey key) {
+        return cache.computeIfAbsent(key, k -> {
+            List<String> genres = fastAPIService.getMediaGenres(k.mediaId(), k.mediaType()).orElse(null);
+            // New genres get their vector dimension here, normally before the profile transaction starts
+            tasteVectorizer.registerGenres(genres);
+            return genres;
+        });
+    }
+
+    private double decayPerMilli() {
+        return Math.log(2) / (halfLifeDays * 86_400_000d);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
+
+
 // TasteProfileService - Generates and manages user taste profiles
 // This is a core service that powers personalized recommendations
 //
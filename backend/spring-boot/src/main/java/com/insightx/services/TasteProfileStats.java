@@ -0,0 +1,171 @@
+package com.insightx.services;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.insightx.entities.MediaType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Taste Profile Stats - Running sufficient statistics stored in taste_profiles.profile_data.stats
+ *
+ * Every rating change is applied as an O(genres) delta instead of recomputing from all ratings:
+ * - per genre: raw rating sum and count, plus a recency-decayed count ("weight") and sum
+ *   kept relative to updatedAt (exponential decay, half-life configured on the service)
+ * - rating behavior: count, mean and M2 (Welford), so variance needs no history
+ * - media type counts
+ *
+ * Removals subtract the same contribution that was added (the decayed part uses the rating's
+ * own timestamp), so add/remove pairs cancel up to floating point error. Items counted while
+ * their genres were unknown are remembered, so their removal skips the genres as well.
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TasteProfileStats {
+
+    private Map<String, GenreStats> genres = new HashMap<>();
+    private RatingStats rating = new RatingStats();
+    private Map<String, Long> mediaTypes = new HashMap<>();
+
+    /**
+     * When the stats were last recomputed from all ratings (database clock, epoch ms); changes
+     * stamped at or before this are already included and must not be applied again
+     */
+    private long rebuiltAt;
+
+    /**
+     * Items counted without genres (metadata unavailable), as "type:id"
+     */
+    private Set<String> ungenred = new HashSet<>();
+
+    /**
+     * Count a rating made at ratedAtMillis (all times in epoch milliseconds)
+     */
+    public void add(MediaType mediaType, String mediaId, List<String> genreNames, int value, long ratedAtMillis,
+                    double decayPerMilli, long nowMillis) {
+        rating.add(value);
+        mediaTypes.merge(mediaType.getValue(), 1L, Long::sum);
+        if (genreNames == null) {
+            ungenred.add(itemKey(mediaType, mediaId));
+            return;
+        }
+        double contribution = Math.exp(-decayPerMilli * Math.max(0, nowMillis - ratedAtMillis));
+        for (String genre : genreNames) {
+            GenreStats stats = genres.computeIfAbsent(genre, g -> new GenreStats());
+            stats.decayTo(nowMillis, decayPerMilli);
+            stats.sum += value;
+            stats.count++;
+            stats.weight += contribution;
+            stats.decayedSum += contribution * value;
+        }
+    }
+
+    /**
+     * Undo a previously counted rating; false if its genre part could not be undone (genres
+     * unknown now but known when it was added), in which case the stats need a rebuild
+     */
+    public boolean remove(MediaType mediaType, String mediaId, List<String> genreNames, int value,
+                          long ratedAtMillis, double decayPerMilli, long nowMillis) {
+        rating.remove(value);
+        mediaTypes.computeIfPresent(mediaType.getValue(), (type, count) -> count > 1 ? count - 1 : null);
+        if (ungenred.remove(itemKey(mediaType, mediaId))) {
+            return true;
+        }
+        if (genreNames == null) {
+            return false;
+        }
+        double contribution = Math.exp(-decayPerMilli * Math.max(0, nowMillis - ratedAtMillis));
+        for (String genre : genreNames) {
+            GenreStats stats = genres.get(genre);
+            if (stats == null) {
+                continue;
+            }
+            if (stats.count <= 1) {
+                genres.remove(genre);
+                continue;
+            }
+            stats.decayTo(nowMillis, decayPerMilli);
+            stats.sum -= value;
+            stats.count--;
+            stats.weight = Math.max(0, stats.weight - contribution);
+            stats.decayedSum = Math.max(0, stats.decayedSum - contribution * value);
+        }
+        return true;
+    }
+
+    private static String itemKey(MediaType mediaType, String mediaId) {
+        return mediaType.name() + ":" + mediaId;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class GenreStats {
+        private double sum;
+        private long count;
+        private double weight;
+        private double decayedSum;
+        private long updatedAt;
+
+        /**
+         * Recency-weighted average rating of the genre (1-10)
+         */
+        public double decayedAverage() {
+            return weight > 0 ? decayedSum / weight : (count > 0 ? sum / count : 0);
+        }
+
+        void decayTo(long nowMillis, double decayPerMilli) {
+            if (updatedAt > 0 && nowMillis > updatedAt) {
+                double factor = Math.exp(-decayPerMilli * (nowMillis - updatedAt));
+                weight *= factor;
+                decayedSum *= factor;
+            }
+            updatedAt = Math.max(updatedAt, nowMillis);
+        }
+    }
+
+    /**
+     * Welford's online mean/variance with removal support
+     */
+    @Data
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class RatingStats {
+        private long count;
+        private double mean;
+        private double m2;
+
+        void add(double value) {
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            m2 += delta * (value - mean);
+        }
+
+        void remove(double value) {
+            if (count <= 1) {
+                count = 0;
+                mean = 0;
+                m2 = 0;
+                return;
+            }
+            double previousMean = mean;
+            count--;
+            mean = (previousMean * (count + 1) - value) / count;
+            m2 = Math.max(0, m2 - (value - previousMean) * (value - mean));
+        }
+
+        /**
+         * Sample variance of the user's ratings
+         */
+        public double variance() {
+            return count > 1 ? m2 / (count - 1) : 0;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.insightx.services;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stale taste profile sweeper settings (insightx.taste-profile.sweep.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "insightx.taste-profile.sweep")
+public class TasteProfileSweepProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * User id ranges the sweep is split into; nodes claim shards independently
+     */
+    private int shards = 8;
+
+    /**
+     * Profiles read per keyset page (and per checkpoint)
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Upper bound on profiles recomputed in parallel
+     */
+    private int maxParallelism = 4;
+
+    /**
+     * Database connections left for request traffic; parallelism never exceeds
+     * the pool size minus this
+     */
+    private int reservedConnections = 4;
+
+    /**
+     * A run stops after this long and the next run resumes from its checkpoint
+     */
+    private long maxDurationMinutes = 120;
+}
@@ -0,0 +1,234 @@
+package com.insightx.services;
+
+import com.insightx.jobs.JobCoordinator;
+import com.insightx.jobs.JobShard;
+import com.insightx.repositories.RatingRepository;
+import com.insightx.repositories.TasteProfileRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Taste Profile Sweeper - Daily recalculation of stale taste profiles
+ *
+ * Walks idx_taste_profile_calculated_user with keyset pagination, one chunk at a time, so
+ * memory stays bounded by the chunk size however many profiles are stale:
+ * - profiles of users without ratings are only marked recalculated (one batch UPDATE)
+ * - the others are rebuilt from their ratings in parallel, also healing any drift of the
+ *   incremental stats (e.g. changes lost on shutdown)
+ *
+ * Parallelism is capped by the connection pool size minus a reserve for request traffic.
+ * The work is split into user-id shards claimed through JobCoordinator, so each shard runs
+ * once per day on one node and all nodes share a run. Each shard's cursor is checkpointed
+ * in Redis after every chunk; a shard that is interrupted or hits its time budget is
+ * resumed from its checkpoint by the next run.
+ */
+@Component
+public class TasteProfileSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(TasteProfileSweeper.class);
+    private static final String JOB_NAME = "taste-profile-sweep";
+    private static final String CHECKPOINT_KEY_PREFIX = "taste_profile:sweep:checkpoint:";
+    private static final Duration CHECKPOINT_TTL = Duration.ofDays(2);
+    private static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final UUID CURSOR_START_USER = new UUID(0, 0);
+
+    @Autowired
+    private TasteProfileRepository tasteProfileRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private TasteProfileService tasteProfileService;
+
+    @Autowired
+    private TasteProfileSweepProperties properties;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${insightx.taste-profile.recalculation-threshold-days:7}")
+    private int thresholdDays;
+
+    @Scheduled(cron = "${insightx.taste-profile.sweep.cron:0 30 3 * * *}")
+    public void sweep() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int parallelism = parallelism();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // One run per day; every node takes the shards nobody else has claimed yet
+            int shards = jobCoordinator.runSharded(JOB_NAME, LocalDate.now().toString(), properties.getShards(),
+                    Duration.ofDays(1), shard -> sweepShard(shard, pool));
+            if (shards > 0) {
+                log.info("Taste profile sweep ran {} of {} shards on this node (parallelism {})",
+                        shards, properties.getShards(), parallelism);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void sweepShard(JobShard shard, ForkJoinPool pool) {
+        String checkpointKey = CHECKPOINT_KEY_PREFIX + shard.count() + ":" + shard.index();
+        Checkpoint checkpoint = loadCheckpoint(checkpointKey);
+        if (checkpoint == null) {
+            checkpoint = new Checkpoint(LocalDateTime.now().minusDays(thresholdDays), CURSOR_START, CURSOR_START_USER, 0);
+        } else {
+            log.info("Resuming taste profile sweep of shard {} after {} profiles", shard, checkpoint.processed());
+        }
+
+        long deadline = System.currentTimeMillis() + Duration.ofMinutes(properties.getMaxDurationMinutes()).toMillis();
+        while (true) {
+            if (System.currentTimeMillis() > deadline) {
+                log.info("Taste profile sweep of shard {} paused after {} profiles; the next run resumes",
+                        shard, checkpoint.processed());
+                return;
+            }
+
+            List<Object[]> rows = tasteProfileRepository.findStaleAfter(checkpoint.cutoff(),
+                    checkpoint.afterCalculated(), checkpoint.afterUserId(),
+                    shard.lowerBound(), shard.upperBound(), properties.getChunkSize());
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            List<UUID> userIds = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                userIds.add((UUID) row[0]);
+            }
+            processChunk(userIds, pool);
+
+            Object[] last = rows.get(rows.size() - 1);
+            checkpoint = new Checkpoint(checkpoint.cutoff(), toLocalDateTime(last[1]), (UUID) last[0],
+                    checkpoint.processed() + rows.size());
+            saveCheckpoint(checkpointKey, checkpoint);
+        }
+
+        stringRedisTemplate.delete(checkpointKey);
+        log.info("Taste profile sweep of shard {} finished: {} stale profiles", shard, checkpoint.processed());
+    }
+
+    private void processChunk(List<UUID> userIds, ForkJoinPool pool) {
+        Set<UUID> withRatings = new HashSet<>(ratingRepository.findUserIdsWithRatings(userIds));
+
+        List<UUID> withoutRatings = new ArrayList<>();
+        for (UUID userId : userIds) {
+            if (!withRatings.contains(userId)) {
+                withoutRatings.add(userId);
+            }
+        }
+        if (!withoutRatings.isEmpty()) {
+            // Nothing to compute; just move them out of the stale range
+            transactionTemplate.executeWithoutResult(status ->
+                    tasteProfileRepository.updateLastCalculatedForUsers(withoutRatings, LocalDateTime.now()));
+            count("marked", withoutRatings.size());
+        }
+
+        // Tasks of a parallel stream started inside the pool run on the pool's threads
+        pool.submit(() -> withRatings.parallelStream().forEach(this::rebuild)).join();
+    }
+
+    private void rebuild(UUID userId) {
+        try {
+            tasteProfileService.rebuildProfile(userId);
+            count("rebuilt", 1);
+        } catch (Exception e) {
+            // Left stale; retried by the next run
+            count("failed", 1);
+            log.warn("Error rebuilding taste profile of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Each rebuild holds at most one connection, so this keeps the reserve free for requests
+     */
+    private int parallelism() {
+        int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+        return Math.max(1, Math.min(properties.getMaxParallelism(), poolSize - properties.getReservedConnections()));
+    }
+
+    private void count(String result, int amount) {
+        meterRegistry.counter("taste_profile.sweep.profiles", "result", result).increment(amount);
+    }
+
+    // ========================================
+    // Checkpoints (Redis)
+    // ========================================
+
+    private Checkpoint loadCheckpoint(String key) {
+        try {
+            Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(key);
+            if (fields.isEmpty()) {
+                return null;
+            }
+            return new Checkpoint(
+                    LocalDateTime.parse((String) fields.get("cutoff")),
+                    LocalDateTime.parse((String) fields.get("afterCalculated")),
+                    UUID.fromString((String) fields.get("afterUserId")),
+                    Long.parseLong((String) fields.get("processed")));
+        } catch (Exception e) {
+            log.error("Error reading taste profile sweep checkpoint: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveCheckpoint(String key, Checkpoint checkpoint) {
+        try {
+            Map<String, String> fields = new HashMap<>();
+            fields.put("cutoff", checkpoint.cutoff().toString());
+            fields.put("afterCalculated", checkpoint.afterCalculated().toString());
+            fields.put("afterUserId", checkpoint.afterUserId().toString());
+            fields.put("processed", String.valueOf(checkpoint.processed()));
+            stringRedisTemplate.opsForHash().putAll(key, fields);
+            stringRedisTemplate.expire(key, CHECKPOINT_TTL);
+        } catch (Exception e) {
+            log.error("Error saving taste profile sweep checkpoint: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    /**
+     * Sweep cursor: profiles calculated before cutoff, after (afterCalculated, afterUserId)
+     */
+    private record Checkpoint(LocalDateTime cutoff, LocalDateTime afterCalculated, UUID afterUserId, long processed) {
+    }
+}
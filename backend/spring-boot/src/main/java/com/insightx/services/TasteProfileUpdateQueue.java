@@ -0,0 +1,290 @@
+package com.insightx.services;
+
+import com.insightx.events.RatingChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Taste Profile Update Queue - Debounced, per-user taste profile recalculation
+ *
+ * Committed rating changes are only appended to the user's pending batch, so rating writes
+ * never wait for profile work. A user becomes due once no change arrived for the quiet
+ * window (or when the first pending change reaches the max delay), and the whole batch is
+ * then applied in one transaction. Batches above the rebuild threshold (bulk imports)
+ * collapse into a single full rebuild.
+ *
+ * Fairness: a user is handed to the bounded worker pool as one job at a time, oldest
+ * pending change first, and only as many jobs as there are idle workers; changes that
+ * arrive while a user's job runs wait for the next round.
+ *
+ * A failed batch is queued again as a full rebuild (it reads every rating, so no change
+ * is lost), after another quiet window. Pending changes live in memory only; changes lost
+ * on shutdown are reconciled by the periodic recalculation of stale profiles.
+ */
+@Component
+public class TasteProfileUpdateQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(TasteProfileUpdateQueue.class);
+    private static final String METRIC_PREFIX = "taste_profile.queue";
+
+    @Autowired
+    private TasteProfileService tasteProfileService;
+
+    @Autowired
+    private TasteProfileQueueProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<UUID, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingEvents = new AtomicInteger();
+
+    private ScheduledExecutorService dispatcher;
+    private ThreadPoolExecutor workers;
+    private Timer lag;
+    private Counter collapsed;
+    private Counter rebuilds;
+    private Counter failures;
+
+    @PostConstruct
+    public void init() {
+        workers = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(), 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("taste-profile-"));
+        dispatcher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("taste-profile-dispatch-"));
+        dispatcher.scheduleWithFixedDelay(this::dispatch, properties.getTickMs(), properties.getTickMs(),
+                TimeUnit.MILLISECONDS);
+
+        Gauge.builder(METRIC_PREFIX + ".users", pending, Map::size)
+                .description("Users with pending taste profile changes")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".events", pendingEvents, AtomicInteger::get)
+                .description("Pending rating changes not yet applied")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".oldest", this, TasteProfileUpdateQueue::oldestPendingMillis)
+                .description("Age of the oldest pending change")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".active", workers, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        lag = Timer.builder(METRIC_PREFIX + ".lag")
+                .description("Time from a user's first pending change to the start of its update")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        collapsed = Counter.builder(METRIC_PREFIX + ".collapsed")
+                .description("Rating changes folded into another change's update")
+                .register(meterRegistry);
+        rebuilds = Counter.builder(METRIC_PREFIX + ".rebuilds").register(meterRegistry);
+        failures = Counter.builder(METRIC_PREFIX + ".failures").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        dispatcher.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+        if (!pending.isEmpty()) {
+            log.info("Dropping pending taste profile updates for {} users on shutdown", pending.size());
+        }
+    }
+
+    /**
+     * Queue a committed rating change (runs on the committing thread, so it only records it)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        enqueue(event);
+    }
+
+    public void enqueue(RatingChangedEvent event) {
+        long now = System.currentTimeMillis();
+        pending.compute(event.userId(), (userId, update) -> {
+            PendingUpdate target = update != null ? update : new PendingUpdate();
+            pendingEvents.addAndGet(target.add(event, now, properties.getRebuildThreshold()));
+            return target;
+        });
+    }
+
+    /**
+     * Hand due users to idle workers, oldest pending change first
+     */
+    void dispatch() {
+        try {
+            int idle = properties.getWorkers() - workers.getActiveCount() - workers.getQueue().size();
+            if (idle <= 0 || pending.isEmpty()) {
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            List<DueUser> due = new ArrayList<>();
+            for (Map.Entry<UUID, PendingUpdate> entry : pending.entrySet()) {
+                PendingUpdate update = entry.getValue();
+                if (!update.inFlight && update.hasWork()
+                        && update.dueAt(properties.getQuietMs(), properties.getMaxDelayMs()) <= now) {
+                    due.add(new DueUser(entry.getKey(), update.firstAt));
+                }
+            }
+            due.sort(Comparator.comparingLong(DueUser::firstAt));
+
+            for (int i = 0; i < Math.min(idle, due.size()); i++) {
+                UUID userId = due.get(i).userId();
+                Batch batch = take(userId);
+                if (batch != null) {
+                    workers.execute(() -> process(userId, batch));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error dispatching taste profile updates: {}", e.getMessage());
+        }
+    }
+
+    private Batch take(UUID userId) {
+        Batch[] taken = new Batch[1];
+        pending.computeIfPresent(userId, (id, update) -> {
+            if (!update.inFlight && update.hasWork()) {
+                taken[0] = update.drain();
+                pendingEvents.addAndGet(-taken[0].events().size());
+            }
+            return update;
+        });
+        return taken[0];
+    }
+
+    private void process(UUID userId, Batch batch) {
+        lag.record(System.currentTimeMillis() - batch.firstAt(), TimeUnit.MILLISECONDS);
+        boolean failed = false;
+        try {
+            if (batch.rebuild()) {
+                rebuilds.increment();
+                tasteProfileService.rebuildProfile(userId);
+            } else {
+                collapsed.increment(batch.events().size() - 1);
+                tasteProfileService.applyRatingChanges(userId, batch.events());
+            }
+        } catch (Exception e) {
+            failed = true;
+            failures.increment();
+            log.error("Error updating taste profile of user {}; retrying as a rebuild: {}", userId, e.getMessage());
+        } finally {
+            boolean retry = failed;
+            pending.computeIfPresent(userId, (id, update) -> {
+                update.inFlight = false;
+                if (retry) {
+                    // The batch's changes are gone, but a rebuild reads them from the ratings
+                    pendingEvents.addAndGet(update.retryAsRebuild(System.currentTimeMillis()));
+                }
+                return update.hasWork() ? update : null;
+            });
+        }
+    }
+
+    private double oldestPendingMillis() {
+        long now = System.currentTimeMillis();
+        long oldest = now;
+        for (PendingUpdate update : pending.values()) {
+            if (update.hasWork()) {
+                oldest = Math.min(oldest, update.firstAt);
+            }
+        }
+        return now - oldest;
+    }
+
+    /**
+     * A user's changes not yet applied; mutated only inside the map's compute functions
+     */
+    private static class PendingUpdate {
+        private List<RatingChangedEvent> events = new ArrayList<>();
+        private volatile int eventCount;
+        private volatile boolean rebuild;
+        private volatile boolean inFlight;
+        private volatile long firstAt;
+        private volatile long lastAt;
+
+        /**
+         * Returns the change in pending events
+         */
+        int add(RatingChangedEvent event, long now, int rebuildThreshold) {
+            if (!hasWork()) {
+                firstAt = now;
+            }
+            lastAt = now;
+            if (rebuild) {
+                return 0;
+            }
+            if (events.size() >= rebuildThreshold) {
+                // A rebuild reads every rating anyway, so the individual changes are no longer needed
+                int dropped = events.size();
+                events = new ArrayList<>();
+                eventCount = 0;
+                rebuild = true;
+                return -dropped;
+            }
+            events.add(event);
+            eventCount = events.size();
+            return 1;
+        }
+
+        /**
+         * Replace pending work with a rebuild after a failed batch, due again after the quiet
+         * window; returns the change in pending events
+         */
+        int retryAsRebuild(long now) {
+            int dropped = events.size();
+            // Restarting the clock keeps a persistent failure from being due again on every tick
+            firstAt = now;
+            lastAt = now;
+            events = new ArrayList<>();
+            eventCount = 0;
+            rebuild = true;
+            return -dropped;
+        }
+
+        Batch drain() {
+            Batch batch = new Batch(events, rebuild, firstAt);
+            events = new ArrayList<>();
+            eventCount = 0;
+            rebuild = false;
+            inFlight = true;
+            return batch;
+        }
+
+        boolean hasWork() {
+            return rebuild || eventCount > 0;
+        }
+
+        long dueAt(long quietMs, long maxDelayMs) {
+            return Math.min(lastAt + quietMs, firstAt + maxDelayMs);
+        }
+    }
+
+    private record DueUser(UUID userId, long firstAt) {
+    }
+
+    private record Batch(List<RatingChangedEvent> events, boolean rebuild, long firstAt) {
+    }
+}
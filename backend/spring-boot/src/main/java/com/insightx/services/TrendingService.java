@@ -0,0 +1,52 @@
+package com.insightx.services;
+
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.entities.MediaType;
+import com.insightx.trending.TrendingEngine;
+import com.insightx.trending.TrendingItem;
+import com.insightx.trending.TrendingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trending Service - Trending media for a region
+ *
+ * Served from the first-party trending engine (InsightX's own ratings, watches and bookmarks)
+ * with metadata from the near cache. Until there is enough local activity, FastAPI's trending
+ * list is used instead.
+ */
+@Service
+public class TrendingService {
+
+    @Autowired
+    private TrendingEngine trendingEngine;
+
+    @Autowired
+    private TrendingProperties properties;
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public List<MediaMetadataDTO> getTrending(MediaType mediaType, String region, int limit) {
+        List<TrendingItem> items = trendingEngine.top(mediaType, region, limit);
+        if (items.size() < Math.min(limit, properties.getMinItems())) {
+            meterRegistry.counter("trending.requests", "source", "fastapi").increment();
+            return fastAPIService.getTrending(mediaType, region, limit);
+        }
+
+        meterRegistry.counter("trending.requests", "source", "local").increment();
+        List<MediaMetadataDTO> trending = new ArrayList<>(items.size());
+        for (TrendingItem item : items) {
+            fastAPIService.getMediaMetadata(item.mediaKey().mediaId(), item.mediaKey().mediaType())
+                    .ifPresent(trending::add);
+        }
+        return trending;
+    }
+}
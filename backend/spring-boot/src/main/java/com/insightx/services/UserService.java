@@ -1,5 +1,63 @@
 package com.insightx.services;
 
+import com.insightx.entities.User;
+import com.insightx.events.UserRegionChangedEvent;
+import com.insightx.exceptions.UserNotFoundException;
+import com.insightx.exceptions.ValidationException;
+import com.insightx.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * User Service - User profile and account management
+ */
+@Service
+public class UserService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+    private static final Set<String> ISO_COUNTRIES = Set.of(Locale.getISOCountries());
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Update user's region (ISO 3166-1 alpha-2 code).
+     * Publishes UserRegionChangedEvent so region-specific caches can be prefetched.
+     */
+    @Transactional
+    public void updateRegion(UUID userId, String region) {
+        String normalized = region == null ? "" : region.trim().toUpperCase(Locale.ROOT);
+        if (!ISO_COUNTRIES.contains(normalized)) {
+            throw new ValidationException("Invalid region code: " + region);
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+        String previousRegion = user.getRegion();
+        if (normalized.equals(previousRegion)) {
+            return;
+        }
+
+        user.setRegion(normalized);
+        userRepository.save(user);
+        log.info("User {} changed region from {} to {}", userId, previousRegion, normalized);
+
+        eventPublisher.publishEvent(new UserRegionChangedEvent(userId, previousRegion, normalized));
+    }
+}
+
+
 // UserService - Handles user profile and account management
 //
 // Responsibilities:
@@ -69,4 +127,4 @@ package com.insightx.services;
 // Error Handling:
 // - UserNotFoundException
 // - InvalidPasswordException
-// - ValidationException
\ No newline at end of file
+// - ValidationException
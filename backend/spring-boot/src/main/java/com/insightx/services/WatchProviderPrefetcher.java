@@ -0,0 +1,85 @@
+package com.insightx.services;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.dto.MediaMetadataDTO;
+import com.insightx.entities.Bookmark;
+import com.insightx.entities.MediaType;
+import com.insightx.events.UserRegionChangedEvent;
+import com.insightx.repositories.BookmarkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Watch Provider Prefetcher - Warms the provider cache for a user's new region
+ *
+ * After a region change the user's bookmarks, cached recommendations and the region's
+ * trending and new-release lists are resolved in the background with batched provider
+ * calls, so the first screens in the new region already show provider badges.
+ */
+@Component
+public class WatchProviderPrefetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(WatchProviderPrefetcher.class);
+    private static final int LIST_ITEMS = 20;
+
+    @Autowired
+    private FastAPIService fastAPIService;
+
+    @Autowired
+    private BookmarkRepository bookmarkRepository;
+
+    @Value("${cache.watch-providers.prefetch-max-items:500}")
+    private int maxItems;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRegionChanged(UserRegionChangedEvent event) {
+        try {
+            Set<MediaKey> items = new LinkedHashSet<>();
+            for (Bookmark bookmark : bookmarkRepository.findByUserIdOrderBySavedAtDesc(event.userId())) {
+                if (items.size() >= maxItems) {
+                    break;
+                }
+                items.add(new MediaKey(bookmark.getMediaType(), bookmark.getMediaId()));
+            }
+            fastAPIService.getCachedRecommendations(event.userId(), null, maxItems)
+                    .ifPresent(recommendations -> recommendations.forEach(recommendation -> {
+                        if (items.size() < maxItems && recommendation.getMediaType() != null) {
+                            items.add(new MediaKey(recommendation.getMediaType(), recommendation.getMediaId()));
+                        }
+                    }));
+            for (MediaType mediaType : MediaType.values()) {
+                addAll(items, fastAPIService.getTrending(mediaType, event.region(), LIST_ITEMS));
+                addAll(items, fastAPIService.getNewReleases(mediaType, event.region(), LIST_ITEMS));
+            }
+
+            Map<MediaKey, ?> resolved = fastAPIService.getWatchProviders(items, event.region());
+            log.debug("Prefetched watch providers for user {} in {}: {}/{} items",
+                    event.userId(), event.region(), resolved.size(), items.size());
+        } catch (Exception e) {
+            log.error("Error prefetching watch providers for user {} in {}: {}",
+                    event.userId(), event.region(), e.getMessage());
+        }
+    }
+
+    private void addAll(Set<MediaKey> items, Iterable<MediaMetadataDTO> list) {
+        for (MediaMetadataDTO item : list) {
+            if (items.size() >= maxItems) {
+                return;
+            }
+            if (item.getMediaType() != null && item.getMediaId() != null) {
+                items.add(new MediaKey(item.getMediaType(), item.getMediaId()));
+            }
+        }
+    }
+}
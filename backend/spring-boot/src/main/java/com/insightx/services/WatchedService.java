@@ -1,5 +1,100 @@
 package com.insightx.services;
 
+import com.insightx.dto.MarkWatchedRequest;
+import com.insightx.dto.WatchedEntryDTO;
+import com.insightx.entities.MediaType;
+import com.insightx.entities.WatchedEntry;
+import com.insightx.events.MediaStateChangedEvent;
+import com.insightx.exceptions.ResourceNotFoundException;
+import com.insightx.media.MediaState;
+import com.insightx.repositories.WatchedEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Watched Service - Tracks media the user has watched, read or played
+ *
+ * Marking and unmarking publish MediaStateChangedEvent, which keeps the per-user
+ * media state index current.
+ */
+@Service
+public class WatchedService {
+
+    @Autowired
+    private WatchedEntryRepository watchedEntryRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Mark media as watched; marking it again only updates the watched date and visibility
+     */
+    @Transactional
+    public WatchedEntryDTO markAsWatched(UUID userId, MarkWatchedRequest request) {
+        WatchedEntry entry = watchedEntryRepository.findByUserIdAndMediaIdAndMediaType(
+                        userId, request.getMediaId(), request.getMediaType())
+                .orElse(null);
+        boolean created = entry == null;
+        if (created) {
+            entry = WatchedEntry.builder()
+                    .userId(userId)
+                    .mediaId(request.getMediaId())
+                    .mediaType(request.getMediaType())
+                    .build();
+        }
+        entry.setWatchedDate(request.getWatchedDate() != null ? request.getWatchedDate() : LocalDate.now());
+        if (request.getVisibility() != null) {
+            entry.setVisibility(request.getVisibility());
+        }
+        WatchedEntry saved = watchedEntryRepository.saveAndFlush(entry);
+
+        if (created) {
+            eventPublisher.publishEvent(new MediaStateChangedEvent(userId, saved.getMediaType(), saved.getMediaId(),
+                    MediaState.WATCHED, true));
+        }
+        return toDTO(saved);
+    }
+
+    @Transactional
+    public void removeWatched(UUID userId, String mediaId, MediaType mediaType) {
+        WatchedEntry entry = watchedEntryRepository.findByUserIdAndMediaIdAndMediaType(userId, mediaId, mediaType)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Watched entry not found: " + mediaType.getValue() + "/" + mediaId));
+        watchedEntryRepository.delete(entry);
+
+        eventPublisher.publishEvent(new MediaStateChangedEvent(userId, mediaType, mediaId, MediaState.WATCHED, false));
+    }
+
+    /**
+     * User's watch history (mediaType null = all types)
+     */
+    @Transactional(readOnly = true)
+    public Page<WatchedEntryDTO> getWatchHistory(UUID userId, MediaType mediaType, Pageable pageable) {
+        Page<WatchedEntry> entries = mediaType == null
+                ? watchedEntryRepository.findByUserId(userId, pageable)
+                : watchedEntryRepository.findByUserIdAndMediaType(userId, mediaType, pageable);
+        return entries.map(this::toDTO);
+    }
+
+    private WatchedEntryDTO toDTO(WatchedEntry entry) {
+        return WatchedEntryDTO.builder()
+                .mediaId(entry.getMediaId())
+                .mediaType(entry.getMediaType())
+                .watchedDate(entry.getWatchedDate())
+                .visibility(entry.getVisibility())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
+
+
 // WatchedService - Manages user's watched/consumed media tracking
 //
 // Responsibilities:
@@ -0,0 +1,478 @@
+package com.insightx.similarity;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.entities.MediaType;
+import com.insightx.events.MediaStateChangedEvent;
+import com.insightx.events.RatingChangedEvent;
+import com.insightx.media.MediaKeyDictionary;
+import com.insightx.media.MediaState;
+import com.insightx.repositories.RatingRepository;
+import com.insightx.repositories.UserRepository;
+import com.insightx.repositories.WatchedEntryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Item Similarity Index - Item-item cosine similarity from co-occurring user interactions
+ *
+ * A positive interaction is a watched entry or a rating of at least min-positive-rating.
+ * Media items are keyed by MediaKeyDictionary ids and users by a local dense int; each user's items are a sorted
+ * int[] and each item's users a growable int list. The similarity of items i and j is
+ * |users(i) ∩ users(j)| / sqrt(|users(i)| * |users(j)|); every item keeps its top-N
+ * neighbours, computed row by row in parallel, and the rows are published as one
+ * immutable CSR model that lookups read without locking.
+ *
+ * - startup and the nightly rebuild recompute everything from ratings and watched_entries
+ * - every refresh interval, only users whose interactions changed since the watermark are
+ *   reloaded, and only the rows of items they touched are recomputed (other rows keep
+ *   slightly stale norms until the nightly rebuild)
+ *
+ * Each node holds its own model; deletions made on other nodes are picked up by the
+ * nightly rebuild.
+ */
+@Component
+public class ItemSimilarityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemSimilarityIndex.class);
+    private static final UUID FIRST_USER = new UUID(0, 0);
+    private static final int[] NO_ITEMS = new int[0];
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private WatchedEntryRepository watchedEntryRepository;
+
+    @Autowired
+    private MediaKeyDictionary mediaKeyDictionary;
+
+    @Autowired
+    private ItemSimilarityProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile ItemSimilarityModel model = ItemSimilarityModel.EMPTY;
+    private final Set<UUID> pendingUsers = ConcurrentHashMap.newKeySet();
+
+    // Guarded by this
+    private Interactions interactions;
+    private long watermark;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("item_similarity.items", this, index -> index.model.rows()).register(meterRegistry);
+        Gauge.builder("item_similarity.neighbors", this, index -> index.model.nonZeros()).register(meterRegistry);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Most similar items, best first; empty until the first build or for items without neighbours
+     */
+    public List<ItemSimilarityModel.SimilarItem> findSimilar(MediaKey key, int limit) {
+        return model.similarTo(key, limit);
+    }
+
+    /**
+     * Rating changes made on this node (including deletions) are applied by the next refresh
+     */
+    @EventListener
+    public void onRatingChanged(RatingChangedEvent event) {
+        pendingUsers.add(event.userId());
+    }
+
+    /**
+     * Watched entries added or removed on this node are applied by the next refresh as well
+     * (bookmarks are not interactions)
+     */
+    @EventListener
+    public void onMediaStateChanged(MediaStateChangedEvent event) {
+        if (event.state() == MediaState.WATCHED) {
+            pendingUsers.add(event.userId());
+        }
+    }
+
+    /**
+     * Recompute the whole model from the database
+     */
+    @Scheduled(cron = "${insightx.item-similarity.rebuild-cron:0 0 4 * * *}")
+    public synchronized void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            Interactions built = new Interactions();
+            UUID afterUser = FIRST_USER;
+            while (true) {
+                List<UUID> userIds = userRepository.findIdsAfter(afterUser, properties.getPageSize());
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                loadUsers(built, userIds, null);
+                afterUser = userIds.get(userIds.size() - 1);
+            }
+
+            built.ensureRows();
+            IntStream.range(0, built.itemUsers.size()).parallel()
+                    .forEach(item -> built.computeRow(item, properties));
+
+            interactions = built;
+            watermark = started;
+            publish();
+            meterRegistry.timer("item_similarity.build", "mode", "full")
+                    .record(System.currentTimeMillis() - started, TimeUnit.MILLISECONDS);
+            log.info("Built item similarity model: {} items, {} users, {} neighbour pairs in {} ms",
+                    model.rows(), built.userIds.size(), model.nonZeros(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Error building item similarity model: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload users whose interactions changed since the watermark and recompute the rows they touch
+     */
+    @Scheduled(fixedDelayString = "${insightx.item-similarity.refresh-interval-ms:300000}",
+               initialDelayString = "${insightx.item-similarity.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        if (!properties.isEnabled() || interactions == null) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            LocalDateTime since = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(watermark - properties.getRefreshOverlapMs()), ZoneId.systemDefault());
+            Set<UUID> changed = new HashSet<>(ratingRepository.findUserIdsRatedSince(since));
+            changed.addAll(watchedEntryRepository.findUserIdsWatchedSince(since));
+            for (UUID userId : List.copyOf(pendingUsers)) {
+                changed.add(userId);
+                pendingUsers.remove(userId);
+            }
+            if (changed.isEmpty()) {
+                watermark = started;
+                return;
+            }
+
+            BitSet affected = new BitSet();
+            List<UUID> users = new ArrayList<>(changed);
+            for (int from = 0; from < users.size(); from += properties.getPageSize()) {
+                loadUsers(interactions, users.subList(from, Math.min(users.size(), from + properties.getPageSize())),
+                        affected);
+            }
+
+            Interactions current = interactions;
+            current.ensureRows();
+            affected.stream().parallel().forEach(item -> current.computeRow(item, properties));
+
+            watermark = started;
+            publish();
+            meterRegistry.timer("item_similarity.build", "mode", "incremental")
+                    .record(System.currentTimeMillis() - started, TimeUnit.MILLISECONDS);
+            log.debug("Refreshed item similarity for {} changed users ({} items)", changed.size(), affected.cardinality());
+        } catch (Exception e) {
+            log.error("Error refreshing item similarity model: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the item sets of the given users; items whose co-occurrences changed are set in affected
+     */
+    private void loadUsers(Interactions target, List<UUID> userIds, BitSet affected) {
+        List<Object[]> rows = new ArrayList<>(ratingRepository.findRatedMediaByUserIds(userIds,
+                properties.getMinPositiveRating()));
+        rows.addAll(watchedEntryRepository.findWatchedMediaByUserIds(userIds));
+        List<MediaKey> keys = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            keys.add(new MediaKey((MediaType) row[1], (String) row[2]));
+        }
+        int[] items = mediaKeyDictionary.idsOf(keys);
+        target.ensureItems(mediaKeyDictionary.size());
+
+        Map<UUID, IntList> loaded = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (items[i] >= 0) {
+                loaded.computeIfAbsent((UUID) rows.get(i)[0], userId -> new IntList()).add(items[i]);
+            }
+        }
+
+        for (UUID userId : userIds) {
+            IntList userItems = loaded.get(userId);
+            int[] sorted = userItems == null ? NO_ITEMS : userItems.toSortedDistinctArray();
+            if (sorted.length > properties.getMaxItemsPerUser()) {
+                sorted = NO_ITEMS;
+            }
+            target.setItems(userId, sorted, affected);
+        }
+    }
+
+    private void publish() {
+        Interactions current = interactions;
+        int rows = current.itemUsers.size();
+        model = ItemSimilarityModel.of(mediaKeyDictionary,
+                Arrays.copyOf(current.rowNeighbors, rows), Arrays.copyOf(current.rowScores, rows));
+    }
+
+    /**
+     * Dictionary-encoded user-item interactions plus the computed neighbour rows
+     */
+    private static final class Interactions {
+        private final List<IntList> itemUsers = new ArrayList<>();
+        private final Map<UUID, Integer> userIds = new HashMap<>();
+        private final List<int[]> userItems = new ArrayList<>();
+        private int[][] rowNeighbors = new int[0][];
+        private float[][] rowScores = new float[0][];
+        private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+        /**
+         * Make room for media ids below count
+         */
+        void ensureItems(int count) {
+            while (itemUsers.size() < count) {
+                itemUsers.add(new IntList());
+            }
+        }
+
+        void setItems(UUID userId, int[] newItems, BitSet affected) {
+            Integer user = userIds.get(userId);
+            if (user == null) {
+                if (newItems.length == 0) {
+                    return;
+                }
+                user = userItems.size();
+                userIds.put(userId, user);
+                userItems.add(NO_ITEMS);
+            }
+            int[] oldItems = userItems.get(user);
+            if (Arrays.equals(oldItems, newItems)) {
+                return;
+            }
+            for (int item : oldItems) {
+                if (Arrays.binarySearch(newItems, item) < 0) {
+                    itemUsers.get(item).remove(user);
+                }
+            }
+            for (int item : newItems) {
+                if (Arrays.binarySearch(oldItems, item) < 0) {
+                    itemUsers.get(item).add(user);
+                }
+            }
+            userItems.set(user, newItems);
+            if (affected != null) {
+                // Every item of the old or new set now co-occurs differently with the changed ones
+                for (int item : oldItems) {
+                    affected.set(item);
+                }
+                for (int item : newItems) {
+                    affected.set(item);
+                }
+            }
+        }
+
+        void ensureRows() {
+            if (rowNeighbors.length < itemUsers.size()) {
+                int capacity = Math.max(itemUsers.size(), rowNeighbors.length + (rowNeighbors.length >> 1));
+                rowNeighbors = Arrays.copyOf(rowNeighbors, capacity);
+                rowScores = Arrays.copyOf(rowScores, capacity);
+            }
+        }
+
+        /**
+         * Top-N neighbours of one item; rows are independent, so they can be computed in parallel
+         */
+        void computeRow(int item, ItemSimilarityProperties properties) {
+            Scratch s = scratch.get();
+            s.ensure(itemUsers.size());
+
+            IntList users = itemUsers.get(item);
+            for (int u = 0; u < users.size; u++) {
+                for (int other : userItems.get(users.values[u])) {
+                    if (other != item) {
+                        if (s.counts[other]++ == 0) {
+                            s.touched.add(other);
+                        }
+                    }
+                }
+            }
+
+            TopN top = new TopN(properties.getNeighbors());
+            double itemNorm = Math.sqrt(users.size);
+            for (int t = 0; t < s.touched.size; t++) {
+                int other = s.touched.values[t];
+                int count = s.counts[other];
+                s.counts[other] = 0;
+                if (count >= properties.getMinCoOccurrence()) {
+                    top.offer(other, (float) (count / (itemNorm * Math.sqrt(itemUsers.get(other).size))));
+                }
+            }
+            s.touched.size = 0;
+
+            top.drainInto(item, rowNeighbors, rowScores);
+        }
+    }
+
+    /**
+     * Per-thread co-occurrence counters, reset after every row
+     */
+    private static final class Scratch {
+        private int[] counts = new int[0];
+        private final IntList touched = new IntList();
+
+        void ensure(int size) {
+            if (counts.length < size) {
+                counts = Arrays.copyOf(counts, Math.max(size, counts.length + (counts.length >> 1)));
+            }
+        }
+    }
+
+    /**
+     * Bounded min-heap of (id, score); the worst kept score is at the root
+     */
+    private static final class TopN {
+        private final int[] ids;
+        private final float[] scores;
+        private int size;
+
+        TopN(int capacity) {
+            ids = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        void offer(int id, float score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (size > 0 && score > scores[0]) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Drain the heap into (ids, scores) arrays, best first
+         */
+        void drainInto(int row, int[][] rowIds, float[][] rowScores) {
+            int[] sortedIds = new int[size];
+            float[] sortedScores = new float[size];
+            for (int i = size - 1; i >= 0; i--) {
+                sortedIds[i] = ids[0];
+                sortedScores[i] = scores[0];
+                size--;
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            rowIds[row] = sortedIds;
+            rowScores[row] = sortedScores;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (scores[parent] <= scores[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+
+    /**
+     * Growable int array
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            values[size++] = value;
+        }
+
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+
+        int[] toSortedDistinctArray() {
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, distinct);
+        }
+    }
+}
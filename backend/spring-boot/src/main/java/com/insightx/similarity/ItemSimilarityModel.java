@@ -0,0 +1,80 @@
+package com.insightx.similarity;
+
+import com.insightx.dto.MediaKey;
+import com.insightx.media.MediaKeyDictionary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Item Similarity Model - Immutable top-N neighbour lists of every item, in CSR form
+ *
+ * Row i (MediaKeyDictionary id i) spans neighbors/scores[offsets[i] .. offsets[i + 1]), best
+ * first. Ids added to the dictionary after this model was published have no row.
+ */
+public final class ItemSimilarityModel {
+
+    static final ItemSimilarityModel EMPTY = new ItemSimilarityModel(null, new int[]{0}, new int[0], new float[0]);
+
+    private final MediaKeyDictionary dictionary;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final float[] scores;
+
+    ItemSimilarityModel(MediaKeyDictionary dictionary, int[] offsets, int[] neighbors, float[] scores) {
+        this.dictionary = dictionary;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.scores = scores;
+    }
+
+    /**
+     * Most similar items, best first; empty for unknown items
+     */
+    public List<SimilarItem> similarTo(MediaKey key, int limit) {
+        int id = dictionary == null ? -1 : dictionary.find(key);
+        if (id < 0 || id >= rows()) {
+            return List.of();
+        }
+        int start = offsets[id];
+        int end = Math.min(offsets[id + 1], start + limit);
+        List<SimilarItem> result = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            result.add(new SimilarItem(dictionary.keyOf(neighbors[i]), scores[i]));
+        }
+        return result;
+    }
+
+    public int rows() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Stored (item, neighbour) pairs
+     */
+    public int nonZeros() {
+        return offsets[offsets.length - 1];
+    }
+
+    /**
+     * Assemble the CSR arrays from per-item rows (null rows are empty)
+     */
+    static ItemSimilarityModel of(MediaKeyDictionary dictionary, int[][] rowNeighbors, float[][] rowScores) {
+        int[] offsets = new int[rowNeighbors.length + 1];
+        for (int i = 0; i < rowNeighbors.length; i++) {
+            offsets[i + 1] = offsets[i] + (rowNeighbors[i] == null ? 0 : rowNeighbors[i].length);
+        }
+        int[] neighbors = new int[offsets[rowNeighbors.length]];
+        float[] scores = new float[neighbors.length];
+        for (int i = 0; i < rowNeighbors.length; i++) {
+            if (rowNeighbors[i] != null) {
+                System.arraycopy(rowNeighbors[i], 0, neighbors, offsets[i], rowNeighbors[i].length);
+                System.arraycopy(rowScores[i], 0, scores, offsets[i], rowScores[i].length);
+            }
+        }
+        return new ItemSimilarityModel(dictionary, offsets, neighbors, scores);
+    }
+
+    public record SimilarItem(MediaKey mediaKey, float score) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.insightx.similarity;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Item-item similarity settings (insightx.item-similarity.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "insightx.item-similarity")
+public class ItemSimilarityProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Ratings at or above this count as a positive interaction (watched entries always do)
+     */
+    private int minPositiveRating = 7;
+
+    /**
+     * Neighbours kept per item
+     */
+    private int neighbors = 50;
+
+    /**
+     * Users two items must share before they are considered similar
+     */
+    private int minCoOccurrence = 2;
+
+    /**
+     * Users with more interactions are left out (bulk imports add noise and quadratic cost)
+     */
+    private int maxItemsPerUser = 1000;
+
+    /**
+     * Items with fewer local neighbours are served by FastAPI instead
+     */
+    private int minNeighbors = 3;
+
+    /**
+     * Users loaded per page when building
+     */
+    private int pageSize = 1000;
+
+    /**
+     * Changes are re-read this far behind the watermark (clock skew between writers)
+     */
+    private long refreshOverlapMs = 5000;
+}
@@ -0,0 +1,317 @@
+package com.insightx.trending;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.insightx.dto.MediaKey;
+import com.insightx.entities.MediaType;
+import com.insightx.entities.User;
+import com.insightx.events.MediaStateChangedEvent;
+import com.insightx.events.RatingChangedEvent;
+import com.insightx.events.UserRegionChangedEvent;
+import com.insightx.jobs.JobCoordinator;
+import com.insightx.media.MediaState;
+import com.insightx.repositories.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Trending Engine - First-party trending media from ratings, watches and bookmarks
+ *
+ * 1. Committed writes are counted in memory per (media type, region, time bucket), for the
+ *    user's region and for GLOBAL.
+ * 2. Every flushIntervalMs each node adds its counts to Redis (one sorted set per bucket,
+ *    expiring after the window), so all nodes contribute to the same counts.
+ * 3. Every mergeIntervalMs one node unions the window's buckets per (type, region) with
+ *    exponentially decaying weights (ZUNIONSTORE) and keeps the top K.
+ * 4. Every refreshIntervalMs each node copies the top K lists into memory.
+ *
+ * Reads are a map lookup and a sublist: O(K), no Redis or FastAPI call. Keys of one
+ * (type, region) share a hash tag so the union stays on one Redis Cluster slot.
+ */
+@Component
+public class TrendingEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingEngine.class);
+    private static final String KEY_PREFIX = "trending:";
+    private static final String PAIRS_KEY = "trending:pairs";
+    private static final String MERGE_JOB = "trending-merge";
+    private static final String GLOBAL = "GLOBAL";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobCoordinator jobCoordinator;
+
+    @Autowired
+    private TrendingProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // bucket key -> media id -> weight, swapped out on every flush (an increment racing the
+    // swap can land after its map was flushed and is lost; the counts are approximate anyway)
+    private final AtomicReference<Map<String, Map<String, DoubleAdder>>> pending =
+            new AtomicReference<>(new ConcurrentHashMap<>());
+
+    // "type:region" -> top items, best first
+    private volatile Map<String, List<TrendingItem>> snapshot = Map.of();
+
+    private Cache<UUID, String> regions;
+
+    @PostConstruct
+    public void init() {
+        regions = Caffeine.newBuilder()
+                .maximumSize(100000)
+                .expireAfterWrite(Duration.ofHours(1))
+                .build();
+        Gauge.builder("trending.lists", this, engine -> engine.snapshot.size()).register(meterRegistry);
+    }
+
+    /**
+     * Top trending items of a media type in a region (GLOBAL when the region has too few)
+     */
+    public List<TrendingItem> top(MediaType mediaType, String region, int limit) {
+        Map<String, List<TrendingItem>> current = snapshot;
+        List<TrendingItem> items = region != null ? current.get(pair(mediaType, normalizeRegion(region))) : null;
+        if (items == null || items.size() < properties.getMinItems()) {
+            items = current.getOrDefault(pair(mediaType, GLOBAL), List.of());
+        }
+        return items.size() > limit ? items.subList(0, limit) : items;
+    }
+
+    /**
+     * Count an interaction of a user with a media item
+     */
+    public void record(UUID userId, MediaType mediaType, String mediaId, double weight) {
+        if (!properties.isEnabled() || weight <= 0) {
+            return;
+        }
+        long bucket = currentBucket();
+        Map<String, Map<String, DoubleAdder>> counts = pending.get();
+        add(counts, bucketKey(pair(mediaType, GLOBAL), bucket), mediaId, weight);
+        String region = regionOf(userId);
+        if (region != null) {
+            add(counts, bucketKey(pair(mediaType, region), bucket), mediaId, weight);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRatingChanged(RatingChangedEvent event) {
+        if (event.previousRating() == null && event.rating() != null) {
+            record(event.userId(), event.mediaType(), event.mediaId(),
+                    properties.getRatingWeight() * event.rating() / 10.0);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMediaStateChanged(MediaStateChangedEvent event) {
+        if (!event.active()) {
+            return;
+        }
+        if (event.state() == MediaState.WATCHED) {
+            record(event.userId(), event.mediaType(), event.mediaId(), properties.getWatchedWeight());
+        } else if (event.state() == MediaState.BOOKMARKED) {
+            record(event.userId(), event.mediaType(), event.mediaId(), properties.getBookmarkWeight());
+        }
+    }
+
+    @EventListener
+    public void onRegionChanged(UserRegionChangedEvent event) {
+        regions.invalidate(event.userId());
+    }
+
+    /**
+     * Add this node's counts to the shared buckets in Redis
+     */
+    @Scheduled(fixedDelayString = "${insightx.trending.flush-interval-ms:10000}")
+    public void flush() {
+        Map<String, Map<String, DoubleAdder>> counts = pending.getAndSet(new ConcurrentHashMap<>());
+        if (counts.isEmpty()) {
+            return;
+        }
+        long ttlSeconds = TimeUnit.MINUTES.toSeconds((long) properties.getBucketMinutes() * (properties.getWindowBuckets() + 1));
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                counts.forEach((key, items) -> {
+                    items.forEach((mediaId, weight) -> redis.zIncrBy(key, weight.sum(), mediaId));
+                    redis.expire(key, ttlSeconds);
+                    redis.sAdd(PAIRS_KEY, pairOf(key));
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            // Counts are approximate; a failed flush loses only this interval's events
+            log.error("Error flushing {} trending buckets: {}", counts.size(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${insightx.trending.merge-interval-ms:60000}",
+               initialDelayString = "${insightx.trending.merge-initial-delay-ms:15000}")
+    public void merge() {
+        if (properties.isEnabled()) {
+            jobCoordinator.runPeriodic(MERGE_JOB, Duration.ofMillis(properties.getMergeIntervalMs()), this::mergeBuckets);
+        }
+    }
+
+    /**
+     * Union the window's buckets of every (type, region), newer buckets weighing more
+     */
+    private void mergeBuckets() {
+        Set<String> pairs = stringRedisTemplate.opsForSet().members(PAIRS_KEY);
+        if (pairs == null || pairs.isEmpty()) {
+            return;
+        }
+        long current = currentBucket();
+        int buckets = properties.getWindowBuckets();
+        double bucketsPerHalfLife = properties.getHalfLifeHours() * 60 / properties.getBucketMinutes();
+        double[] weights = new double[buckets];
+        for (int age = 0; age < buckets; age++) {
+            weights[age] = Math.pow(0.5, age / bucketsPerHalfLife);
+        }
+
+        long ttlSeconds = TimeUnit.MINUTES.toSeconds((long) properties.getBucketMinutes() * properties.getWindowBuckets());
+        for (String pair : pairs) {
+            List<String> keys = new ArrayList<>(buckets);
+            for (int age = 0; age < buckets; age++) {
+                keys.add(bucketKey(pair, current - age));
+            }
+            String topKey = topKey(pair);
+            Long size = stringRedisTemplate.opsForZSet().unionAndStore(keys.get(0), keys.subList(1, keys.size()),
+                    topKey, Aggregate.SUM, Weights.of(weights));
+            if (size == null || size == 0) {
+                // Nothing in the window any more
+                stringRedisTemplate.opsForSet().remove(PAIRS_KEY, pair);
+                continue;
+            }
+            if (size > properties.getTopK()) {
+                stringRedisTemplate.opsForZSet().removeRange(topKey, 0, size - properties.getTopK() - 1);
+            }
+            stringRedisTemplate.expire(topKey, Duration.ofSeconds(ttlSeconds));
+        }
+        log.debug("Merged trending buckets of {} media type/region pairs", pairs.size());
+    }
+
+    /**
+     * Copy the merged top K lists into memory
+     */
+    @Scheduled(fixedDelayString = "${insightx.trending.refresh-interval-ms:30000}",
+               initialDelayString = "${insightx.trending.refresh-initial-delay-ms:5000}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            Set<String> pairs = stringRedisTemplate.opsForSet().members(PAIRS_KEY);
+            if (pairs == null) {
+                return;
+            }
+            List<String> ordered = new ArrayList<>(pairs);
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (String pair : ordered) {
+                    redis.zRevRangeWithScores(topKey(pair), 0, properties.getTopK() - 1);
+                }
+                return null;
+            });
+
+            Map<String, List<TrendingItem>> next = new HashMap<>();
+            for (int i = 0; i < ordered.size(); i++) {
+                List<TrendingItem> items = toItems(ordered.get(i), results.get(i));
+                if (!items.isEmpty()) {
+                    next.put(ordered.get(i), items);
+                }
+            }
+            snapshot = Map.copyOf(next);
+        } catch (Exception e) {
+            log.error("Error refreshing trending lists: {}", e.getMessage());
+        }
+    }
+
+    private List<TrendingItem> toItems(String pair, Object result) {
+        if (!(result instanceof Set<?> tuples)) {
+            return List.of();
+        }
+        MediaType mediaType = MediaType.fromValue(pair.substring(0, pair.indexOf(':')));
+        List<TrendingItem> items = new ArrayList<>(tuples.size());
+        for (Object tuple : tuples) {
+            if (tuple instanceof ZSetOperations.TypedTuple<?> entry) {
+                items.add(new TrendingItem(new MediaKey(mediaType, String.valueOf(entry.getValue())),
+                        entry.getScore() != null ? entry.getScore() : 0));
+            } else if (tuple instanceof StringRedisConnection.StringTuple entry) {
+                items.add(new TrendingItem(new MediaKey(mediaType, entry.getValueAsString()), entry.getScore()));
+            }
+        }
+        return List.copyOf(items);
+    }
+
+    private String regionOf(UUID userId) {
+        String region = regions.get(userId, id -> userRepository.findById(id)
+                .map(User::getRegion)
+                .map(TrendingEngine::normalizeRegion)
+                .orElse(""));
+        return region.isEmpty() || region.equals(GLOBAL) ? null : region;
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / TimeUnit.MINUTES.toMillis(properties.getBucketMinutes());
+    }
+
+    private static void add(Map<String, Map<String, DoubleAdder>> counts, String key, String mediaId, double weight) {
+        counts.computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(mediaId, id -> new DoubleAdder())
+                .add(weight);
+    }
+
+    private static String normalizeRegion(String region) {
+        return region == null ? "" : region.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String pair(MediaType mediaType, String region) {
+        return mediaType.getValue() + ":" + region;
+    }
+
+    private static String bucketKey(String pair, long bucket) {
+        return KEY_PREFIX + "{" + pair + "}:" + bucket;
+    }
+
+    private static String topKey(String pair) {
+        return KEY_PREFIX + "{" + pair + "}:top";
+    }
+
+    private static String pairOf(String bucketKey) {
+        return bucketKey.substring(bucketKey.indexOf('{') + 1, bucketKey.indexOf('}'));
+    }
+}
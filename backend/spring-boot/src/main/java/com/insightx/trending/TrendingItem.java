@@ -0,0 +1,9 @@
+package com.insightx.trending;
+
+import com.insightx.dto.MediaKey;
+
+/**
+ * A trending media item with its time-decayed activity score
+ */
+public record TrendingItem(MediaKey mediaKey, double score) {
+}
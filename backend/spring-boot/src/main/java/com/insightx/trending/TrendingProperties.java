@@ -0,0 +1,49 @@
+package com.insightx.trending;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * First-party trending settings (insightx.trending.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "insightx.trending")
+public class TrendingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Counts are kept per bucket of this many minutes, for windowBuckets buckets
+     */
+    private int bucketMinutes = 60;
+    private int windowBuckets = 48;
+
+    /**
+     * A bucket this old counts half as much as the current one
+     */
+    private double halfLifeHours = 24;
+
+    /**
+     * Items kept per media type and region
+     */
+    private int topK = 100;
+
+    /**
+     * Regions with fewer items fall back to the global list; with fewer global items
+     * trending is served by FastAPI
+     */
+    private int minItems = 10;
+
+    /**
+     * Event weights; a rating counts ratingWeight * rating / 10
+     */
+    private double ratingWeight = 1.0;
+    private double watchedWeight = 1.0;
+    private double bookmarkWeight = 0.5;
+
+    private long flushIntervalMs = 10000;
+    private long mergeIntervalMs = 60000;
+    private long refreshIntervalMs = 30000;
+}
@@ -0,0 +1,417 @@
+package com.insightx.vectors;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * IVF Index - Inverted-file approximate nearest-neighbour index over unit vectors
+ *
+ * Vectors are assigned to the nearest of nlist centroids (spherical k-means on a sample);
+ * a query scans only the lists of its nprobe nearest centroids, so it touches about
+ * nprobe / nlist of the vectors. Each list keeps ids and vectors in flat primitive arrays
+ * (row-major floats), so the scan is a tight dot-product loop without per-entry objects.
+ *
+ * Not thread-safe; callers guard it with a read/write lock.
+ */
+public final class IvfIndex {
+
+    private static final int MAGIC = 0x55564958; // "UVIX"
+    private static final int FORMAT_VERSION = 1;
+
+    private final int dims;
+    private final int nlist;
+    private final float[] centroids;
+    private final IvfList[] lists;
+    // user id -> (list << 32 | position)
+    private final Map<UUID, Long> locations = new HashMap<>();
+    private final int trainedSize;
+    private long watermark;
+
+    private IvfIndex(int dims, float[] centroids, int trainedSize) {
+        this.dims = dims;
+        this.nlist = centroids.length / dims;
+        this.centroids = centroids;
+        this.trainedSize = trainedSize;
+        this.lists = new IvfList[nlist];
+        for (int i = 0; i < nlist; i++) {
+            lists[i] = new IvfList();
+        }
+    }
+
+    /**
+     * Train centroids with spherical k-means; the index starts empty.
+     *
+     * @param expectedSize number of vectors the index is sized for (recorded to decide retraining)
+     */
+    public static IvfIndex train(int dims, int nlist, List<float[]> sample, int iterations, int expectedSize,
+                                 Random random) {
+        if (sample.isEmpty()) {
+            throw new IllegalArgumentException("Cannot train an index without vectors");
+        }
+        int lists = Math.max(1, Math.min(nlist, sample.size()));
+        float[][] points = new float[sample.size()][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = fit(sample.get(i), dims);
+        }
+
+        float[] centroids = new float[lists * dims];
+        for (int j = 0; j < lists; j++) {
+            System.arraycopy(points[random.nextInt(points.length)], 0, centroids, j * dims, dims);
+        }
+
+        int[] assignment = new int[points.length];
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            float[] current = centroids;
+            IntStream.range(0, points.length).parallel()
+                    .forEach(i -> assignment[i] = nearest(current, lists, dims, points[i]));
+
+            float[] sums = new float[lists * dims];
+            int[] counts = new int[lists];
+            for (int i = 0; i < points.length; i++) {
+                int offset = assignment[i] * dims;
+                for (int d = 0; d < dims; d++) {
+                    sums[offset + d] += points[i][d];
+                }
+                counts[assignment[i]]++;
+            }
+            for (int j = 0; j < lists; j++) {
+                if (counts[j] == 0) {
+                    // Empty cluster: restart it at a random point
+                    System.arraycopy(points[random.nextInt(points.length)], 0, sums, j * dims, dims);
+                }
+                normalizeRow(sums, j * dims, dims);
+            }
+            centroids = sums;
+        }
+        return new IvfIndex(dims, centroids, expectedSize);
+    }
+
+    public int dims() {
+        return dims;
+    }
+
+    public int nlist() {
+        return nlist;
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    /**
+     * Number of vectors the centroids were trained for
+     */
+    public int trainedSize() {
+        return trainedSize;
+    }
+
+    /**
+     * Opaque position of the data source the index is synced up to (epoch ms)
+     */
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(long watermark) {
+        this.watermark = watermark;
+    }
+
+    /**
+     * Insert or replace a vector (truncated or zero-padded to dims)
+     */
+    public void upsert(UUID id, float[] vector) {
+        remove(id);
+        float[] row = fit(vector, dims);
+        int list = nearest(centroids, nlist, dims, row);
+        int position = lists[list].add(id, row, dims);
+        locations.put(id, ((long) list << 32) | position);
+    }
+
+    public boolean remove(UUID id) {
+        Long location = locations.remove(id);
+        if (location == null) {
+            return false;
+        }
+        int list = (int) (location >>> 32);
+        int position = (int) (long) location;
+        UUID moved = lists[list].removeAt(position, dims);
+        if (moved != null) {
+            locations.put(moved, location);
+        }
+        return true;
+    }
+
+    /**
+     * Copy of an indexed vector, or null
+     */
+    public float[] vectorOf(UUID id) {
+        Long location = locations.get(id);
+        if (location == null) {
+            return null;
+        }
+        IvfList list = lists[(int) (location >>> 32)];
+        int offset = (int) (long) location * dims;
+        return Arrays.copyOfRange(list.vectors, offset, offset + dims);
+    }
+
+    /**
+     * Approximate top-k by dot product (= cosine for unit vectors), best first
+     */
+    public List<Neighbor> search(float[] query, int k, int nprobe, UUID exclude) {
+        if (k <= 0) {
+            return List.of();
+        }
+        float[] q = fit(query, dims);
+        int[] probes = nearestLists(q, Math.min(nprobe, nlist));
+
+        float[] topScores = new float[k];
+        long[] topMsb = new long[k];
+        long[] topLsb = new long[k];
+        Arrays.fill(topScores, Float.NEGATIVE_INFINITY);
+        int found = 0;
+        long excludeMsb = exclude != null ? exclude.getMostSignificantBits() : 0;
+        long excludeLsb = exclude != null ? exclude.getLeastSignificantBits() : 0;
+
+        for (int list : probes) {
+            IvfList entries = lists[list];
+            for (int p = 0; p < entries.size; p++) {
+                float score = TasteVectors.dot(entries.vectors, p * dims, q, dims);
+                if (found == k && score <= topScores[k - 1]) {
+                    continue;
+                }
+                if (exclude != null && entries.msb[p] == excludeMsb && entries.lsb[p] == excludeLsb) {
+                    continue;
+                }
+                int i = found < k ? found++ : k - 1;
+                while (i > 0 && topScores[i - 1] < score) {
+                    topScores[i] = topScores[i - 1];
+                    topMsb[i] = topMsb[i - 1];
+                    topLsb[i] = topLsb[i - 1];
+                    i--;
+                }
+                topScores[i] = score;
+                topMsb[i] = entries.msb[p];
+                topLsb[i] = entries.lsb[p];
+            }
+        }
+
+        List<Neighbor> neighbors = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            neighbors.add(new Neighbor(new UUID(topMsb[i], topLsb[i]), topScores[i]));
+        }
+        return neighbors;
+    }
+
+    // ========================================
+    // Snapshot (memory-mapped file)
+    // ========================================
+
+    /**
+     * Layout: magic, version, dims, nlist, trainedSize, watermark, centroids, then per list
+     * its size, id high bits, id low bits and vectors. Little-endian.
+     */
+    public void write(Path path) throws IOException {
+        long bytes = 4L * 5 + 8 + 4L * centroids.length;
+        for (IvfList list : lists) {
+            bytes += 4 + (long) list.size * (16 + 4L * dims);
+        }
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Index too large for one mapping: " + bytes + " bytes");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(dims).putInt(nlist).putInt(trainedSize);
+            buffer.putLong(watermark);
+            putFloats(buffer, centroids, centroids.length);
+            for (IvfList list : lists) {
+                buffer.putInt(list.size);
+                putLongs(buffer, list.msb, list.size);
+                putLongs(buffer, list.lsb, list.size);
+                putFloats(buffer, list.vectors, list.size * dims);
+            }
+            buffer.force();
+        }
+    }
+
+    /**
+     * Load a snapshot; returns null when the file has another format or dimension count
+     */
+    public static IvfIndex read(Path path, int expectedDims) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            int dims = buffer.getInt();
+            int nlist = buffer.getInt();
+            int trainedSize = buffer.getInt();
+            long watermark = buffer.getLong();
+            if (dims != expectedDims) {
+                return null;
+            }
+
+            float[] centroids = new float[nlist * dims];
+            getFloats(buffer, centroids, centroids.length);
+            IvfIndex index = new IvfIndex(dims, centroids, trainedSize);
+            index.watermark = watermark;
+            for (int l = 0; l < nlist; l++) {
+                IvfList list = index.lists[l];
+                int size = buffer.getInt();
+                list.ensureCapacity(size, dims);
+                getLongs(buffer, list.msb, size);
+                getLongs(buffer, list.lsb, size);
+                getFloats(buffer, list.vectors, size * dims);
+                list.size = size;
+                for (int p = 0; p < size; p++) {
+                    index.locations.put(new UUID(list.msb[p], list.lsb[p]), ((long) l << 32) | p);
+                }
+            }
+            return index;
+        }
+    }
+
+    private static void putFloats(MappedByteBuffer buffer, float[] values, int length) {
+        buffer.asFloatBuffer().put(values, 0, length);
+        buffer.position(buffer.position() + length * Float.BYTES);
+    }
+
+    private static void putLongs(MappedByteBuffer buffer, long[] values, int length) {
+        buffer.asLongBuffer().put(values, 0, length);
+        buffer.position(buffer.position() + length * Long.BYTES);
+    }
+
+    private static void getFloats(MappedByteBuffer buffer, float[] values, int length) {
+        buffer.asFloatBuffer().get(values, 0, length);
+        buffer.position(buffer.position() + length * Float.BYTES);
+    }
+
+    private static void getLongs(MappedByteBuffer buffer, long[] values, int length) {
+        buffer.asLongBuffer().get(values, 0, length);
+        buffer.position(buffer.position() + length * Long.BYTES);
+    }
+
+    // ========================================
+    // Helpers
+    // ========================================
+
+    private int[] nearestLists(float[] q, int probes) {
+        int[] best = new int[probes];
+        float[] bestScores = new float[probes];
+        Arrays.fill(bestScores, Float.NEGATIVE_INFINITY);
+        for (int j = 0; j < nlist; j++) {
+            float score = TasteVectors.dot(centroids, j * dims, q, dims);
+            if (score <= bestScores[probes - 1]) {
+                continue;
+            }
+            int i = probes - 1;
+            while (i > 0 && bestScores[i - 1] < score) {
+                bestScores[i] = bestScores[i - 1];
+                best[i] = best[i - 1];
+                i--;
+            }
+            bestScores[i] = score;
+            best[i] = j;
+        }
+        return best;
+    }
+
+    private static int nearest(float[] centroids, int nlist, int dims, float[] vector) {
+        int best = 0;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int j = 0; j < nlist; j++) {
+            float score = TasteVectors.dot(centroids, j * dims, vector, dims);
+            if (score > bestScore) {
+                bestScore = score;
+                best = j;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A vector of the index's length: truncated (or zero-padded) copies are re-normalized, so
+     * dot products stay cosines when dimensions beyond dims carried weight
+     */
+    static float[] fit(float[] vector, int dims) {
+        if (vector.length == dims) {
+            return vector;
+        }
+        float[] fitted = Arrays.copyOf(vector, dims);
+        TasteVectors.normalize(fitted);
+        return fitted;
+    }
+
+    private static void normalizeRow(float[] matrix, int offset, int dims) {
+        double norm = 0;
+        for (int d = 0; d < dims; d++) {
+            norm += matrix[offset + d] * matrix[offset + d];
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int d = 0; d < dims; d++) {
+                matrix[offset + d] *= scale;
+            }
+        }
+    }
+
+    public record Neighbor(UUID userId, float similarity) {
+    }
+
+    /**
+     * One inverted list: ids and row-major vectors in parallel arrays
+     */
+    private static final class IvfList {
+        private int size;
+        private long[] msb = new long[0];
+        private long[] lsb = new long[0];
+        private float[] vectors = new float[0];
+
+        int add(UUID id, float[] vector, int dims) {
+            ensureCapacity(size + 1, dims);
+            msb[size] = id.getMostSignificantBits();
+            lsb[size] = id.getLeastSignificantBits();
+            System.arraycopy(vector, 0, vectors, size * dims, dims);
+            return size++;
+        }
+
+        /**
+         * Remove by moving the last entry into the gap; returns the moved id (null if none moved)
+         */
+        UUID removeAt(int position, int dims) {
+            int last = --size;
+            if (position == last) {
+                return null;
+            }
+            msb[position] = msb[last];
+            lsb[position] = lsb[last];
+            System.arraycopy(vectors, last * dims, vectors, position * dims, dims);
+            return new UUID(msb[position], lsb[position]);
+        }
+
+        void ensureCapacity(int capacity, int dims) {
+            if (capacity <= msb.length) {
+                return;
+            }
+            int grown = Math.max(capacity, Math.max(8, msb.length + (msb.length >> 1)));
+            msb = Arrays.copyOf(msb, grown);
+            lsb = Arrays.copyOf(lsb, grown);
+            vectors = Arrays.copyOf(vectors, grown * dims);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.insightx.vectors;
+
+import com.insightx.repositories.TasteProfileRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Similar User Index - Top-K similar users by taste vector, for collaborative filtering
+ *
+ * Each node holds an IvfIndex over all users' taste vectors in memory:
+ * - startup loads the memory-mapped snapshot and catches up on profiles changed since,
+ *   or builds the index from taste_profiles when there is no usable snapshot
+ * - every sync interval, profiles changed since the watermark are upserted (or removed
+ *   when their vector was cleared), so the index follows profile updates on any node
+ * - the centroids are retrained in the background once the index has grown well past
+ *   the size they were trained for
+ *
+ * Only active when insightx.features.collaborative-filtering=true; then it feeds the
+ * similar-users recommendation source (SimilarUsersCandidateSource).
+ */
+@Component
+@ConditionalOnProperty(name = "insightx.features.collaborative-filtering", havingValue = "true")
+public class SimilarUserIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarUserIndex.class);
+    private static final int MIN_NLIST = 16;
+    private static final int MAX_NLIST = 4096;
+    private static final UUID FIRST_USER = new UUID(0, 0);
+
+    @Autowired
+    private TasteProfileRepository tasteProfileRepository;
+
+    @Autowired
+    private TasteDimensionDictionary dictionary;
+
+    @Autowired
+    private SimilarUserIndexProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile IvfIndex index;
+    private volatile boolean rebuilding;
+    private volatile boolean dirty;
+    private Timer searchTimer;
+
+    @PostConstruct
+    public void init() {
+        searchTimer = Timer.builder("collaborative.similar_users.latency")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("collaborative.index.size", this, SimilarUserIndex::size).register(meterRegistry);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            IvfIndex loaded = readSnapshot();
+            if (loaded != null) {
+                index = loaded;
+                log.info("Loaded similar-user index snapshot with {} users", loaded.size());
+                sync();
+            } else {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Error loading similar-user index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Users most similar to the given user (by cosine of taste vectors), best first
+     */
+    public List<IvfIndex.Neighbor> findSimilarUsers(UUID userId, int k) {
+        IvfIndex current = index;
+        if (current == null) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            float[] vector = current.vectorOf(userId);
+            return vector == null ? List.of() : current.search(vector, k, properties.getNprobe(), userId);
+        } finally {
+            lock.readLock().unlock();
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    public int size() {
+        IvfIndex current = index;
+        return current == null ? 0 : current.size();
+    }
+
+    /**
+     * Apply profile changes since the watermark
+     */
+    @Scheduled(fixedDelayString = "${insightx.collaborative.sync-interval-ms:30000}",
+               initialDelayString = "${insightx.collaborative.sync-interval-ms:30000}")
+    public void sync() {
+        IvfIndex current = index;
+        if (current == null || rebuilding) {
+            return;
+        }
+        try {
+            LocalDateTime afterUpdated = toLocalDateTime(current.getWatermark() - properties.getSyncOverlapMs());
+            UUID afterUser = FIRST_USER;
+            long watermark = current.getWatermark();
+            int changed = 0;
+
+            while (true) {
+                List<Object[]> rows = tasteProfileRepository.findTasteVectorsUpdatedAfter(
+                        afterUpdated, afterUser, properties.getPageSize());
+                if (rows.isEmpty()) {
+                    break;
+                }
+                lock.writeLock().lock();
+                try {
+                    for (Object[] row : rows) {
+                        UUID userId = (UUID) row[0];
+                        float[] vector = TasteVectors.decode((byte[]) row[1]);
+                        if (vector != null) {
+                            current.upsert(userId, vector);
+                        } else {
+                            current.remove(userId);
+                        }
+                    }
+                    dirty = true;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                Object[] last = rows.get(rows.size() - 1);
+                afterUser = (UUID) last[0];
+                afterUpdated = toLocalDateTime(last[2]);
+                watermark = Math.max(watermark, toMillis(afterUpdated));
+                changed += rows.size();
+                if (rows.size() < properties.getPageSize()) {
+                    break;
+                }
+            }
+            current.setWatermark(watermark);
+
+            if (current.size() > current.trainedSize() * properties.getRetrainGrowthFactor()) {
+                log.info("Similar-user index grew to {} users (trained for {}); retraining",
+                        current.size(), current.trainedSize());
+                rebuild();
+            } else if (changed > 0) {
+                log.debug("Synced {} taste profile changes into the similar-user index", changed);
+            }
+        } catch (Exception e) {
+            log.error("Error syncing similar-user index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Build a new index from all taste vectors and swap it in (queries keep using the old one meanwhile)
+     */
+    public synchronized void rebuild() {
+        rebuilding = true;
+        try {
+            long started = System.currentTimeMillis();
+            int dims = indexDimensions();
+            List<UUID> ids = new ArrayList<>();
+            List<float[]> vectors = new ArrayList<>();
+
+            UUID afterUser = FIRST_USER;
+            while (true) {
+                List<Object[]> rows = tasteProfileRepository.findTasteVectorsAfter(afterUser, properties.getPageSize());
+                for (Object[] row : rows) {
+                    float[] vector = TasteVectors.decode((byte[]) row[1]);
+                    if (vector != null) {
+                        ids.add((UUID) row[0]);
+                        vectors.add(IvfIndex.fit(vector, dims));
+                    }
+                }
+                if (rows.size() < properties.getPageSize()) {
+                    break;
+                }
+                afterUser = (UUID) rows.get(rows.size() - 1)[0];
+            }
+            if (ids.isEmpty()) {
+                log.info("No taste vectors yet; similar-user index not built");
+                return;
+            }
+
+            IvfIndex built = IvfIndex.train(dims, nlistFor(ids.size()), sample(vectors),
+                    properties.getKmeansIterations(), ids.size(), new Random());
+            for (int i = 0; i < ids.size(); i++) {
+                built.upsert(ids.get(i), vectors.get(i));
+            }
+            // Changes committed while building are picked up by the next sync
+            built.setWatermark(started);
+
+            lock.writeLock().lock();
+            try {
+                index = built;
+                dirty = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Built similar-user index: {} users, {} lists, {} dims in {} ms",
+                    built.size(), built.nlist(), dims, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Error building similar-user index: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    /**
+     * Write the index to its memory-mapped snapshot file (temp file + atomic move)
+     */
+    @Scheduled(fixedDelayString = "${insightx.collaborative.snapshot-interval-ms:600000}",
+               initialDelayString = "${insightx.collaborative.snapshot-interval-ms:600000}")
+    public void snapshot() {
+        IvfIndex current = index;
+        if (current == null || properties.getSnapshotPath() == null) {
+            return;
+        }
+        Path path = Paths.get(properties.getSnapshotPath());
+        lock.readLock().lock();
+        try {
+            if (!dirty) {
+                return;
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            current.write(temp);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (Exception e) {
+            log.error("Error writing similar-user index snapshot: {}", e.getMessage());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IvfIndex readSnapshot() {
+        if (properties.getSnapshotPath() == null) {
+            return null;
+        }
+        Path path = Paths.get(properties.getSnapshotPath());
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            IvfIndex loaded = IvfIndex.read(path, indexDimensions());
+            if (loaded == null) {
+                log.info("Similar-user index snapshot has another format or dimension count; rebuilding");
+            }
+            return loaded;
+        } catch (Exception e) {
+            log.warn("Unreadable similar-user index snapshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Dimensions in use, rounded up to a multiple of 8 (room for a few new genres before a rebuild)
+     */
+    private int indexDimensions() {
+        int active = Math.max(1, dictionary.activeDimensions());
+        return Math.min(dictionary.dimensions(), (active + 7) / 8 * 8);
+    }
+
+    private int nlistFor(int users) {
+        if (properties.getNlist() > 0) {
+            return properties.getNlist();
+        }
+        return Math.max(MIN_NLIST, Math.min(MAX_NLIST, (int) Math.sqrt(users)));
+    }
+
+    private List<float[]> sample(List<float[]> vectors) {
+        int size = properties.getTrainSampleSize();
+        if (vectors.size() <= size) {
+            return vectors;
+        }
+        // Reservoir sample
+        Random random = new Random();
+        List<float[]> sample = new ArrayList<>(vectors.subList(0, size));
+        for (int i = size; i < vectors.size(); i++) {
+            int j = random.nextInt(i + 1);
+            if (j < size) {
+                sample.set(j, vectors.get(i));
+            }
+        }
+        return sample;
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,161 @@
+package com.insightx.vectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Similar User Index Benchmark - Recall and latency of IvfIndex against exact search
+ *
+ * Runs once at startup when insightx.collaborative.benchmark.enabled=true. Builds an index
+ * over synthetic clustered taste vectors (no database needed) and logs build time, then
+ * recall@k and p50/p99 query latency for a range of nprobe values, with brute force as
+ * the reference.
+ */
+@Component
+@ConditionalOnProperty(name = "insightx.collaborative.benchmark.enabled", havingValue = "true")
+public class SimilarUserIndexBenchmark implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarUserIndexBenchmark.class);
+    private static final long SEED = 42;
+
+    @Autowired
+    private SimilarUserIndexProperties properties;
+
+    // Written to defeat dead-code elimination of search results
+    private volatile Object sink;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        SimilarUserIndexProperties.Benchmark settings = properties.getBenchmark();
+        int dims = settings.getDims();
+        Random random = new Random(SEED);
+
+        long start = System.nanoTime();
+        float[][] vectors = clusteredVectors(settings.getUsers(), dims, settings.getClusters(), random);
+        UUID[] ids = new UUID[vectors.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        log.info("Generated {} vectors of {} dims in {} ms", vectors.length, dims, millisSince(start));
+
+        start = System.nanoTime();
+        List<float[]> sample = new ArrayList<>();
+        for (int i = 0; i < Math.min(properties.getTrainSampleSize(), vectors.length); i++) {
+            sample.add(vectors[random.nextInt(vectors.length)]);
+        }
+        int nlist = properties.getNlist() > 0 ? properties.getNlist()
+                : Math.max(16, Math.min(4096, (int) Math.sqrt(vectors.length)));
+        IvfIndex index = IvfIndex.train(dims, nlist, sample, properties.getKmeansIterations(), vectors.length, random);
+        long trainMillis = millisSince(start);
+        start = System.nanoTime();
+        for (int i = 0; i < vectors.length; i++) {
+            index.upsert(ids[i], vectors[i]);
+        }
+        log.info("Built index: {} lists, train {} ms, insert {} ms", nlist, trainMillis, millisSince(start));
+
+        int queries = settings.getQueries();
+        int k = settings.getK();
+        int[] queryRows = new int[queries];
+        List<Set<UUID>> exact = new ArrayList<>(queries);
+        long[] bruteNanos = new long[queries];
+        for (int q = 0; q < queries; q++) {
+            queryRows[q] = random.nextInt(vectors.length);
+            long queryStart = System.nanoTime();
+            exact.add(bruteForce(vectors, ids, queryRows[q], k));
+            bruteNanos[q] = System.nanoTime() - queryStart;
+        }
+        log.info(String.format("%-12s %10s %12s %12s", "nprobe", "recall@" + k, "p50 us", "p99 us"));
+        log.info(String.format("%-12s %10.3f %12d %12d", "brute-force", 1.0,
+                percentile(bruteNanos, 0.5) / 1000, percentile(bruteNanos, 0.99) / 1000));
+
+        for (int nprobe : new int[]{1, 4, 8, 16, 32, 64}) {
+            if (nprobe > nlist) {
+                break;
+            }
+            long[] nanos = new long[queries];
+            int hits = 0;
+            for (int q = 0; q < queries; q++) {
+                long queryStart = System.nanoTime();
+                List<IvfIndex.Neighbor> neighbors = index.search(vectors[queryRows[q]], k, nprobe, ids[queryRows[q]]);
+                nanos[q] = System.nanoTime() - queryStart;
+                sink = neighbors;
+                for (IvfIndex.Neighbor neighbor : neighbors) {
+                    if (exact.get(q).contains(neighbor.userId())) {
+                        hits++;
+                    }
+                }
+            }
+            log.info(String.format("%-12d %10.3f %12d %12d", nprobe, hits / (double) (queries * k),
+                    percentile(nanos, 0.5) / 1000, percentile(nanos, 0.99) / 1000));
+        }
+    }
+
+    /**
+     * Normalized vectors scattered around random cluster centers, roughly like real taste profiles
+     */
+    private static float[][] clusteredVectors(int count, int dims, int clusters, Random random) {
+        float[][] centers = new float[clusters][dims];
+        for (float[] center : centers) {
+            for (int d = 0; d < dims; d++) {
+                center[d] = random.nextFloat();
+            }
+        }
+        float[][] vectors = new float[count][];
+        for (int i = 0; i < count; i++) {
+            float[] center = centers[random.nextInt(clusters)];
+            float[] vector = new float[dims];
+            for (int d = 0; d < dims; d++) {
+                vector[d] = Math.max(0f, center[d] + (float) random.nextGaussian() * 0.15f);
+            }
+            TasteVectors.normalize(vector);
+            vectors[i] = vector;
+        }
+        return vectors;
+    }
+
+    private static Set<UUID> bruteForce(float[][] vectors, UUID[] ids, int queryRow, int k) {
+        PriorityQueue<IvfIndex.Neighbor> top = new PriorityQueue<>(
+                (a, b) -> Float.compare(a.similarity(), b.similarity()));
+        for (int i = 0; i < vectors.length; i++) {
+            if (i == queryRow) {
+                continue;
+            }
+            float similarity = TasteVectors.dot(vectors[queryRow], vectors[i]);
+            if (top.size() < k) {
+                top.add(new IvfIndex.Neighbor(ids[i], similarity));
+            } else if (similarity > top.peek().similarity()) {
+                top.poll();
+                top.add(new IvfIndex.Neighbor(ids[i], similarity));
+            }
+        }
+        Set<UUID> result = new HashSet<>();
+        for (IvfIndex.Neighbor neighbor : top) {
+            result.add(neighbor.userId());
+        }
+        return result;
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
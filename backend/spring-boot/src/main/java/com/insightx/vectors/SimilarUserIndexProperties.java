@@ -0,0 +1,57 @@
+package com.insightx.vectors;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Similar-user index settings (insightx.collaborative.*)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "insightx.collaborative")
+public class SimilarUserIndexProperties {
+
+    /**
+     * Inverted lists; 0 = sqrt(number of users)
+     */
+    private int nlist = 0;
+
+    /**
+     * Lists scanned per query (recall vs latency)
+     */
+    private int nprobe = 16;
+
+    private int trainSampleSize = 50000;
+
+    private int kmeansIterations = 8;
+
+    /**
+     * Retrain the centroids once the index holds this many times the vectors it was trained for
+     */
+    private double retrainGrowthFactor = 2.0;
+
+    private String snapshotPath;
+
+    /**
+     * Profiles read per page when building and syncing
+     */
+    private int pageSize = 5000;
+
+    /**
+     * Changes are re-read this far behind the watermark (clock skew between writers)
+     */
+    private long syncOverlapMs = 5000;
+
+    private Benchmark benchmark = new Benchmark();
+
+    @Data
+    public static class Benchmark {
+        private boolean enabled = false;
+        private int users = 1000000;
+        private int dims = 32;
+        private int clusters = 200;
+        private int queries = 200;
+        private int k = 10;
+    }
+}
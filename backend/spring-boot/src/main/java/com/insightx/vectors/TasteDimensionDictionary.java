@@ -0,0 +1,126 @@
+package com.insightx.vectors;
+
+import com.insightx.entities.TasteDimension;
+import com.insightx.repositories.TasteDimensionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Taste Dimension Dictionary - Stable mapping of (kind, name) to taste vector indexes
+ *
+ * The dictionary is append-only in the database, so an index never changes meaning. It is
+ * held in memory and reloaded when an unknown name shows up (another node may have added
+ * it). New names are inserted in their own transaction, so a dimension handed out here
+ * always exists even if the caller's transaction rolls back. Inserts take the next index
+ * under a table lock, so indexes stay dense and no vector slot is lost to a gap.
+ *
+ * Vectors have a fixed capacity (insightx.taste-profile.vector.dimensions); names that
+ * do not fit are left out of the vectors.
+ */
+@Component
+public class TasteDimensionDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(TasteDimensionDictionary.class);
+
+    @Autowired
+    private TasteDimensionRepository tasteDimensionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${insightx.taste-profile.vector.dimensions:128}")
+    private int dimensions;
+
+    private volatile Map<String, Integer> indexes = Map.of();
+    private TransactionTemplate newTransaction;
+    private boolean capacityWarned;
+
+    @PostConstruct
+    public void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Error loading taste dimensions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Vector length
+     */
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Number of dimensions in use (vectors are zero beyond this)
+     */
+    public int activeDimensions() {
+        int active = 0;
+        for (int index : indexes.values()) {
+            active = Math.max(active, index + 1);
+        }
+        return active;
+    }
+
+    /**
+     * Index of a dimension, adding it to the dictionary if needed; -1 when over capacity
+     */
+    public int indexOf(String kind, String name) {
+        String key = key(kind, name);
+        Integer index = indexes.get(key);
+        if (index != null) {
+            return index;
+        }
+
+        synchronized (this) {
+            index = indexes.get(key);
+            if (index == null) {
+                newTransaction.executeWithoutResult(status -> {
+                    tasteDimensionRepository.lockForInsert();
+                    tasteDimensionRepository.insertIfAbsent(kind, name);
+                });
+                reload();
+                index = indexes.getOrDefault(key, -1);
+                if (index < 0 && !capacityWarned) {
+                    capacityWarned = true;
+                    log.warn("Taste vectors are full ({} dimensions); '{}' and later names are left out",
+                            dimensions, key);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Index of a dimension without adding it; -1 when unknown or over capacity
+     */
+    public int find(String kind, String name) {
+        return indexes.getOrDefault(key(kind, name), -1);
+    }
+
+    private void reload() {
+        Map<String, Integer> loaded = new HashMap<>();
+        for (TasteDimension dimension : tasteDimensionRepository.findAll()) {
+            // Names beyond the capacity are kept as -1 so they are not looked up again
+            int index = dimension.getDimensionIndex();
+            loaded.put(key(dimension.getKind(), dimension.getName()), index < dimensions ? index : -1);
+        }
+        indexes = Map.copyOf(loaded);
+    }
+
+    private static String key(String kind, String name) {
+        return kind + ":" + name;
+    }
+}
@@ -0,0 +1,93 @@
+package com.insightx.vectors;
+
+import com.insightx.entities.TasteDimension;
+import com.insightx.services.TasteProfileStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Taste Vectorizer - Turns taste profile statistics into taste vectors
+ *
+ * - genre dimensions: recency-weighted genre average minus the user's mean rating (so harsh
+ *   and generous raters compare on what they like, not on how they rate), scaled to [-1, 1]
+ *   and shrunk towards 0 for genres with few ratings
+ * - media type dimensions: share of the user's ratings, down-weighted so the media mix does
+ *   not outweigh genre taste
+ *
+ * The result is L2-normalized.
+ */
+@Component
+public class TasteVectorizer {
+
+    // A genre with this many ratings counts half
+    private static final double CONFIDENCE_RATINGS = 5.0;
+    private static final double MEDIA_TYPE_WEIGHT = 0.25;
+
+    @Autowired
+    private TasteDimensionDictionary dictionary;
+
+    /**
+     * Vector of a profile, or null when it has no ratings
+     */
+    public float[] toVector(TasteProfileStats stats) {
+        long total = stats.getRating().getCount();
+        if (total == 0) {
+            return null;
+        }
+
+        float[] vector = new float[dictionary.dimensions()];
+        double mean = stats.getRating().getMean();
+        stats.getMediaTypes().forEach((type, count) ->
+                set(vector, TasteDimension.MEDIA_TYPE, type, MEDIA_TYPE_WEIGHT * count / total));
+        stats.getGenres().forEach((genre, genreStats) -> {
+            double confidence = genreStats.getCount() / (genreStats.getCount() + CONFIDENCE_RATINGS);
+            set(vector, TasteDimension.GENRE, genre, (genreStats.decayedAverage() - mean) / 9 * confidence);
+        });
+
+        return TasteVectors.normalize(vector) ? vector : null;
+    }
+
+    /**
+     * Cosine similarity in [-1, 1] between a taste vector and a media item, with the item
+     * vectorized like a profile that rated only it (its genres and media type)
+     */
+    public double affinity(float[] tasteVector, String mediaType, Collection<String> genres) {
+        double dot = 0;
+        double norm = 0;
+        int typeIndex = dictionary.find(TasteDimension.MEDIA_TYPE, mediaType);
+        if (typeIndex >= 0 && typeIndex < tasteVector.length) {
+            dot += MEDIA_TYPE_WEIGHT * tasteVector[typeIndex];
+            norm += MEDIA_TYPE_WEIGHT * MEDIA_TYPE_WEIGHT;
+        }
+        if (genres != null) {
+            for (String genre : genres) {
+                int index = dictionary.find(TasteDimension.GENRE, genre);
+                if (index >= 0 && index < tasteVector.length) {
+                    dot += tasteVector[index];
+                    norm += 1;
+                }
+            }
+        }
+        return norm == 0 ? 0 : dot / Math.sqrt(norm);
+    }
+
+    /**
+     * Make sure the genres have dimensions (adding one takes its own transaction)
+     */
+    public void registerGenres(Collection<String> genres) {
+        if (genres != null) {
+            for (String genre : genres) {
+                dictionary.indexOf(TasteDimension.GENRE, genre);
+            }
+        }
+    }
+
+    private void set(float[] vector, String kind, String name, double value) {
+        int index = dictionary.indexOf(kind, name);
+        if (index >= 0) {
+            vector[index] = (float) value;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- V12: Composite index for the stale taste profile sweeper
+-- The sweeper pages through stale profiles with keyset pagination on (last_calculated, user_id);
+-- the composite index serves both the range scan and the tie-break, and replaces the
+-- single-column index it starts with
+
+CREATE INDEX idx_taste_profile_calculated_user ON taste_profiles(last_calculated, user_id);
+DROP INDEX idx_taste_profile_calculated;
+
+COMMENT ON INDEX idx_taste_profile_calculated_user IS 'Keyset pagination of stale profiles (TasteProfileSweeper)';
@@ -0,0 +1,27 @@
+-- V13: Taste vectors
+-- Fixed-dimension float vectors derived from taste profiles, for similarity and scoring.
+-- taste_dimensions is an append-only dictionary: a dimension's index (id - 1) never changes,
+-- so vectors written at different times stay comparable
+
+CREATE TABLE taste_dimensions (
+    id SERIAL PRIMARY KEY,
+    kind VARCHAR(20) NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_taste_dimension UNIQUE (kind, name)
+);
+
+-- Media types and the common genres get the first dimensions; others are added on first use
+INSERT INTO taste_dimensions (kind, name) VALUES
+    ('media_type', 'movie'), ('media_type', 'book'), ('media_type', 'game'),
+    ('genre', 'Action'), ('genre', 'Adventure'), ('genre', 'Animation'), ('genre', 'Comedy'),
+    ('genre', 'Crime'), ('genre', 'Documentary'), ('genre', 'Drama'), ('genre', 'Family'),
+    ('genre', 'Fantasy'), ('genre', 'History'), ('genre', 'Horror'), ('genre', 'Music'),
+    ('genre', 'Mystery'), ('genre', 'Romance'), ('genre', 'Science Fiction'), ('genre', 'Thriller'),
+    ('genre', 'War'), ('genre', 'Western');
+
+-- Little-endian float32 array, L2-normalized (NULL until the profile has ratings)
+ALTER TABLE taste_profiles ADD COLUMN taste_vector BYTEA;
+
+COMMENT ON TABLE taste_dimensions IS 'Append-only dictionary of taste vector dimensions (index = id - 1)';
+COMMENT ON COLUMN taste_profiles.taste_vector IS 'L2-normalized float32 taste vector, little-endian';
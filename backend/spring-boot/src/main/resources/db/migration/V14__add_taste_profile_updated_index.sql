@@ -0,0 +1,7 @@
+-- V14: Index for incremental sync of taste vectors
+-- Every node's similar-user index polls for profiles changed since its watermark, using
+-- keyset pagination on (updated_at, user_id)
+
+CREATE INDEX idx_taste_profile_updated_user ON taste_profiles(updated_at, user_id);
+
+COMMENT ON INDEX idx_taste_profile_updated_user IS 'Incremental taste vector sync (SimilarUserIndex)';
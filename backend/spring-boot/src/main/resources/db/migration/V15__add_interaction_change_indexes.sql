@@ -0,0 +1,9 @@
+-- V15: Indexes for finding recently changed ratings and watched entries
+-- The item-item similarity model is refreshed incrementally from the users whose
+-- interactions changed since its watermark
+
+CREATE INDEX idx_rating_updated ON ratings(updated_at);
+CREATE INDEX idx_watched_created ON watched_entries(created_at);
+
+COMMENT ON INDEX idx_rating_updated IS 'Incremental item similarity refresh (ItemSimilarityIndex)';
+COMMENT ON INDEX idx_watched_created IS 'Incremental item similarity refresh (ItemSimilarityIndex)';
@@ -0,0 +1,24 @@
+-- V16: Media key dictionary
+-- Maps (media_type, media_id) to a dense int, so in-memory structures can key media by int
+-- instead of strings. Append-only: an id never changes meaning (in-memory index = id - 1)
+
+CREATE TABLE media_keys (
+    id SERIAL PRIMARY KEY,
+    media_type VARCHAR(20) NOT NULL,
+    media_id VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_media_key UNIQUE (media_type, media_id)
+);
+
+-- Every media item users interacted with so far
+INSERT INTO media_keys (media_type, media_id)
+SELECT media_type, media_id FROM (
+    SELECT media_type, media_id FROM ratings
+    UNION
+    SELECT media_type, media_id FROM watched_entries
+    UNION
+    SELECT media_type, media_id FROM bookmarks
+) interacted
+ORDER BY media_type, media_id;
+
+COMMENT ON TABLE media_keys IS 'Append-only dictionary of media items (in-memory index = id - 1)';
@@ -0,0 +1,43 @@
+-- V17: Pre-aggregated rating statistics per media item, and media genres
+-- media_rating_stats is maintained by RatingService in the rating's transaction; the Bayesian
+-- average is (prior_weight * prior_mean + rating_sum) / (prior_weight + rating_count).
+-- media_genres carries a copy of the average so a genre's top items are one index range scan
+
+CREATE TABLE media_rating_stats (
+    media_type VARCHAR(20) NOT NULL,
+    media_id VARCHAR(100) NOT NULL,
+    rating_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum BIGINT NOT NULL DEFAULT 0,
+    rating_sum_squares BIGINT NOT NULL DEFAULT 0,
+    bayesian_average DOUBLE PRECISION NOT NULL,
+    genres_loaded_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (media_type, media_id),
+    CONSTRAINT chk_stats_media_type CHECK (media_type IN ('MOVIE', 'BOOK', 'GAME'))
+);
+
+-- Items whose genres still have to be fetched (backfill job)
+CREATE INDEX idx_rating_stats_genres_pending ON media_rating_stats(updated_at) WHERE genres_loaded_at IS NULL;
+
+CREATE TABLE media_genres (
+    media_type VARCHAR(20) NOT NULL,
+    media_id VARCHAR(100) NOT NULL,
+    genre VARCHAR(100) NOT NULL,
+    bayesian_average DOUBLE PRECISION NOT NULL,
+    rating_count BIGINT NOT NULL,
+    PRIMARY KEY (media_type, media_id, genre)
+);
+
+CREATE INDEX idx_media_genres_top ON media_genres(genre, bayesian_average DESC);
+CREATE INDEX idx_media_genres_type_top ON media_genres(genre, media_type, bayesian_average DESC);
+
+-- Existing ratings, with the default prior (insightx.rating-stats.prior-mean / prior-weight)
+INSERT INTO media_rating_stats (media_type, media_id, rating_count, rating_sum, rating_sum_squares, bayesian_average)
+SELECT media_type, media_id, COUNT(*), SUM(rating), SUM(rating * rating),
+       (10 * 6.0 + SUM(rating)) / (10 + COUNT(*))
+FROM ratings
+GROUP BY media_type, media_id;
+
+COMMENT ON TABLE media_rating_stats IS 'Rating count, sum, sum of squares and Bayesian average per media item';
+COMMENT ON TABLE media_genres IS 'Genres of rated media (from metadata), with a copy of the Bayesian average for genre top-N';
+COMMENT ON COLUMN media_genres.genre IS 'Normalized genre: lower case, words joined by hyphens';
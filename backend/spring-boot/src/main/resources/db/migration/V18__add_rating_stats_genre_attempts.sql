@@ -0,0 +1,11 @@
+-- V18: Remember failed genre loads so the backfill job moves past items without metadata
+-- Pending items are tried never-attempted first, then oldest attempt first, and an item is
+-- retried only after insightx.rating-stats.genre-backfill-retry-ms
+
+ALTER TABLE media_rating_stats ADD COLUMN genres_attempted_at TIMESTAMP;
+
+DROP INDEX idx_rating_stats_genres_pending;
+CREATE INDEX idx_rating_stats_genres_pending ON media_rating_stats(genres_attempted_at NULLS FIRST, updated_at)
+    WHERE genres_loaded_at IS NULL;
+
+COMMENT ON COLUMN media_rating_stats.genres_attempted_at IS 'Last failed genre load (metadata unavailable); null = never attempted';
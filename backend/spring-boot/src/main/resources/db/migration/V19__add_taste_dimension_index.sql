@@ -0,0 +1,12 @@
+-- V19: Dense taste vector indexes
+-- A SERIAL id skips values whenever an insert loses a race or rolls back, and each skipped value
+-- was a wasted vector slot. New dimensions take MAX(idx) + 1 under a table lock instead.
+-- Existing dimensions keep index id - 1 so stored vectors stay valid.
+
+ALTER TABLE taste_dimensions ADD COLUMN idx INTEGER;
+UPDATE taste_dimensions SET idx = id - 1;
+ALTER TABLE taste_dimensions ALTER COLUMN idx SET NOT NULL;
+ALTER TABLE taste_dimensions ADD CONSTRAINT uk_taste_dimension_idx UNIQUE (idx);
+
+COMMENT ON TABLE taste_dimensions IS 'Append-only dictionary of taste vector dimensions';
+COMMENT ON COLUMN taste_dimensions.idx IS 'Vector index of the dimension (dense, never reused)';